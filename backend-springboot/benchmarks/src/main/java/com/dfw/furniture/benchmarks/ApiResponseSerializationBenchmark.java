@@ -0,0 +1,64 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.ProductSummary;
+import com.dfw.furniture.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialising a {@code GET /api/products} page the way the controller returns it, with full
+ * entities and with {@code fields=summary} cards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<Map<String, Object>> entityPage;
+    private ApiResponse<Map<String, Object>> summaryPage;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Product> products = CatalogFixtures.products(pageSize, 7);
+        entityPage = page(products);
+        summaryPage = page(products.stream().map(ProductSummary::from).toList());
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    private ApiResponse<Map<String, Object>> page(List<?> products) {
+        return ApiResponse.success(Map.of(
+                "products", products,
+                "currentPage", 0,
+                "totalItems", 5_000L,
+                "totalPages", 5_000 / pageSize,
+                "facets", Map.of(
+                        "brand", Map.of("Nilkamal", 812L, "Durian", 640L),
+                        "color", Map.of("Walnut", 420L, "Grey", 388L)
+                )
+        ));
+    }
+}
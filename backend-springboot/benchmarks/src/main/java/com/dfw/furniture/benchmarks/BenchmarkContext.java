@@ -0,0 +1,49 @@
+package com.dfw.furniture.benchmarks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * A minimal Spring context holding just the beans under test, so {@code @Value} properties
+ * and {@code @PostConstruct} initialisation run exactly as in the application. Collaborators
+ * that are not being measured are registered as ready-made instances (usually mocks).
+ */
+public final class BenchmarkContext {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    public BenchmarkContext(Map<String, Object> properties) {
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        // Converts "10m" to Duration and "1,2,3" to List, like Spring Boot does
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+    }
+
+    public <T> BenchmarkContext instance(Class<T> type, T instance) {
+        context.registerBean(type, () -> instance);
+        return this;
+    }
+
+    public BenchmarkContext component(Class<?> type) {
+        context.registerBean(type);
+        return this;
+    }
+
+    public BenchmarkContext start() {
+        context.refresh();
+        return this;
+    }
+
+    public <T> T get(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void close() {
+        context.close();
+    }
+}
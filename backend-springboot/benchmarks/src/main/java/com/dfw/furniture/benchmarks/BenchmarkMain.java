@@ -0,0 +1,28 @@
+package com.dfw.furniture.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH's own command line, except that results are written as JSON to
+ * {@code jmh-result.json} unless {@code -rf}/{@code -rff} say otherwise, so runs can be
+ * diffed between releases.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,48 @@
+package com.dfw.furniture.benchmarks;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * A real Redis for the benchmarks whose hot path is in Redis, as an in-process stand-in would
+ * measure nothing. Set {@code -Dbenchmark.redis=host:port} (localhost:6379). Database 15 is
+ * flushed on every {@link #connect}, so do not point this at a Redis holding anything else.
+ */
+final class BenchmarkRedis implements AutoCloseable {
+
+    private static final int DATABASE = 15;
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    private BenchmarkRedis(LettuceConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.template = new StringRedisTemplate(connectionFactory);
+    }
+
+    static BenchmarkRedis connect() {
+        String[] address = System.getProperty("benchmark.redis", "localhost:6379").split(":");
+        RedisStandaloneConfiguration configuration =
+                new RedisStandaloneConfiguration(address[0], address.length > 1 ? Integer.parseInt(address[1]) : 6379);
+        configuration.setDatabase(DATABASE);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        BenchmarkRedis redis = new BenchmarkRedis(connectionFactory);
+        redis.template.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        return redis;
+    }
+
+    StringRedisTemplate template() {
+        return template;
+    }
+
+    @Override
+    public void close() {
+        connectionFactory.destroy();
+    }
+}
@@ -0,0 +1,110 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic, realistically shaped catalog data. The same seed always produces the same
+ * products, so results are comparable between runs.
+ */
+public final class CatalogFixtures {
+
+    public static final String[] BRANDS = {"Urban Ladder", "Nilkamal", "Durian", "Godrej Interio", "Wakefit", "Sleepyhead"};
+    public static final String[] MATERIALS = {"Sheesham Wood", "Teak Wood", "Engineered Wood", "Metal", "Fabric", "Leatherette"};
+    public static final String[] COLORS = {"Walnut", "Honey Oak", "Grey", "Beige", "Black", "White", "Teal"};
+    public static final String[] TYPES = {"Sofa", "Bed", "Dining Table", "Wardrobe", "Bookshelf", "Recliner", "Coffee Table", "Study Desk"};
+    public static final String[] STYLES = {"Modern", "Classic", "Scandinavian", "Industrial", "Rustic", "Contemporary"};
+    public static final String[] ROOMS = {"Living Room", "Bedroom", "Dining Room", "Study", "Outdoor"};
+    private static final LocalDateTime CATALOG_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private CatalogFixtures() {
+    }
+
+    public static List<Category> categories() {
+        List<Category> categories = new ArrayList<>();
+        for (String room : ROOMS) {
+            Category category = new Category();
+            category.setId(UUID.nameUUIDFromBytes(room.getBytes()));
+            category.setName(room);
+            category.setSlug(room.toLowerCase().replace(' ', '-'));
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    public static List<Product> products(int count, long seed) {
+        Random random = new Random(seed);
+        List<Category> categories = categories();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = product(random, i, categories.get(random.nextInt(categories.size())));
+            product.setId(new UUID(seed, i));
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Product number {@code index} in {@code category}, without an id. Names, slugs and SKUs
+     * are unique per index.
+     */
+    public static Product product(Random random, int index, Category category) {
+        String style = pick(random, STYLES);
+        String type = pick(random, TYPES);
+        String material = pick(random, MATERIALS);
+        String color = pick(random, COLORS);
+        String brand = pick(random, BRANDS);
+        BigDecimal price = BigDecimal.valueOf(5_000 + random.nextInt(150_000));
+        LocalDateTime createdAt = CATALOG_START.plusMinutes(index);
+
+        Product product = new Product();
+        product.setName(style + " " + material + " " + type + " " + index);
+        product.setSlug((style + "-" + type + "-" + index).toLowerCase().replace(' ', '-'));
+        product.setSku("SKU-" + index);
+        product.setShortDescription(style + " " + type.toLowerCase() + " in " + color.toLowerCase());
+        product.setDescription("A " + style.toLowerCase() + " " + type.toLowerCase() + " crafted from "
+                + material.toLowerCase() + " with a " + color.toLowerCase() + " finish. Built for everyday use.");
+        product.setCategory(category);
+        product.setPrice(price);
+        product.setSalePrice(random.nextInt(4) == 0 ? price.multiply(BigDecimal.valueOf(0.85)) : null);
+        product.setStockQuantity(random.nextInt(200));
+        product.setLowStockThreshold(5);
+        product.setMaterial(material);
+        product.setColor(color);
+        product.setBrand(brand);
+        product.setIsFeatured(random.nextInt(20) == 0);
+        product.setIsActive(true);
+        product.setIsCustomizable(random.nextBoolean());
+        product.setAverageRating(BigDecimal.valueOf(random.nextInt(50), 1));
+        product.setTotalReviews(random.nextInt(500));
+        product.setTotalSales(random.nextInt(5_000));
+        product.setViews(random.nextInt(100_000));
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(createdAt);
+        return product;
+    }
+
+    public static User user(int i) {
+        User user = new User();
+        user.setId(new UUID(42, i));
+        user.setEmail("shopper" + i + "@example.com");
+        user.setFirstName("Shopper");
+        user.setLastName(String.valueOf(i));
+        user.setPassword("{noop}secret");
+        user.setRole(User.Role.USER);
+        user.setStatus(User.Status.ACTIVE);
+        return user;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
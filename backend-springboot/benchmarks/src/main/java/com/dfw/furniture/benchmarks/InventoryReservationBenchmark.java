@@ -0,0 +1,134 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.exception.InsufficientStockException;
+import com.dfw.furniture.inventory.InventoryService;
+import com.dfw.furniture.inventory.Reservation;
+import com.dfw.furniture.inventory.StockStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checkout-style stress on a handful of hot products: many threads reserve a unit and then
+ * release or confirm it, spread over two service instances sharing one Redis and one database
+ * as two nodes would. Needs a Redis server (see {@link BenchmarkRedis}). Also a correctness
+ * check - after every iteration and a final flush no units may still be reserved, stock must
+ * never go negative, and exactly the confirmed units must have left {@code stock_quantity}.
+ * A violation fails the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class InventoryReservationBenchmark {
+
+    private static final int PRODUCTS = 4;
+    private static final int INITIAL_STOCK = 200_000;
+
+    // Share of reservations that are confirmed (sold) rather than released
+    @Param({"0.05", "0.5"})
+    private double confirmRatio;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BenchmarkRedis redis;
+    private BenchmarkContext[] contexts;
+    private InventoryService[] nodes;
+    private UUID[] productIds;
+    private LongAdder confirmedUnits;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE products (id UUID PRIMARY KEY, slug VARCHAR(255), stock_quantity INT,
+                    low_stock_threshold INT, total_sales INT, updated_at TIMESTAMP)""");
+        productIds = new UUID[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds[i] = new UUID(5, i);
+            jdbcTemplate.update("""
+                    INSERT INTO products (id, slug, stock_quantity, low_stock_threshold, total_sales)
+                    VALUES (?, ?, ?, 5, 0)""", productIds[i], "product-" + i, INITIAL_STOCK);
+        }
+        redis = BenchmarkRedis.connect();
+
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(database);
+        contexts = new BenchmarkContext[2];
+        nodes = new InventoryService[2];
+        for (int i = 0; i < 2; i++) {
+            contexts[i] = new BenchmarkContext(Map.of())
+                    .instance(StringRedisTemplate.class, redis.template())
+                    .instance(JdbcTemplate.class, jdbcTemplate)
+                    .instance(PlatformTransactionManager.class, transactionManager)
+                    .component(InventoryService.class)
+                    .start();
+            nodes[i] = contexts[i].get(InventoryService.class);
+        }
+        confirmedUnits = new LongAdder();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        nodes[0].flush();
+        long onHand = 0;
+        for (UUID productId : productIds) {
+            StockStatus stock = nodes[1].getStock(productId);
+            if (stock.available() < 0 || stock.reserved() != 0) {
+                throw new IllegalStateException("Stock out of balance: " + stock);
+            }
+            Integer stored = jdbcTemplate.queryForObject(
+                    "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+            if (stored == null || stored != stock.onHand()) {
+                throw new IllegalStateException(stored + " in stock_quantity, but the counters say " + stock);
+            }
+            onHand += stock.onHand();
+        }
+        for (BenchmarkContext context : contexts) {
+            context.close();
+        }
+        redis.close();
+        database.shutdown();
+        if (onHand != (long) PRODUCTS * INITIAL_STOCK - confirmedUnits.sum()) {
+            throw new IllegalStateException("Oversold: " + onHand + " on hand after "
+                    + confirmedUnits.sum() + " confirmed units");
+        }
+    }
+
+    @Benchmark
+    public void reserveThenSettle() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID productId = productIds[random.nextInt(PRODUCTS)];
+        InventoryService inventory = nodes[random.nextInt(nodes.length)];
+        Reservation reservation;
+        try {
+            // One owner per thread, each holding one unit at a time, well under the per-owner cap
+            reservation = inventory.reserve(productId, 1, Thread.currentThread().getName());
+        } catch (InsufficientStockException ex) {
+            return;
+        }
+        if (random.nextDouble() < confirmRatio) {
+            inventory.confirm(reservation.id(), reservation.owner());
+            confirmedUnits.increment();
+        } else {
+            inventory.release(reservation.id(), reservation.owner());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.security.JwtAuthenticationFilter;
+import com.dfw.furniture.security.JwtTokenProvider;
+import com.dfw.furniture.security.PrincipalCache;
+import com.dfw.furniture.security.TokenVerificationCache;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter}, with the user lookup
+ * mocked. {@code cached} is the filter as shipped; {@code uncached} does the same work
+ * without either cache (a full token parse and a user lookup per request), which is what the
+ * filter did before the caches were added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private BenchmarkContext context;
+    private JwtAuthenticationFilter filter;
+    private JwtTokenProvider provider;
+    private UserDetailsService userDetailsService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = CatalogFixtures.user(1);
+        userDetailsService = Mockito.mock(UserDetailsService.class);
+        Mockito.when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+
+        context = new BenchmarkContext(Map.of(
+                "jwt.secret", "benchmark-secret-key-that-is-long-enough-for-hs256-signing",
+                "jwt.expiration", 86_400_000L,
+                "jwt.refresh.expiration", 604_800_000L
+        ))
+                .instance(UserDetailsService.class, userDetailsService)
+                .component(JwtTokenProvider.class)
+                .component(TokenVerificationCache.class)
+                .component(PrincipalCache.class)
+                .component(JwtAuthenticationFilter.class)
+                .start();
+        filter = context.get(JwtAuthenticationFilter.class);
+        provider = context.get(JwtTokenProvider.class);
+        token = provider.generateToken(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = request();
+        FilterChain chain = new MockFilterChain();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole) {
+        MockHttpServletRequest request = request();
+        String header = request.getHeader("Authorization");
+        String email = provider.extractUsername(header.substring(7));
+        var userDetails = userDetailsService.loadUserByUsername(email);
+        blackhole.consume(provider.validateToken(header.substring(7), userDetails));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,65 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.security.JwtTokenProvider;
+import com.dfw.furniture.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and the three ways a token gets checked: the single-parse {@code verify}
+ * used by the filter today, and the older per-claim {@code extractUsername} and
+ * {@code validateToken} paths that each re-parse the token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private BenchmarkContext context;
+    private JwtTokenProvider provider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = new BenchmarkContext(Map.of(
+                "jwt.secret", "benchmark-secret-key-that-is-long-enough-for-hs256-signing",
+                "jwt.expiration", 86_400_000L,
+                "jwt.refresh.expiration", 604_800_000L
+        )).component(JwtTokenProvider.class).start();
+        provider = context.get(JwtTokenProvider.class);
+        user = CatalogFixtures.user(1);
+        token = provider.generateToken(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return provider.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return provider.verify(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return provider.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validate() {
+        return provider.validateToken(token, user);
+    }
+}
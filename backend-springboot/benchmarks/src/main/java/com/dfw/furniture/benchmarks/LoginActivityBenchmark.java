@@ -0,0 +1,77 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.service.LoginActivityRecorder;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a login pays for recording itself: {@code recordLogin} only buffers, so this is the
+ * cost left on the request path. {@code directUpdate} is the synchronous UPDATE it replaced,
+ * against an in-memory database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoginActivityBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private BenchmarkContext context;
+    private LoginActivityRecorder recorder;
+    private JdbcTemplate jdbcTemplate;
+    private EmbeddedDatabase database;
+    private User[] users;
+
+    @Setup
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, last_login TIMESTAMP)");
+        users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = CatalogFixtures.user(i);
+            jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", users[i].getId());
+        }
+
+        context = new BenchmarkContext(Map.of("auth.login-events.enabled", false))
+                .instance(JdbcTemplate.class, jdbcTemplate)
+                .instance(StringRedisTemplate.class, Mockito.mock(StringRedisTemplate.class))
+                .component(LoginActivityRecorder.class)
+                .start();
+        recorder = context.get(LoginActivityRecorder.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void recordLogin() {
+        recorder.recordLogin(users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public int directUpdate() {
+        return jdbcTemplate.update("UPDATE users SET last_login = CURRENT_TIMESTAMP WHERE id = ?",
+                users[ThreadLocalRandom.current().nextInt(USERS)].getId());
+    }
+}
@@ -0,0 +1,176 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.dto.OrderRequest;
+import com.dfw.furniture.exception.InsufficientStockException;
+import com.dfw.furniture.inventory.InventoryService;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.order.OrderService;
+import com.dfw.furniture.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Order placement with the stock taken from the inventory counters in Redis and the order
+ * inserted into an in-memory database: one to three lines per order, drawn from
+ * {@code hotProducts} products, so a small catalog shows what contention on a product costs.
+ * Needs a Redis server (see {@link BenchmarkRedis}). Also a correctness check - after every
+ * iteration and a final flush exactly the ordered units must have left {@code stock_quantity}
+ * and been added to {@code total_sales}, with one order item per line. A violation fails the
+ * run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class OrderPlacementBenchmark {
+
+    private static final int INITIAL_STOCK = 10_000_000;
+
+    @Param({"4", "1000"})
+    private int hotProducts;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BenchmarkRedis redis;
+    private BenchmarkContext context;
+    private OrderService orderService;
+    private InventoryService inventoryService;
+    private List<Product> products;
+    private User[] users;
+    private LongAdder orderedUnits;
+    private LongAdder orderedLines;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE DOMAIN jsonb AS JSON");
+        jdbcTemplate.execute("""
+                CREATE TABLE products (id UUID PRIMARY KEY, slug VARCHAR(255), is_active BOOLEAN, stock_quantity INT,
+                    low_stock_threshold INT, total_sales INT, updated_at TIMESTAMP)""");
+        jdbcTemplate.execute("""
+                CREATE TABLE orders (id UUID PRIMARY KEY, order_number VARCHAR(50), user_id UUID, status VARCHAR(30),
+                    payment_status VARCHAR(30), subtotal DECIMAL(10,2), total_amount DECIMAL(10,2),
+                    customer_email VARCHAR(255), customer_phone VARCHAR(20), customer_name VARCHAR(200),
+                    shipping_address jsonb, billing_address jsonb, shipping_method VARCHAR(50), notes TEXT,
+                    order_date TIMESTAMP, created_at TIMESTAMP, updated_at TIMESTAMP)""");
+        jdbcTemplate.execute("""
+                CREATE TABLE order_items (id UUID DEFAULT RANDOM_UUID() PRIMARY KEY, order_id UUID, product_id UUID,
+                    product_name VARCHAR(255), product_sku VARCHAR(100), quantity INT,
+                    unit_price DECIMAL(10,2), total_price DECIMAL(10,2))""");
+
+        products = CatalogFixtures.products(hotProducts, 17);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, is_active, stock_quantity, low_stock_threshold, total_sales) VALUES (?, true, ?, 5, 0)",
+                products.stream().map(product -> new Object[]{product.getId(), INITIAL_STOCK}).toList());
+        Map<UUID, Product> byId = new HashMap<>();
+        products.forEach(product -> byId.put(product.getId(), product));
+        ProductService productService = Mockito.mock(ProductService.class);
+        Mockito.when(productService.getProductsByIds(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(byId::get).toList();
+        });
+
+        redis = BenchmarkRedis.connect();
+
+        users = new User[64];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = CatalogFixtures.user(i);
+        }
+
+        try {
+            context = new BenchmarkContext(Map.of())
+                    .instance(JdbcTemplate.class, jdbcTemplate)
+                    .instance(PlatformTransactionManager.class, new DataSourceTransactionManager(database))
+                    .instance(ProductService.class, productService)
+                    .instance(StringRedisTemplate.class, redis.template())
+                    .instance(ObjectMapper.class, new ObjectMapper().findAndRegisterModules())
+                    // Package-private; only reached with an idempotency key, which this benchmark never sends
+                    .component(Class.forName("com.dfw.furniture.order.IdempotencyStore"))
+                    .component(InventoryService.class)
+                    .component(OrderService.class)
+                    .start();
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+        orderService = context.get(OrderService.class);
+        inventoryService = context.get(InventoryService.class);
+        orderedUnits = new LongAdder();
+        orderedLines = new LongAdder();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        inventoryService.flush();
+        Long stock = jdbcTemplate.queryForObject("SELECT SUM(stock_quantity) FROM products", Long.class);
+        Long sales = jdbcTemplate.queryForObject("SELECT SUM(total_sales) FROM products", Long.class);
+        Long lines = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items", Long.class);
+        context.close();
+        redis.close();
+        database.shutdown();
+        long units = orderedUnits.sum();
+        if (stock == null || stock != (long) hotProducts * INITIAL_STOCK - units) {
+            throw new IllegalStateException("Stock " + stock + " after " + units + " ordered units");
+        }
+        if (sales == null || sales != units) {
+            throw new IllegalStateException("Sales " + sales + " after " + units + " ordered units");
+        }
+        if (lines == null || lines != orderedLines.sum()) {
+            throw new IllegalStateException(lines + " order items stored for " + orderedLines.sum() + " lines");
+        }
+    }
+
+    @Benchmark
+    public Object placeOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lineCount = 1 + random.nextInt(Math.min(3, hotProducts));
+        List<OrderRequest.Item> items = new ArrayList<>(lineCount);
+        int first = random.nextInt(hotProducts);
+        int units = 0;
+        for (int i = 0; i < lineCount; i++) {
+            int quantity = 1 + random.nextInt(3);
+            items.add(new OrderRequest.Item(products.get((first + i) % hotProducts).getId(), quantity));
+            units += quantity;
+        }
+        OrderRequest request = OrderRequest.builder()
+                .items(items)
+                .shippingAddress(Map.of("city", "Dallas"))
+                .shippingMethod("standard")
+                .build();
+        try {
+            Object order = orderService.placeOrder(users[random.nextInt(users.length)], request, null);
+            orderedUnits.add(units);
+            orderedLines.add(lineCount);
+            return order;
+        } catch (InsufficientStockException ex) {
+            throw new IllegalStateException("Ran out of stock; raise INITIAL_STOCK", ex);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.dfw.furniture.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Sort}/{@code PageRequest} construction {@code ProductController.getAllProducts}
+ * does on every listing request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageRequestBenchmark {
+
+    @Param({"createdAt", "price"})
+    private String sortBy;
+
+    @Param({"desc", "asc"})
+    private String sortDir;
+
+    private int page;
+
+    @Benchmark
+    public Pageable sortedPage() {
+        Sort sort = sortDir.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        page = (page + 1) & 63;
+        return PageRequest.of(page, 20, sort);
+    }
+
+    @Benchmark
+    public Pageable unsortedPage() {
+        page = (page + 1) & 63;
+        return PageRequest.of(page, 20);
+    }
+}
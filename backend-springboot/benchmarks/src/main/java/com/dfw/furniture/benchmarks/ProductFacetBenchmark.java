@@ -0,0 +1,62 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.search.ProductFacetIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One filtered listing page with facet counts from {@link ProductFacetIndex}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProductFacetBenchmark {
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ProductFacetIndex index;
+    private String category;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = CatalogFixtures.products(catalogSize, 13);
+        index = new ProductFacetIndex(List.of(
+                BigDecimal.valueOf(10_000), BigDecimal.valueOf(25_000),
+                BigDecimal.valueOf(50_000), BigDecimal.valueOf(100_000)));
+        products.forEach(index::index);
+        category = CatalogFixtures.categories().get(0).getId().toString();
+    }
+
+    @Benchmark
+    public ProductFacetIndex.FacetResult unfiltered() {
+        return index.query(Map.of(), null, null, null, Sort.by("createdAt").descending(), 0, 20);
+    }
+
+    @Benchmark
+    public ProductFacetIndex.FacetResult combined() {
+        return index.query(
+                Map.of(
+                        ProductFacetIndex.CATEGORY, Set.of(category),
+                        ProductFacetIndex.BRAND, Set.of("Nilkamal", "Durian"),
+                        ProductFacetIndex.COLOR, Set.of("Walnut")
+                ),
+                BigDecimal.valueOf(20_000),
+                BigDecimal.valueOf(90_000),
+                null,
+                Sort.by("price").ascending(),
+                0,
+                20
+        );
+    }
+}
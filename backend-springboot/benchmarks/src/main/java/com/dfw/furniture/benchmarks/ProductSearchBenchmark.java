@@ -0,0 +1,146 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductRepository;
+import com.dfw.furniture.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a product search, three ways, against the same catalog in an in-memory
+ * database: {@code repository} is {@code ProductRepository.searchProducts}, the
+ * {@code LOWER(name) LIKE %q%} query the index replaced, with its count query;
+ * {@code index} ranks the whole catalog in the {@link ProductSearchIndex}; and
+ * {@code indexedPage} also loads the page's rows by id, as {@code ProductService} does.
+ * The LIKE query finds nothing for the misspelt and multi-word queries, but scans every row
+ * all the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String CATEGORY_SQL =
+            "INSERT INTO categories (id, name, slug, is_active, sort_order) VALUES (?, ?, ?, TRUE, 0)";
+    private static final String PRODUCT_SQL = """
+            INSERT INTO products (id, name, slug, sku, short_description, description, category_id, price,
+                sale_price, stock_quantity, low_stock_threshold, material, color, brand, is_featured, is_active,
+                is_customizable, average_rating, total_reviews, total_sales, views, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"sofa", "teak dining", "scandinavan bookshe"})
+    private String query;
+
+    private ProductSearchIndex index;
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private Pageable firstPage;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = CatalogFixtures.products(catalogSize, 11);
+        index = new ProductSearchIndex();
+        products.forEach(index::index);
+
+        context = new SpringApplicationBuilder(RepositoryConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // Arguments, so they win over the application's own application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:search-" + catalogSize
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.file.name=");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.batchUpdate(CATEGORY_SQL, CatalogFixtures.categories().stream()
+                .map(category -> new Object[]{category.getId(), category.getName(), category.getSlug()})
+                .toList());
+        jdbcTemplate.batchUpdate(PRODUCT_SQL, products.stream().map(ProductSearchBenchmark::row).toList());
+        productRepository = context.getBean(ProductRepository.class);
+        // The fallback's default order in ProductService.searchProducts
+        firstPage = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> repository() {
+        return productRepository.searchProducts(query, firstPage).getContent();
+    }
+
+    @Benchmark
+    public List<UUID> index() {
+        return index.search(query, Sort.unsorted());
+    }
+
+    @Benchmark
+    public List<Product> indexedPage() {
+        List<UUID> ranked = index.search(query, Sort.unsorted());
+        return productRepository.findByIdIn(ranked.subList(0, Math.min(20, ranked.size())));
+    }
+
+    private static Object[] row(Product product) {
+        Category category = product.getCategory();
+        return new Object[]{
+                product.getId(), product.getName(), product.getSlug(), product.getSku(),
+                product.getShortDescription(), product.getDescription(), category.getId(), product.getPrice(),
+                product.getSalePrice(), product.getStockQuantity(), product.getLowStockThreshold(),
+                product.getMaterial(), product.getColor(), product.getBrand(), product.getIsFeatured(),
+                product.getIsActive(), product.getIsCustomizable(), product.getAverageRating(),
+                product.getTotalReviews(), product.getTotalSales(), product.getViews(),
+                Timestamp.valueOf(product.getCreatedAt()), Timestamp.valueOf(product.getUpdatedAt())
+        };
+    }
+
+    // JPA and the product repository only, none of the application's other beans. Not a
+    // @Configuration, so ApiLoadTest's component scan of the whole application skips it
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            TransactionAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = Product.class)
+    @EnableJpaRepositories(
+            basePackageClasses = ProductRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ProductRepository.class))
+    static class RepositoryConfiguration {
+    }
+}
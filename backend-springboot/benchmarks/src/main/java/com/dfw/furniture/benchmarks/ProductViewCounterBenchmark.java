@@ -0,0 +1,55 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.service.ProductViewCounter;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended {@code recordView} calls from many request threads. Hot products are viewed far
+ * more often than the rest, so a few counters take most of the increments.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ProductViewCounterBenchmark {
+
+    private BenchmarkContext context;
+    private ProductViewCounter counter;
+    private UUID[] productIds;
+
+    @Setup
+    public void setUp() {
+        context = new BenchmarkContext(Map.of())
+                .instance(JdbcTemplate.class, Mockito.mock(JdbcTemplate.class))
+                .component(ProductViewCounter.class)
+                .start();
+        counter = context.get(ProductViewCounter.class);
+        productIds = new UUID[1_000];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = new UUID(3, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void recordView() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Nine in ten views go to the ten most popular products
+        int product = random.nextInt(10) < 9 ? random.nextInt(10) : random.nextInt(productIds.length);
+        counter.recordView(productIds[product]);
+    }
+}
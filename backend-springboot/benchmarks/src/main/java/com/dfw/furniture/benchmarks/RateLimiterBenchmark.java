@@ -0,0 +1,62 @@
+package com.dfw.furniture.benchmarks;
+
+import com.dfw.furniture.ratelimit.LocalRateLimiter;
+import com.dfw.furniture.ratelimit.RateLimit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decisions per second of the in-memory limiter from several threads. {@code clients}
+ * distinct addresses are spread over the buckets: few clients means most requests are
+ * refused and threads meet on the same stripes, many clients means constant slot turnover
+ * once they exceed {@code maxKeys}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"16", "10000", "200000"})
+    private int clients;
+
+    @Param({"1", "64"})
+    private int stripes;
+
+    private final RateLimit limit = new RateLimit("search:ip", 60, Duration.ofMinutes(1));
+    private LocalRateLimiter rateLimiter;
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new LocalRateLimiter(65_536, stripes);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String address = addresses[ThreadLocalRandom.current().nextInt(addresses.length)];
+        return rateLimiter.tryAcquire(limit, address);
+    }
+}
@@ -0,0 +1,336 @@
+package com.dfw.furniture.perf;
+
+import com.dfw.furniture.FurnitureApplication;
+import com.dfw.furniture.benchmarks.CatalogFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * End-to-end load test of the REST API. Boots the whole application against an in-memory H2
+ * database in PostgreSQL mode (Redis-backed caching is replaced by in-process caches), seeds
+ * a synthetic catalog before the search and facet indexes are built, and drives concurrent
+ * load at the product listing (every filter path), product detail, featured and login
+ * endpoints. Prints throughput, p50/p95/p99 and SQL queries per request, writes them to a
+ * JSON report and exits with status 1 if any regression threshold is broken.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.dfw.furniture.perf.ApiLoadTest
+ * </pre>
+ *
+ * Settings are system properties:
+ * <ul>
+ *   <li>{@code perf.products} (10000), {@code perf.users} (200), {@code perf.seed} (1)</li>
+ *   <li>{@code perf.concurrency} (32 client threads), {@code perf.warmup-seconds} (5),
+ *       {@code perf.duration-seconds} (20), both per scenario</li>
+ *   <li>{@code perf.scenarios} - comma-separated subset to run (all)</li>
+ *   <li>{@code perf.modes} - {@code platform}, {@code virtual} or both (platform); virtual
+ *       threads need Java 21</li>
+ *   <li>{@code perf.thresholds} - a thresholds file (the bundled perf-thresholds.properties)</li>
+ *   <li>{@code perf.report} - where to write the JSON report (perf-result.json)</li>
+ *   <li>{@code perf.app.<property>} - any application property, e.g.
+ *       {@code -Dperf.app.catalog.snapshot.enabled=true}; with {@code perf.app.tracing.enabled=true}
+ *       the slowest request traces are added to the report</li>
+ * </ul>
+ */
+public final class ApiLoadTest {
+
+    private static final String[] SEARCHES = {"sofa", "teak", "modern bed", "scandinavian wardrobe", "grey recliner"};
+
+    private ApiLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int products = Integer.getInteger("perf.products", 10_000);
+        int users = Integer.getInteger("perf.users", 200);
+        long seed = Long.getLong("perf.seed", 1L);
+        int concurrency = Integer.getInteger("perf.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("perf.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("perf.duration-seconds", 20));
+        String scenarioFilter = System.getProperty("perf.scenarios", "");
+        List<String> modes = List.of(System.getProperty("perf.modes", "platform").split(","));
+        Thresholds thresholds = Thresholds.load(System.getProperty("perf.thresholds"));
+        File report = new File(System.getProperty("perf.report", "perf-result.json"));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("products", products);
+        settings.put("users", users);
+        settings.put("seed", seed);
+        settings.put("concurrency", concurrency);
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("java", Runtime.version().toString());
+        settings.put("processors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, List<ScenarioResult>> results = new LinkedHashMap<>();
+        Map<String, JsonNode> slowestTraces = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        for (String name : modes) {
+            String mode = name.trim();
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual threads: they need Java 21, this is " + Runtime.version());
+                continue;
+            }
+            System.out.printf("%n== %s threads: %d products, %d users, %d clients ==%n", mode, products, users, concurrency);
+            List<ScenarioResult> modeResults = runMode(
+                    mode, products, users, seed, concurrency, warmup, duration, scenarioFilter, slowestTraces);
+            results.put(mode, modeResults);
+            print(modeResults);
+            for (ScenarioResult result : modeResults) {
+                thresholds.check(result).forEach(violation -> failures.add(mode + " " + violation));
+            }
+        }
+        if (results.size() == 2) {
+            compare(results);
+        }
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("settings", settings);
+        output.put("results", results);
+        output.put("failures", failures);
+        if (!slowestTraces.isEmpty()) {
+            output.put("slowestTraces", slowestTraces);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, output);
+        System.out.println("\nReport written to " + report.getAbsolutePath());
+
+        if (!failures.isEmpty()) {
+            System.out.println("\nRegression thresholds broken:");
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("All thresholds met");
+        System.exit(0);
+    }
+
+    private static List<ScenarioResult> runMode(
+            String mode, int products, int users, long seed, int concurrency,
+            Duration warmup, Duration duration, String scenarioFilter, Map<String, JsonNode> slowestTraces
+    ) throws Exception {
+        SpringApplication application = new SpringApplication(FurnitureApplication.class);
+        SeedingListener seeding = new SeedingListener(seed, products, users);
+        application.addListeners(seeding);
+
+        ConfigurableApplicationContext context = application.run(arguments(mode));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver(context.getBean(MeterRegistry.class), warmup, duration);
+            List<ScenarioResult> results = new ArrayList<>();
+            for (Scenario scenario : scenarios(port, concurrency, seeding.seeder)) {
+                if (!scenarioFilter.isBlank() && !List.of(scenarioFilter.split(",")).contains(scenario.name())) {
+                    continue;
+                }
+                System.out.println("Running " + scenario.name() + "...");
+                results.add(driver.run(scenario));
+            }
+            if (context.getEnvironment().getProperty("tracing.enabled", Boolean.class, false)) {
+                slowestTraces.put(mode, slowestTraces(port));
+            }
+            return results;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * The slowest request traces of the run (with {@code -Dperf.app.tracing.enabled=true}).
+     */
+    private static JsonNode slowestTraces(int port) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newHttpClient();
+        String base = "http://localhost:" + port;
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("email", CatalogSeeder.ADMIN_EMAIL, "password", CatalogSeeder.PASSWORD))))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(login.body()).path("data").path("token").asText();
+        HttpResponse<String> traces = client.send(HttpRequest.newBuilder(URI.create(base + "/api/admin/traces?limit=10"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(traces.body()).path("data").path("slowest");
+    }
+
+    private static String[] arguments(String mode) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:perf-" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.cache.type", "simple");
+        properties.put("spring.threads.virtual.enabled", String.valueOf(mode.equals("virtual")));
+        properties.put("management.health.redis.enabled", "false");
+        // Nothing below may need Redis while the test runs
+        properties.put("auth.login-events.enabled", "false");
+        properties.put("cart.flush-interval-ms", "3600000");
+        properties.put("inventory.sweep-interval-ms", "3600000");
+        properties.put("inventory.flush-interval-ms", "3600000");
+        // An endpoint over its @QueryBudget fails the request and so the error-rate threshold
+        properties.put("queries.budget.fail", "true");
+        // All clients share one address; RateLimiterBenchmark covers the limiter itself
+        properties.put("ratelimit.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.dfw.furniture", "INFO");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.file.name", "");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("perf.app."))
+                .forEach(name -> properties.put(name.substring("perf.app.".length()), System.getProperty(name)));
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static List<Scenario> scenarios(int port, int concurrency, CatalogSeeder seeder) {
+        String base = "http://localhost:" + port;
+        List<UUID> categories = seeder.categoryIds();
+        List<String> slugs = seeder.slugs();
+        List<String> emails = seeder.emails();
+        // Logins are CPU-bound on BCrypt; more clients than cores only measures queueing
+        int loginConcurrency = Math.min(concurrency, Runtime.getRuntime().availableProcessors());
+
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(listing(base, "products", concurrency, random -> ""));
+        scenarios.add(listing(base, "products-sorted", concurrency,
+                random -> "&sortBy=price&sortDir=" + (random.nextBoolean() ? "asc" : "desc")));
+        scenarios.add(listing(base, "products-category", concurrency,
+                random -> "&category=" + categories.get(random.nextInt(categories.size()))));
+        scenarios.add(listing(base, "products-search", concurrency,
+                random -> "&search=" + SEARCHES[random.nextInt(SEARCHES.length)].replace(" ", "+")));
+        scenarios.add(listing(base, "products-price", concurrency, random -> {
+            int min = 5_000 * (1 + random.nextInt(20));
+            return "&minPrice=" + min + "&maxPrice=" + (min + 25_000);
+        }));
+        scenarios.add(listing(base, "products-facets", concurrency, random ->
+                "&brand=" + encode(CatalogFixtures.BRANDS[random.nextInt(CatalogFixtures.BRANDS.length)])
+                        + "&color=" + encode(CatalogFixtures.COLORS[random.nextInt(CatalogFixtures.COLORS.length)])
+                        + "&material=" + encode(CatalogFixtures.MATERIALS[random.nextInt(CatalogFixtures.MATERIALS.length)])
+                        + "&featured=" + random.nextBoolean()
+                        + "&customizable=" + random.nextBoolean()));
+        scenarios.add(listing(base, "products-summary", concurrency, random -> "&fields=summary"));
+        // The landing page as a browser asks for it, served from pre-compressed bytes
+        scenarios.add(new Scenario("products-first-page", "GET", "/api/products", concurrency, random ->
+                HttpRequest.newBuilder(URI.create(base + "/api/products"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Accept-Encoding", "gzip")
+                        .GET()
+                        .build()));
+        scenarios.add(new Scenario("products-cursor", "GET", "/api/products/cursor", concurrency, random ->
+                get(base + "/api/products/cursor?size=20&sortBy=price&category="
+                        + categories.get(random.nextInt(categories.size())))));
+        scenarios.add(new Scenario("product-slug", "GET", "/api/products/slug/{slug}", concurrency, random ->
+                get(base + "/api/products/slug/" + slugs.get(random.nextInt(slugs.size())))));
+        scenarios.add(new Scenario("featured", "GET", "/api/products/featured", concurrency, random ->
+                get(base + "/api/products/featured")));
+        scenarios.add(new Scenario("login", "POST", "/api/auth/login", loginConcurrency, random ->
+                HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + emails.get(random.nextInt(emails.size()))
+                                + "\",\"password\":\"" + CatalogSeeder.PASSWORD + "\"}"))
+                        .build()));
+        return scenarios;
+    }
+
+    private static Scenario listing(String base, String name, int concurrency,
+                                    Function<Random, String> filter) {
+        return new Scenario(name, "GET", "/api/products", concurrency, random ->
+                get(base + "/api/products?size=20&page=" + random.nextInt(10) + filter.apply(random)));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void print(List<ScenarioResult> results) {
+        System.out.printf("%n%-18s %10s %9s %9s %9s %9s %8s %9s%n",
+                "scenario", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "queries");
+        for (ScenarioResult result : results) {
+            System.out.printf(Locale.ROOT, "%-18s %10.1f %9.2f %9.2f %9.2f %9.2f %8d %9.2f%n",
+                    result.name(), result.throughput(), result.p50(), result.p95(), result.p99(), result.max(),
+                    result.errors(), result.queriesPerRequest());
+        }
+    }
+
+    private static void compare(Map<String, List<ScenarioResult>> results) {
+        List<ScenarioResult> platform = results.get("platform");
+        List<ScenarioResult> virtual = results.get("virtual");
+        if (platform == null || virtual == null) {
+            return;
+        }
+        System.out.printf("%n%-18s %16s %16s%n", "virtual/platform", "throughput", "p99");
+        for (int i = 0; i < Math.min(platform.size(), virtual.size()); i++) {
+            ScenarioResult p = platform.get(i);
+            ScenarioResult v = virtual.get(i);
+            System.out.printf(Locale.ROOT, "%-18s %15.2fx %15.2fx%n",
+                    p.name(), v.throughput() / p.throughput(), v.p99() / p.p99());
+        }
+    }
+
+    /**
+     * Seeds the database once Hibernate has created the schema and before the application
+     * is ready, so the search, facet and category indexes are built over the seeded catalog.
+     */
+    private static final class SeedingListener implements ApplicationListener<ContextRefreshedEvent> {
+
+        private final long seed;
+        private final int products;
+        private final int users;
+        private CatalogSeeder seeder;
+
+        SeedingListener(long seed, int products, int users) {
+            this.seed = seed;
+            this.products = products;
+            this.users = users;
+        }
+
+        @Override
+        public void onApplicationEvent(ContextRefreshedEvent event) {
+            if (seeder != null) {
+                return;
+            }
+            var context = event.getApplicationContext();
+            seeder = new CatalogSeeder(context.getBean(JdbcTemplate.class), seed);
+            long started = System.nanoTime();
+            int strength = context.getEnvironment().getProperty("security.password.bcrypt-strength", Integer.class, 12);
+            seeder.seed(products, users, strength);
+            System.out.printf("Seeded %d products, %d categories and %d users in %d ms%n",
+                    products, seeder.categoryIds().size(), users, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
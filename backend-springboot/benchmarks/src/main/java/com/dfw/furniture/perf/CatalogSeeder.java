@@ -0,0 +1,148 @@
+package com.dfw.furniture.perf;
+
+import com.dfw.furniture.benchmarks.CatalogFixtures;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills an empty schema with a synthetic catalog: a three-level category tree (room, type,
+ * style), {@code products} products spread over every level, and {@code users} shoppers plus
+ * one admin ({@link #ADMIN_EMAIL}), all sharing {@link #PASSWORD}. Ids and values depend only
+ * on the seed, so two runs see the same data.
+ */
+class CatalogSeeder {
+
+    static final String PASSWORD = "perf-password";
+    static final String ADMIN_EMAIL = "perf-admin@example.com";
+    private static final int BATCH = 1_000;
+
+    private static final String CATEGORY_SQL = """
+            INSERT INTO categories (id, name, slug, parent_id, is_active, sort_order, created_at, updated_at)
+            VALUES (?, ?, ?, ?, TRUE, ?, ?, ?)""";
+
+    private static final String PRODUCT_SQL = """
+            INSERT INTO products (id, name, slug, sku, short_description, description, category_id, price, sale_price,
+                stock_quantity, low_stock_threshold, material, color, brand, is_featured, is_active, is_customizable,
+                has_360_view, assembly_required, average_rating, total_reviews, total_sales, views, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String USER_SQL = """
+            INSERT INTO users (id, email, password, first_name, last_name, role, status,
+                is_verified, email_verified, phone_verified, created_at, updated_at)
+            VALUES (?, ?, ?, 'Perf', ?, ?, 'ACTIVE', TRUE, TRUE, FALSE, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+
+    private final List<UUID> categoryIds = new ArrayList<>();
+    private final List<String> slugs = new ArrayList<>();
+    private final List<String> emails = new ArrayList<>();
+
+    CatalogSeeder(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+    }
+
+    void seed(int products, int users, int bcryptStrength) {
+        Random random = new Random(seed);
+        List<Category> categories = seedCategories();
+        seedProducts(random, products, categories);
+        seedUsers(users, bcryptStrength);
+    }
+
+    List<UUID> categoryIds() {
+        return categoryIds;
+    }
+
+    /**
+     * A sample of product slugs, for detail-page requests.
+     */
+    List<String> slugs() {
+        return slugs;
+    }
+
+    List<String> emails() {
+        return emails;
+    }
+
+    private List<Category> seedCategories() {
+        List<Object[]> rows = new ArrayList<>();
+        List<Category> all = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int order = 0;
+        for (String room : CatalogFixtures.ROOMS) {
+            UUID roomId = add(rows, all, room, null, order++, now);
+            for (String type : CatalogFixtures.TYPES) {
+                UUID typeId = add(rows, all, room + " " + type, roomId, order++, now);
+                for (String style : CatalogFixtures.STYLES) {
+                    add(rows, all, room + " " + style + " " + type, typeId, order++, now);
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(CATEGORY_SQL, rows);
+        return all;
+    }
+
+    private UUID add(List<Object[]> rows, List<Category> all,
+                     String name, UUID parentId, int order, Timestamp now) {
+        UUID id = UUID.nameUUIDFromBytes((seed + ":" + name).getBytes());
+        String slug = name.toLowerCase().replace(' ', '-');
+        rows.add(new Object[]{id, name, slug, parentId, order, now, now});
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        all.add(category);
+        categoryIds.add(id);
+        return id;
+    }
+
+    private void seedProducts(Random random, int count, List<Category> categories) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        int sampleEvery = Math.max(1, count / 1_000);
+        for (int i = 0; i < count; i++) {
+            Product product = CatalogFixtures.product(random, i, categories.get(random.nextInt(categories.size())));
+            rows.add(new Object[]{
+                    new UUID(seed, i), product.getName(), product.getSlug(), product.getSku(),
+                    product.getShortDescription(), product.getDescription(), product.getCategory().getId(),
+                    product.getPrice(), product.getSalePrice(), product.getStockQuantity(),
+                    product.getLowStockThreshold(), product.getMaterial(), product.getColor(), product.getBrand(),
+                    product.getIsFeatured(), product.getIsActive(), product.getIsCustomizable(),
+                    product.getAverageRating(), product.getTotalReviews(), product.getTotalSales(), product.getViews(),
+                    Timestamp.valueOf(product.getCreatedAt()), Timestamp.valueOf(product.getUpdatedAt())
+            });
+            if (i % sampleEvery == 0) {
+                slugs.add(product.getSlug());
+            }
+            if (rows.size() == BATCH) {
+                jdbcTemplate.batchUpdate(PRODUCT_SQL, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(PRODUCT_SQL, rows);
+        }
+    }
+
+    private void seedUsers(int count, int bcryptStrength) {
+        // One hash for everyone: hashing each user would dominate seeding
+        String hash = new BCryptPasswordEncoder(bcryptStrength).encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "perf-user-" + i + "@example.com";
+            rows.add(new Object[]{new UUID(seed + 1, i), email, hash, String.valueOf(i), "USER", now, now});
+            emails.add(email);
+        }
+        rows.add(new Object[]{new UUID(seed + 2, 0), ADMIN_EMAIL, hash, "Admin", "ADMIN", now, now});
+        jdbcTemplate.batchUpdate(USER_SQL, rows);
+    }
+}
@@ -0,0 +1,167 @@
+package com.dfw.furniture.perf;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load: each client thread sends its next request as soon as the previous one
+ * returns. A scenario runs a warmup phase, then a measured phase; only the measured phase
+ * counts towards latency, throughput and the queries per request read from the
+ * application's own {@code http.server.requests.queries} metric.
+ */
+class LoadDriver {
+
+    private final HttpClient client;
+    private final MeterRegistry meterRegistry;
+    private final Duration warmup;
+    private final Duration duration;
+
+    LoadDriver(MeterRegistry meterRegistry, Duration warmup, Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    ScenarioResult run(Scenario scenario) throws Exception {
+        phase(scenario, warmup);
+
+        double[] queriesBefore = queries(scenario);
+        long started = System.nanoTime();
+        List<Samples> samples = phase(scenario, duration);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        double[] queriesAfter = queries(scenario);
+
+        long errors = 0;
+        int total = 0;
+        for (Samples sample : samples) {
+            errors += sample.errors;
+            total += sample.size;
+            if (sample.firstError != null) {
+                System.out.println("  " + scenario.name() + " failed: " + sample.firstError);
+            }
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Samples sample : samples) {
+            System.arraycopy(sample.nanos, 0, latencies, offset, sample.size);
+            offset += sample.size;
+        }
+        Arrays.sort(latencies);
+
+        double measuredRequests = queriesAfter[0] - queriesBefore[0];
+        return new ScenarioResult(
+                scenario.name(),
+                total,
+                errors,
+                total / elapsedSeconds,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.95),
+                percentile(latencies, 0.99),
+                total == 0 ? 0 : latencies[total - 1] / 1e6,
+                measuredRequests == 0 ? 0 : (queriesAfter[1] - queriesBefore[1]) / measuredRequests
+        );
+    }
+
+    private List<Samples> phase(Scenario scenario, Duration length) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(scenario.concurrency());
+        try {
+            long deadline = System.nanoTime() + length.toNanos();
+            List<Future<Samples>> futures = new ArrayList<>();
+            for (int i = 0; i < scenario.concurrency(); i++) {
+                Random random = new Random(31L * i + scenario.name().hashCode());
+                futures.add(workers.submit(() -> drive(scenario, random, deadline)));
+            }
+            List<Samples> samples = new ArrayList<>();
+            for (Future<Samples> future : futures) {
+                samples.add(future.get());
+            }
+            return samples;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Samples drive(Scenario scenario, Random random, long deadline) {
+        Samples samples = new Samples();
+        while (System.nanoTime() < deadline) {
+            long started = System.nanoTime();
+            String error = null;
+            try {
+                HttpRequest request = scenario.request().apply(random);
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status < 200 || status >= 300) {
+                    error = "HTTP " + status + " for " + request.uri();
+                }
+            } catch (IOException ex) {
+                error = ex.toString();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            samples.add(System.nanoTime() - started, error);
+        }
+        return samples;
+    }
+
+    /**
+     * {requests, queries} recorded so far for the scenario's route.
+     */
+    private double[] queries(Scenario scenario) {
+        double count = 0;
+        double total = 0;
+        for (DistributionSummary summary : meterRegistry.find("http.server.requests.queries")
+                .tag("method", scenario.method())
+                .tag("uri", scenario.route())
+                .summaries()) {
+            count += summary.count();
+            total += summary.totalAmount();
+        }
+        return new double[]{count, total};
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[4096];
+        private int size;
+        private long errors;
+        // Only the first failure per client is reported; the count covers the rest
+        private String firstError;
+
+        void add(long latency, String error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (error != null) {
+                errors++;
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.dfw.furniture.perf;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * One kind of request to drive load with. {@code route} and {@code method} are the tags
+ * {@code RequestMetricsFilter} records queries under.
+ *
+ * @param concurrency client threads issuing requests back to back
+ */
+record Scenario(String name, String method, String route, int concurrency, Function<Random, HttpRequest> request) {
+}
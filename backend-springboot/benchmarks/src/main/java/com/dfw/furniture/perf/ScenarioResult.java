@@ -0,0 +1,21 @@
+package com.dfw.furniture.perf;
+
+/**
+ * Latencies are in milliseconds, throughput in requests per second.
+ */
+record ScenarioResult(
+        String name,
+        long requests,
+        long errors,
+        double throughput,
+        double p50,
+        double p95,
+        double p99,
+        double max,
+        double queriesPerRequest
+) {
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
@@ -0,0 +1,78 @@
+package com.dfw.furniture.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Regression limits per scenario, read from a properties file. {@code <scenario>.<limit>}
+ * overrides {@code default.<limit>}; a limit that is set in neither is not checked.
+ */
+class Thresholds {
+
+    private final Properties properties;
+
+    private Thresholds(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads {@code location} from the file system, or the bundled
+     * {@code perf-thresholds.properties} when it is null.
+     */
+    static Thresholds load(String location) throws IOException {
+        Properties properties = new Properties();
+        if (location != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(location))) {
+                properties.load(reader);
+            }
+        } else {
+            try (InputStream input = Thresholds.class.getResourceAsStream("/perf-thresholds.properties")) {
+                if (input != null) {
+                    properties.load(input);
+                }
+            }
+        }
+        return new Thresholds(properties);
+    }
+
+    /**
+     * Returns one message per limit {@code result} breaks; empty if it passes.
+     */
+    List<String> check(ScenarioResult result) {
+        List<String> violations = new ArrayList<>();
+        Double maxP99 = limit(result.name(), "max-p99-ms");
+        if (maxP99 != null && result.p99() > maxP99) {
+            violations.add(String.format("%s: p99 %.1f ms > %.1f ms", result.name(), result.p99(), maxP99));
+        }
+        Double maxP95 = limit(result.name(), "max-p95-ms");
+        if (maxP95 != null && result.p95() > maxP95) {
+            violations.add(String.format("%s: p95 %.1f ms > %.1f ms", result.name(), result.p95(), maxP95));
+        }
+        Double minThroughput = limit(result.name(), "min-throughput");
+        if (minThroughput != null && result.throughput() < minThroughput) {
+            violations.add(String.format("%s: %.0f req/s < %.0f req/s",
+                    result.name(), result.throughput(), minThroughput));
+        }
+        Double maxQueries = limit(result.name(), "max-queries-per-request");
+        if (maxQueries != null && result.queriesPerRequest() > maxQueries) {
+            violations.add(String.format("%s: %.2f queries per request > %.2f",
+                    result.name(), result.queriesPerRequest(), maxQueries));
+        }
+        Double maxErrorRate = limit(result.name(), "max-error-rate");
+        if (maxErrorRate != null && result.errorRate() > maxErrorRate) {
+            violations.add(String.format("%s: error rate %.4f > %.4f", result.name(), result.errorRate(), maxErrorRate));
+        }
+        return violations;
+    }
+
+    private Double limit(String scenario, String name) {
+        String value = properties.getProperty(scenario + "." + name, properties.getProperty("default." + name));
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+}
@@ -0,0 +1,66 @@
+package com.dfw.furniture.tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of tracing one request: opening and closing its spans and publishing the trace into
+ * the shared buffers from several threads. {@code untracedSpan} is what instrumented code
+ * pays outside a traced request. Lives in the tracing package for its package-private API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TracingBenchmark {
+
+    @Param({"10", "50"})
+    private int spans;
+
+    private TraceBuffer traceBuffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traceBuffer = new TraceBuffer(256, 32);
+        RequestTracer.enable();
+    }
+
+    @Benchmark
+    public RequestTrace tracedRequest() {
+        RequestTrace trace = new RequestTrace(0, "GET", "/api/products", 256);
+        RequestTracer.begin(trace);
+        try {
+            for (int i = 0; i < spans; i++) {
+                RequestTracer.start("sql", "SELECT 1").end();
+            }
+        } finally {
+            RequestTracer.end();
+        }
+        trace.finish("/api/products", 200);
+        traceBuffer.record(trace);
+        return trace;
+    }
+
+    @Benchmark
+    public Span untracedSpan() {
+        Span span = RequestTracer.start("sql", "SELECT 1");
+        span.end();
+        return span;
+    }
+}
@@ -0,0 +1,13 @@
+package com.dfw.furniture.cache;
+
+public final class CacheNames {
+
+    public static final String PRODUCT_PAGES = "products";
+    public static final String PRODUCT = "product";
+    public static final String PRODUCT_BY_SLUG = "productBySlug";
+    public static final String FEATURED_PRODUCTS = "featuredProducts";
+    public static final String PRODUCT_COUNTS = "productCounts";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,118 @@
+package com.dfw.furniture.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conditional GET and CDN headers for public catalog responses. Controllers check the
+ * validators with {@link #isNotModified} before loading anything and answer 304 without a
+ * body; full responses carry the same {@code ETag}, {@code Last-Modified},
+ * {@code Cache-Control} and {@code Surrogate-Key} headers.
+ * <p>
+ * Surrogate keys let a CDN purge by tag: {@code product-<id>} on a product page,
+ * {@code products} on every list page, {@code categories} on the category tree and
+ * {@code catalog} on all of them.
+ */
+@Component
+public class CatalogHttpCaching {
+
+    public static final String SURROGATE_KEY = "Surrogate-Key";
+    public static final String CATALOG = "catalog";
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    private final CacheControl cacheControl;
+
+    public CatalogHttpCaching(
+            @Value("${http.cache.max-age:0s}") Duration maxAge,
+            @Value("${http.cache.s-maxage:5m}") Duration sharedMaxAge,
+            @Value("${http.cache.stale-while-revalidate:1m}") Duration staleWhileRevalidate
+    ) {
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .sMaxAge(sharedMaxAge)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .cachePublic();
+    }
+
+    public static String productKey(Object productId) {
+        return "product-" + productId;
+    }
+
+    public static String categoryKey(Object categoryId) {
+        return "category-" + categoryId;
+    }
+
+    /**
+     * Whether the request carries validators at all, so callers skip the version lookup for
+     * plain GETs.
+     */
+    public boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * RFC 9110 evaluation: {@code If-None-Match} wins when present, compared weakly since a
+     * compressed response may carry the weak form of the tag; otherwise
+     * {@code If-Modified-Since}, at the one-second precision of HTTP dates.
+     */
+    public boolean isNotModified(WebRequest request, String etag, Instant lastModified) {
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String header : ifNoneMatch) {
+                for (String candidate : header.split(",")) {
+                    String tag = candidate.trim();
+                    if (tag.equals("*") || opaque(tag).equals(opaque(etag))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return lastModified.getEpochSecond() <= since.getEpochSecond();
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    public ResponseEntity.BodyBuilder ok(String etag, Instant lastModified, String... surrogateKeys) {
+        return headers(ResponseEntity.ok(), etag, lastModified, surrogateKeys);
+    }
+
+    public <T> ResponseEntity<T> notModified(String etag, Instant lastModified, String... surrogateKeys) {
+        return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified, surrogateKeys).build();
+    }
+
+    private ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder, String etag,
+                                               Instant lastModified, String... surrogateKeys) {
+        builder.eTag(etag).cacheControl(cacheControl);
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        if (surrogateKeys.length > 0) {
+            builder.header(SURROGATE_KEY, String.join(" ", surrogateKeys));
+        }
+        return builder;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,69 @@
+package com.dfw.furniture.cache;
+
+import com.dfw.furniture.event.ProductChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generation counter behind the validators of list pages and the category tree. It moves
+ * whenever the product list caches are cleared: after a local write (categories included,
+ * they publish a catalog-wide product change) and when another node's invalidation arrives.
+ * <p>
+ * The counter is per node, so ETags carry a node id and one node never answers 304 for a
+ * validator another node issued; a client switching nodes just gets one full response.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersion {
+
+    private final AtomicReference<Stamp> current = new AtomicReference<>(
+            new Stamp(Long.toHexString(System.currentTimeMillis()), 0, Instant.now()));
+
+    private final CacheManager cacheManager;
+
+    @PostConstruct
+    void listenForRemoteInvalidations() {
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            twoLevelCacheManager.addInvalidationListener(cacheName -> {
+                if (CacheNames.PRODUCT_PAGES.equals(cacheName)) {
+                    bump();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs after completion rather than after commit so every after-commit listener (cache
+     * eviction, snapshot, search and facet indexes) has already applied the change; a
+     * validator issued after the bump can never describe the old content.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump();
+    }
+
+    public Stamp current() {
+        return current.get();
+    }
+
+    private void bump() {
+        current.updateAndGet(stamp -> new Stamp(stamp.nodeId(), stamp.generation() + 1, Instant.now()));
+    }
+
+    /**
+     * Both validators of one generation, read together so they always agree.
+     */
+    public record Stamp(String nodeId, long generation, Instant lastModified) {
+
+        public String etag() {
+            return "\"" + nodeId + "-" + Long.toHexString(generation) + "\"";
+        }
+    }
+}
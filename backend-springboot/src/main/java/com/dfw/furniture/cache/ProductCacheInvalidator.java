@@ -0,0 +1,53 @@
+package com.dfw.furniture.cache;
+
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts product caches once a write has committed. Entries keyed by product are evicted
+ * individually; list caches are cleared because any write can shift every page.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @Order(CatalogListenerOrder.CACHE_INVALIDATION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isCatalogWide()) {
+            clear(CacheNames.PRODUCT);
+            clear(CacheNames.PRODUCT_BY_SLUG);
+        } else {
+            evict(CacheNames.PRODUCT, event.productId().toString());
+            evict(CacheNames.PRODUCT_BY_SLUG, event.slug());
+        }
+        clear(CacheNames.PRODUCT_PAGES);
+        clear(CacheNames.FEATURED_PRODUCTS);
+        // Counts are only approximate; they are left to expire unless the whole catalog changed
+        if (event.isCatalogWide()) {
+            clear(CacheNames.PRODUCT_COUNTS);
+        }
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dfw.furniture.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Builds cache keys from the complete query - method, page, size, sort and every filter -
+ * so that two different queries can never share an entry.
+ * e.g. {@code filterByPriceRange:1000:*:p0:s20:price-ASC}
+ */
+@Component("productQueryKeyGenerator")
+public class ProductQueryKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        StringBuilder key = new StringBuilder(method.getName());
+        for (Object param : params) {
+            key.append(':').append(format(param));
+        }
+        return key.toString();
+    }
+
+    private static String format(Object param) {
+        if (param == null) {
+            return "*";
+        }
+        if (param instanceof Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return "unpaged:" + format(pageable.getSort());
+            }
+            return "p" + pageable.getPageNumber() + ":s" + pageable.getPageSize() + ":" + format(pageable.getSort());
+        }
+        if (param instanceof Sort sort) {
+            if (sort.isUnsorted()) {
+                return "unsorted";
+            }
+            return sort.stream()
+                    .map(order -> order.getProperty() + "-" + order.getDirection())
+                    .collect(Collectors.joining(","));
+        }
+        if (param instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+        if (param instanceof String text) {
+            return text.trim().toLowerCase(Locale.ROOT);
+        }
+        return param.toString();
+    }
+}
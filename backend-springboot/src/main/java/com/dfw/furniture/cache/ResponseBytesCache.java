@@ -0,0 +1,147 @@
+package com.dfw.furniture.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully serialized responses of hot anonymous endpoints, held as JSON bytes plus a gzip copy
+ * and written as-is, so a hit costs neither a cache lookup per page nor a Jackson pass.
+ * An entry belongs to one {@link CatalogVersion} generation; the first request after a
+ * catalog write rebuilds it while concurrent requests for the same key wait for that one
+ * rebuild. The rebuild runs on the requesting thread outside any map lock: the request
+ * claims the key with a pending future and the others wait on that future.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBytesCache {
+
+    private final ObjectMapper objectMapper;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Pending> entries = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> respond(String key, CatalogVersion.Stamp version, WebRequest request,
+                                          Supplier<?> body, String... surrogateKeys) {
+        Meters keyMeters = meters.computeIfAbsent(key, this::registerMeters);
+        Entry entry = entry(key, version, body, keyMeters);
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? entry.gzip : entry.json;
+        (gzip ? keyMeters.gzipBytes : keyMeters.identityBytes).increment(bytes.length);
+
+        // The gzip variant is the same representation in another content coding: a weak tag
+        String etag = gzip ? "W/" + entry.version.etag() : entry.version.etag();
+        ResponseEntity.BodyBuilder builder = catalogHttpCaching.ok(etag, entry.version.lastModified(), surrogateKeys)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(bytes);
+    }
+
+    private Entry entry(String key, CatalogVersion.Stamp version, Supplier<?> body, Meters keyMeters) {
+        while (true) {
+            // Kept if built for this generation or a newer one a concurrent request already saw
+            Pending current = entries.get(key);
+            if (current != null && current.version.generation() >= version.generation()) {
+                return current.join();
+            }
+            Pending claim = new Pending(version, new CompletableFuture<>());
+            boolean claimed = current == null
+                    ? entries.putIfAbsent(key, claim) == null
+                    : entries.replace(key, current, claim);
+            if (!claimed) {
+                continue;
+            }
+            try {
+                Entry built = keyMeters.regenerations.record(() -> build(version, body.get()));
+                claim.future.complete(built);
+                return built;
+            } catch (RuntimeException ex) {
+                entries.remove(key, claim);
+                claim.future.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    private Entry build(CatalogVersion.Stamp version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            }
+            return new Entry(version, json, compressed.toByteArray());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize cached response", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private Meters registerMeters(String key) {
+        return new Meters(
+                Counter.builder("http.response-bytes.served").baseUnit("bytes")
+                        .tag("endpoint", key).tag("encoding", "identity").register(meterRegistry),
+                Counter.builder("http.response-bytes.served").baseUnit("bytes")
+                        .tag("endpoint", key).tag("encoding", "gzip").register(meterRegistry),
+                Timer.builder("http.response-bytes.regenerations")
+                        .description("Rebuilds of a pre-serialized response after a catalog change")
+                        .tag("endpoint", key).register(meterRegistry)
+        );
+    }
+
+    private record Entry(CatalogVersion.Stamp version, byte[] json, byte[] gzip) {
+    }
+
+    private record Pending(CatalogVersion.Stamp version, CompletableFuture<Entry> future) {
+
+        Entry join() {
+            try {
+                return future.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+    }
+
+    private record Meters(Counter identityBytes, Counter gzipBytes, Timer regenerations) {
+    }
+}
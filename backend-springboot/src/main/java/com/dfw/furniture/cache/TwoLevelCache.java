@@ -0,0 +1,255 @@
+package com.dfw.furniture.cache;
+
+import com.dfw.furniture.tracing.RequestTracer;
+import com.dfw.furniture.tracing.Span;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded in-process L1 (Caffeine) in front of the shared L2 (Redis). Reads fill L1 from L2;
+ * writes and evictions go to both tiers, and evictions are broadcast so other nodes drop
+ * their L1 copy. Keys are normalized to strings so they can be sent over pub/sub.
+ * <p>
+ * Values in L1 are shared by every request on the node, so they must be fully loaded
+ * object graphs; an uninitialized lazy association would be resolved through whichever
+ * request's session happens to touch it first.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final BiConsumer<String, String> invalidationPublisher;
+    // Loads in progress on this node, so concurrent misses on one key share a single load
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter explicitEvictions;
+    private final Counter remoteEvictions;
+
+    public TwoLevelCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            Cache remote,
+            BiConsumer<String, String> invalidationPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localHits = requests(meterRegistry, name, "l1", "hit");
+        this.localMisses = requests(meterRegistry, name, "l1", "miss");
+        this.remoteHits = requests(meterRegistry, name, "l2", "hit");
+        this.remoteMisses = requests(meterRegistry, name, "l2", "miss");
+        this.explicitEvictions = evictions(meterRegistry, name, "explicit");
+        this.remoteEvictions = evictions(meterRegistry, name, "remote");
+        Gauge.builder("cache.two-level.hit.ratio", this, TwoLevelCache::hitRatio)
+                .description("Lookups answered by either tier since startup")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    static Counter requests(MeterRegistry meterRegistry, String cache, String tier, String result) {
+        return Counter.builder("cache.two-level.requests")
+                .description("Lookups per cache tier")
+                .tag("cache", cache)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    static Counter evictions(MeterRegistry meterRegistry, String cache, String cause) {
+        return Counter.builder("cache.two-level.evictions")
+                .description("L1 entries removed before being read again")
+                .tag("cache", cache)
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    double hitRatio() {
+        double lookups = localHits.count() + localMisses.count();
+        return lookups == 0 ? 0 : (localHits.count() + remoteHits.count()) / lookups;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+        Span span = RequestTracer.start("cache", name);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            remoteMisses.increment();
+            span.end("miss");
+            return null;
+        }
+        remoteHits.increment();
+        span.end("l2-hit");
+        local.put(localKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return (T) cached;
+        }
+        localMisses.increment();
+        // Covers waiting for a concurrent load of the same key, and the load itself on a miss
+        Span span = RequestTracer.start("cache", name);
+        String outcome = "l1-hit";
+        Load load = new Load();
+        Load inFlight = loads.putIfAbsent(localKey, load);
+        try {
+            if (inFlight != null) {
+                return (T) inFlight.join();
+            }
+            // The load runs on the calling thread and outside Caffeine's compute, which would
+            // hold a map lock (and pin a virtual thread) for as long as the query takes
+            Object value = local.getIfPresent(localKey);
+            if (value == null) {
+                ValueWrapper wrapper = remote.get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    remoteHits.increment();
+                    outcome = "l2-hit";
+                    value = wrapper.get();
+                } else {
+                    remoteMisses.increment();
+                    outcome = "miss";
+                    try {
+                        value = valueLoader.call();
+                    } catch (Exception ex) {
+                        throw new ValueRetrievalException(key, valueLoader, ex);
+                    }
+                    if (value != null && !load.stale) {
+                        remote.put(key, value);
+                    }
+                }
+                if (value != null && !load.stale) {
+                    local.put(localKey, value);
+                    // Evicted while being stored: drop what was just written
+                    if (load.stale) {
+                        remote.evict(key);
+                        local.invalidate(localKey);
+                    }
+                }
+            }
+            load.future.complete(value);
+            return (T) value;
+        } catch (RuntimeException ex) {
+            load.future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            if (inFlight == null) {
+                loads.remove(localKey, load);
+            }
+            span.end(outcome);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        remote.put(key, value);
+        local.put(localKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        abandonLoad(localKey(key));
+        explicitEvictions.increment();
+        invalidationPublisher.accept(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        abandonLoads();
+        explicitEvictions.increment();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * Drops the L1 entry only; called when another node evicted it (L2 is already gone).
+     */
+    void evictLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+            abandonLoads();
+        } else {
+            local.invalidate(key);
+            abandonLoad(key);
+        }
+        remoteEvictions.increment();
+    }
+
+    /**
+     * Keeps a load that started before an eviction from storing what it read. Requests
+     * already waiting on it still get its value; later ones start a new load.
+     */
+    private void abandonLoad(String key) {
+        Load load = loads.remove(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    private void abandonLoads() {
+        loads.keySet().forEach(this::abandonLoad);
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static final class Load {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile boolean stale;
+
+        Object join() {
+            try {
+                return future.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+    }
+}
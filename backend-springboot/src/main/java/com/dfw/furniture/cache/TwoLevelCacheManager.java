@@ -0,0 +1,118 @@
+package com.dfw.furniture.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Creates {@link TwoLevelCache}s on demand and relays L1 invalidations between nodes over
+ * Redis pub/sub. Messages are {@code <origin-node>|<cache>|<key>}; an empty key clears the cache.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    private final RedisCacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+    private final long localMaximumSize;
+    private final Duration localTimeToLive;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(
+            RedisCacheManager remoteCacheManager,
+            StringRedisTemplate redisTemplate,
+            String invalidationChannel,
+            long localMaximumSize,
+            Duration localTimeToLive,
+            MeterRegistry meterRegistry
+    ) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.invalidationChannel = invalidationChannel;
+        this.localMaximumSize = localMaximumSize;
+        this.localTimeToLive = localTimeToLive;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Called with the cache name after an invalidation from another node has been applied.
+     */
+    public void addInvalidationListener(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Counter sizeEvictions = TwoLevelCache.evictions(meterRegistry, name, "size");
+        Counter expirations = TwoLevelCache.evictions(meterRegistry, name, "expired");
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTimeToLive)
+                .removalListener((String key, Object value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .build();
+        return new TwoLevelCache(name, local, remoteCacheManager.getCache(name), this::publishInvalidation, meterRegistry);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = nodeId + "|" + cacheName + "|" + (key == null ? "" : key);
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, message);
+        } catch (RuntimeException ex) {
+            // Other nodes fall back to their L1 TTL; the write itself must not fail
+            log.warn("Could not broadcast cache invalidation for {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+        for (Consumer<String> listener : invalidationListeners) {
+            listener.accept(parts[1]);
+        }
+    }
+}
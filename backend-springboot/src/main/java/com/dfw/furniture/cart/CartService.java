@@ -0,0 +1,174 @@
+package com.dfw.furniture.cart;
+
+import com.dfw.furniture.dto.CartItemView;
+import com.dfw.furniture.dto.CartView;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Carts live in Redis as one hash per owner ({@code productId -> quantity}). Every write
+ * also marks the owner dirty; {@link CartWriteBehind} copies dirty carts of signed-in users
+ * to {@code cart_items} in the background. Owners are {@code user:<id>} for signed-in
+ * users and {@code session:<id>} for guests.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartService {
+
+    static final String CART_KEY_PREFIX = "dfw:cart:";
+    static final String DIRTY_KEY = "dfw:cart:dirty";
+
+    private static final int MAX_QUANTITY = 99;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductService productService;
+    private final CartWriteBehind cartWriteBehind;
+
+    @Value("${cart.time-to-live:30d}")
+    private Duration timeToLive;
+
+    public static String userOwner(UUID userId) {
+        return CartWriteBehind.USER_PREFIX + userId;
+    }
+
+    public static String guestOwner(String session) {
+        return "session:" + session;
+    }
+
+    public CartView getCart(String owner) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(CART_KEY_PREFIX + owner);
+        if (entries.isEmpty()) {
+            entries = cartWriteBehind.restore(owner);
+        }
+        if (entries.isEmpty()) {
+            return CartView.builder().items(List.of()).itemCount(0).subtotal(BigDecimal.ZERO).build();
+        }
+
+        List<UUID> productIds = new ArrayList<>(entries.size());
+        entries.keySet().forEach(productId -> productIds.add(UUID.fromString((String) productId)));
+        // One lookup for the whole cart
+        List<Product> products = productService.getProductsByIds(productIds);
+
+        List<CartItemView> items = new ArrayList<>(products.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int itemCount = 0;
+        for (Product product : products) {
+            if (!Boolean.TRUE.equals(product.getIsActive())) {
+                continue;
+            }
+            int quantity = Integer.parseInt((String) entries.get(product.getId().toString()));
+            BigDecimal unitPrice = product.getSalePrice() != null ? product.getSalePrice() : product.getPrice();
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            Integer stock = product.getStockQuantity();
+            items.add(CartItemView.builder()
+                    .productId(product.getId())
+                    .name(product.getName())
+                    .slug(product.getSlug())
+                    .unitPrice(unitPrice)
+                    .quantity(quantity)
+                    .lineTotal(lineTotal)
+                    .stockQuantity(stock)
+                    .inStock(stock == null || stock >= quantity)
+                    .build());
+            subtotal = subtotal.add(lineTotal);
+            itemCount += quantity;
+        }
+        return CartView.builder().items(items).itemCount(itemCount).subtotal(subtotal).build();
+    }
+
+    public CartView addItem(String owner, UUID productId, int quantity) {
+        requireActiveProduct(productId);
+        restoreIfExpired(owner);
+        Long current = redisTemplate.opsForHash().increment(CART_KEY_PREFIX + owner, productId.toString(), quantity);
+        if (current > MAX_QUANTITY) {
+            write(owner, productId, MAX_QUANTITY);
+        } else {
+            touch(owner);
+        }
+        return getCart(owner);
+    }
+
+    public CartView setQuantity(String owner, UUID productId, int quantity) {
+        if (quantity <= 0) {
+            return removeItem(owner, productId);
+        }
+        requireActiveProduct(productId);
+        restoreIfExpired(owner);
+        write(owner, productId, Math.min(quantity, MAX_QUANTITY));
+        return getCart(owner);
+    }
+
+    public CartView removeItem(String owner, UUID productId) {
+        restoreIfExpired(owner);
+        redisTemplate.opsForHash().delete(CART_KEY_PREFIX + owner, productId.toString());
+        touch(owner);
+        return getCart(owner);
+    }
+
+    public void clear(String owner) {
+        redisTemplate.delete(CART_KEY_PREFIX + owner);
+        redisTemplate.opsForSet().add(DIRTY_KEY, owner);
+    }
+
+    /**
+     * Brings back the stored cart of a signed-in user whose Redis copy expired. A write to the
+     * missing hash would otherwise start a new cart, and the next flush would save it over
+     * the stored one.
+     */
+    private void restoreIfExpired(String owner) {
+        if (owner.startsWith(CartWriteBehind.USER_PREFIX)
+                && !Boolean.TRUE.equals(redisTemplate.hasKey(CART_KEY_PREFIX + owner))) {
+            cartWriteBehind.restore(owner);
+        }
+    }
+
+    private void requireActiveProduct(UUID productId) {
+        Product product = productService.getProductById(productId);
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            throw new RuntimeException("Product not found");
+        }
+    }
+
+    private void write(String owner, UUID productId, int quantity) {
+        String key = CART_KEY_PREFIX + owner;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().put(key, productId.toString(), String.valueOf(quantity));
+                operations.expire(key, timeToLive);
+                operations.opsForSet().add(DIRTY_KEY, owner);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Refreshes the cart's TTL and marks it for persistence, in one round trip.
+     */
+    private void touch(String owner) {
+        String key = CART_KEY_PREFIX + owner;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.expire(key, timeToLive);
+                operations.opsForSet().add(DIRTY_KEY, owner);
+                return null;
+            }
+        });
+    }
+}
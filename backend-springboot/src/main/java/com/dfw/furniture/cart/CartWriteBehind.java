@@ -0,0 +1,203 @@
+package com.dfw.furniture.cart;
+
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies carts of signed-in users from Redis to {@code cart_items}. Cart writes add the owner
+ * to a dirty set; each flush pops a batch of owners, reads their carts in one pipeline and
+ * replaces their rows in one transaction. Owners are put back if the write fails. Guest carts
+ * are never persisted and only live as long as their Redis TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CartWriteBehind {
+
+    static final String USER_PREFIX = "user:";
+
+    private static final String DELETE_SQL = "DELETE FROM cart_items WHERE user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO cart_items (user_id, product_id, quantity, price) VALUES (?, ?, ?, ?)";
+    private static final String RESTORE_SQL = "SELECT product_id, quantity FROM cart_items WHERE user_id = ?";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ProductService productService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cart.batch-size:200}")
+    private int batchSize;
+
+    @Value("${cart.time-to-live:30d}")
+    private Duration timeToLive;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private TransactionTemplate transactionTemplate;
+    private Counter flushedCarts;
+    private Counter failedCarts;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("cart.dirty", redisTemplate, template -> {
+                    Long size = template.opsForSet().size(CartService.DIRTY_KEY);
+                    return size == null ? 0 : size;
+                })
+                .description("Carts changed in Redis and not yet written to the database")
+                .register(meterRegistry);
+        flushedCarts = Counter.builder("cart.flushed").register(meterRegistry);
+        failedCarts = Counter.builder("cart.flush.failed").register(meterRegistry);
+        flushTimer = Timer.builder("cart.flush").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(() -> {
+                List<String> owners;
+                // SPOP hands each owner to exactly one node, so several instances can flush at once
+                while (!(owners = popDirty()).isEmpty()) {
+                    if (!write(owners)) {
+                        return;
+                    }
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Cart flush skipped, Redis unavailable: {}", ex.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Loads a persisted cart back into Redis, for a signed-in user whose cart expired or was
+     * lost. Entries already in Redis are kept, so a restore racing with a cart write never
+     * undoes it. Returns the restored {@code productId -> quantity} entries.
+     */
+    public Map<Object, Object> restore(String owner) {
+        if (!owner.startsWith(USER_PREFIX)
+                || Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(CartService.DIRTY_KEY, owner))) {
+            // A pending change (such as clearing the cart) is newer than the stored rows
+            return Map.of();
+        }
+        UUID userId = UUID.fromString(owner.substring(USER_PREFIX.length()));
+        Map<Object, Object> entries = new HashMap<>();
+        jdbcTemplate.query(RESTORE_SQL, rs -> {
+            entries.merge(rs.getString("product_id"), String.valueOf(rs.getInt("quantity")),
+                    (a, b) -> String.valueOf(Integer.parseInt((String) a) + Integer.parseInt((String) b)));
+        }, userId);
+        if (!entries.isEmpty()) {
+            String key = CartService.CART_KEY_PREFIX + owner;
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    entries.forEach((productId, quantity) -> operations.opsForHash().putIfAbsent(key, productId, quantity));
+                    operations.expire(key, timeToLive);
+                    return null;
+                }
+            });
+        }
+        return entries;
+    }
+
+    private List<String> popDirty() {
+        List<String> owners = redisTemplate.opsForSet().pop(CartService.DIRTY_KEY, batchSize);
+        return owners == null ? List.of() : owners;
+    }
+
+    private boolean write(List<String> owners) {
+        List<String> userOwners = owners.stream().filter(owner -> owner.startsWith(USER_PREFIX)).toList();
+        if (userOwners.isEmpty()) {
+            return true;
+        }
+        try {
+            List<Object> carts = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    for (String owner : userOwners) {
+                        operations.opsForHash().entries(CartService.CART_KEY_PREFIX + owner);
+                    }
+                    return null;
+                }
+            });
+
+            // One product lookup for every cart in the batch
+            Set<UUID> productIds = new LinkedHashSet<>();
+            for (Object cart : carts) {
+                ((Map<?, ?>) cart).keySet().forEach(productId -> productIds.add(UUID.fromString((String) productId)));
+            }
+            Map<UUID, BigDecimal> prices = new HashMap<>();
+            for (Product product : productService.getProductsByIds(new ArrayList<>(productIds))) {
+                prices.put(product.getId(), product.getSalePrice() != null ? product.getSalePrice() : product.getPrice());
+            }
+
+            List<Object[]> deletes = new ArrayList<>(userOwners.size());
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < userOwners.size(); i++) {
+                UUID userId = UUID.fromString(userOwners.get(i).substring(USER_PREFIX.length()));
+                deletes.add(new Object[]{userId});
+                for (Map.Entry<?, ?> line : ((Map<?, ?>) carts.get(i)).entrySet()) {
+                    UUID productId = UUID.fromString((String) line.getKey());
+                    BigDecimal price = prices.get(productId);
+                    if (price != null) {
+                        inserts.add(new Object[]{userId, productId, Integer.parseInt((String) line.getValue()), price});
+                    }
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                }
+            });
+            flushedCarts.increment(userOwners.size());
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write {} carts, will retry: {}", userOwners.size(), ex.getMessage());
+            failedCarts.increment(userOwners.size());
+            redisTemplate.opsForSet().add(CartService.DIRTY_KEY, userOwners.toArray(String[]::new));
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfw.furniture.config;
+
+import com.dfw.furniture.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+public class CacheConfig {
+
+    @Value("${spring.cache.redis.time-to-live}")
+    private Duration remoteTimeToLive;
+
+    @Value("${cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${cache.local.time-to-live:60s}")
+    private Duration localTimeToLive;
+
+    @Value("${cache.invalidation.channel:dfw:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        // SCAN instead of KEYS so clearing a cache never blocks Redis
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+        RedisCacheManager remoteCacheManager = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig(getClass().getClassLoader())
+                        .entryTtl(remoteTimeToLive)
+                        .disableCachingNullValues())
+                .build();
+        remoteCacheManager.initializeCaches();
+        return new TwoLevelCacheManager(
+                remoteCacheManager,
+                redisTemplate,
+                invalidationChannel,
+                localMaximumSize,
+                localTimeToLive,
+                meterRegistry
+        );
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+}
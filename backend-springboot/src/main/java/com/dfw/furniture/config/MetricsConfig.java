@@ -0,0 +1,78 @@
+package com.dfw.furniture.config;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.metrics.QueryCountingDataSource;
+import com.dfw.furniture.metrics.SlowQueryDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof QueryCountingDataSource) {
+                    return bean;
+                }
+                return new QueryCountingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "queries.slow.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof SlowQueryDataSource) {
+                    return bean;
+                }
+                Duration threshold = environment.getProperty("queries.slow.threshold", Duration.class, Duration.ofMillis(500));
+                boolean logParameters = environment.getProperty("queries.slow.log-parameters", Boolean.class, true);
+                MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+                Counter slowQueries = Counter.builder("db.queries.slow")
+                        .description("Statements that ran longer than queries.slow.threshold")
+                        .register(registry);
+                return new SlowQueryDataSource(dataSource, threshold, logParameters, slowQueries);
+            }
+        };
+    }
+
+    /**
+     * Records {@code @Timed} methods, tagged by class, method and - for product listings - the
+     * filter path ({@code none} for methods without a {@link ProductFilter}).
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry, (ProceedingJoinPoint joinPoint) -> Tags.of(
+                "class", joinPoint.getStaticPart().getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getStaticPart().getSignature().getName(),
+                "path", Arrays.stream(joinPoint.getArgs())
+                        .filter(ProductFilter.class::isInstance)
+                        .map(arg -> ((ProductFilter) arg).path())
+                        .findFirst()
+                        .orElse("none")
+        ));
+    }
+}
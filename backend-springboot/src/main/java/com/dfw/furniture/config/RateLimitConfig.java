@@ -0,0 +1,98 @@
+package com.dfw.furniture.config;
+
+import com.dfw.furniture.ratelimit.LocalRateLimiter;
+import com.dfw.furniture.ratelimit.RateLimit;
+import com.dfw.furniture.ratelimit.RateLimitFilter;
+import com.dfw.furniture.ratelimit.RateLimitRule;
+import com.dfw.furniture.ratelimit.RateLimiter;
+import com.dfw.furniture.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limits on the two routes that are both public and expensive: sign-in and
+ * registration (BCrypt) and product search. Buckets live in memory per node, or in Redis
+ * for cluster-wide limits with {@code ratelimit.store=redis}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${ratelimit.store:memory}")
+    private String store;
+
+    @Value("${ratelimit.local.max-keys:65536}")
+    private int maxKeys;
+
+    @Value("${ratelimit.local.stripes:64}")
+    private int stripes;
+
+    @Value("${ratelimit.redis.key-prefix:dfw:ratelimit:}")
+    private String redisKeyPrefix;
+
+    @Value("${ratelimit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${ratelimit.login.period:1m}")
+    private Duration loginPeriod;
+
+    @Value("${ratelimit.search.capacity:60}")
+    private int searchCapacity;
+
+    @Value("${ratelimit.search.user-capacity:120}")
+    private int searchUserCapacity;
+
+    @Value("${ratelimit.search.period:1m}")
+    private Duration searchPeriod;
+
+    @Bean
+    public RateLimiter rateLimiter(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        RateLimiter local = new LocalRateLimiter(maxKeys, stripes);
+        return "redis".equalsIgnoreCase(store)
+                ? new RedisRateLimiter(redisTemplate, redisKeyPrefix, local, meterRegistry)
+                : local;
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            RateLimiter rateLimiter,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry
+    ) {
+        List<RateLimitRule> rules = List.of(
+                new RateLimitRule("login",
+                        request -> "POST".equals(request.getMethod())
+                                && ("/api/auth/login".equals(request.getRequestURI())
+                                || "/api/auth/register".equals(request.getRequestURI())),
+                        // Always per address: a caller could otherwise sign in again with every
+                        // token it gets and never run out
+                        new RateLimit("login:ip", loginCapacity, loginPeriod)),
+                new RateLimitRule("search",
+                        request -> "GET".equals(request.getMethod())
+                                && "/api/products".equals(request.getRequestURI())
+                                && request.getParameter("search") != null
+                                && !request.getParameter("search").isBlank(),
+                        new RateLimit("search:ip", searchCapacity, searchPeriod),
+                        new RateLimit("search:user", searchUserCapacity, searchPeriod))
+        );
+        return new RateLimitFilter(rules, rateLimiter, exceptionResolver, meterRegistry);
+    }
+
+    // Runs inside the security chain only, where the authenticated user is known
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -1,22 +1,36 @@
 package com.dfw.furniture.config;
 
+import com.dfw.furniture.ratelimit.RateLimitFilter;
 import com.dfw.furniture.security.JwtAuthenticationFilter;
+import com.dfw.furniture.security.OffloadedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -26,6 +40,25 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
+
+    @Value("${security.metrics.allowed-networks:127.0.0.1/32,::1/128}")
+    private List<String> metricsNetworks;
+
+    @Value("${security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
+
+    // 0 means one hashing thread per CPU core
+    @Value("${security.password.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${security.password.queue-capacity:200}")
+    private int hashQueueCapacity;
+
+    @Value("${security.password.max-wait:5s}")
+    private Duration hashMaxWait;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,30 +73,49 @@ public class SecurityConfig {
                     "/api/auth/**",
                     "/api/products/**",
                     "/api/categories/**",
+                    "/api/cart/**",
                     "/health",
                     "/api",
-                    "/error"
+                    "/error",
+                    "/actuator/health"
                 ).permitAll()
-                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(
+                    metricsScrapers(), AuthorityAuthorizationManager.hasRole("ADMIN")))
+                .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthenticationFilter.class));
 
         return http.build();
     }
 
+    /**
+     * Lets Prometheus scrape from the networks in {@code security.metrics.allowed-networks}
+     * without a token. Behind the proxy the address is the forwarded client address, so
+     * scrapes that come in from the internet are refused.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> metricsScrapers() {
+        List<IpAddressMatcher> networks = metricsNetworks.stream().map(IpAddressMatcher::new).toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes the password at login when its cost differs from bcrypt-strength
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        return new OffloadedPasswordEncoder(bcryptStrength, threads, hashQueueCapacity, hashMaxWait, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,67 @@
+package com.dfw.furniture.config;
+
+import com.dfw.furniture.tracing.HandlerTracingInterceptor;
+import com.dfw.furniture.tracing.RequestTracingFilter;
+import com.dfw.furniture.tracing.TraceBuffer;
+import com.dfw.furniture.tracing.TracingDataSource;
+import com.dfw.furniture.tracing.TracingJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wiring for {@code tracing.enabled=true}: traces each API request into the
+ * {@link TraceBuffer} (see {@code /api/admin/traces}). With tracing disabled none of this is
+ * installed, so requests, statements and serialization run unwrapped.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Value("${tracing.max-spans:256}")
+    private int maxSpans;
+
+    @Bean
+    public FilterRegistrationBean<RequestTracingFilter> requestTracingFilter(TraceBuffer traceBuffer) {
+        FilterRegistrationBean<RequestTracingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTracingFilter(traceBuffer, maxSpans));
+        // Runs outside the security filters, so authentication is part of the trace
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TracingJacksonHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof TracingDataSource) {
+                    return bean;
+                }
+                int maxSqlLength = environment.getProperty("tracing.sql-max-length", Integer.class, 500);
+                return new TracingDataSource(dataSource, maxSqlLength);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTracingInterceptor()).addPathPatterns("/api/**");
+    }
+}
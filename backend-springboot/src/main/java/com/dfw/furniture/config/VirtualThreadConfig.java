@@ -0,0 +1,54 @@
+package com.dfw.furniture.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true} (Java 21, see the java21
+ * Maven profile). Spring Boot itself moves Tomcat request handling, the {@code @Async}
+ * executor and the scheduler onto virtual threads; this bounds how many of them can wait for
+ * a database connection at once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                // Default to the pool size, so callers queue here instead of inside the pool
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int maxConcurrent = environment.getProperty("datasource.acquire.max-concurrent", Integer.class, poolSize);
+                Duration timeout = environment.getProperty("datasource.acquire.timeout", Duration.class, Duration.ofSeconds(30));
+
+                BoundedDataSource bounded = new BoundedDataSource(dataSource, maxConcurrent, timeout);
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("datasource.acquire.waiting", bounded, BoundedDataSource::getWaiting)
+                            .description("Threads waiting for a database connection permit")
+                            .register(registry);
+                    Gauge.builder("datasource.acquire.available", bounded, BoundedDataSource::getAvailable)
+                            .register(registry);
+                });
+                return bounded;
+            }
+        };
+    }
+}
@@ -1,13 +1,19 @@
 package com.dfw.furniture.config;
 
+import com.dfw.furniture.metrics.QueryBudgetInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
@@ -32,4 +38,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(allowCredentials)
                 .maxAge(maxAge);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor).addPathPatterns("/api/**");
+    }
 }
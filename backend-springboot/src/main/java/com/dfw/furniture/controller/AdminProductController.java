@@ -0,0 +1,87 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.ImportReport;
+import com.dfw.furniture.exporter.ExportFormat;
+import com.dfw.furniture.exporter.ProductExportService;
+import com.dfw.furniture.importer.ImportFormat;
+import com.dfw.furniture.importer.ProductImportService;
+import com.dfw.furniture.metrics.QueryBudget;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminProductController {
+
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+
+    /**
+     * Imports the request body as CSV ({@code text/csv}) or NDJSON ({@code application/x-ndjson}),
+     * or as given by {@code format}. The body is streamed, not buffered. It runs a few statements
+     * per batch of rows, so its budget is not fixed.
+     */
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<ImportReport>> importProducts(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request
+    ) throws IOException {
+        ImportFormat importFormat = ImportFormat.of(format, request.getContentType());
+        ImportReport report = productImportService.importProducts(request.getInputStream(), importFormat);
+        return ResponseEntity.ok(ApiResponse.success("Import " + report.getStatus().toLowerCase(), report));
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<ApiResponse<List<ImportReport>>> getImports() {
+        return ResponseEntity.ok(ApiResponse.success(productImportService.getImports()));
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<ApiResponse<ImportReport>> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(productImportService.getImport(id)));
+    }
+
+    /**
+     * Streams the catalog as CSV or NDJSON, optionally as a gzip file. Rows are written as they
+     * are read from the database, so the response starts immediately and is never buffered.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) UUID category,
+            @RequestParam(defaultValue = "false") boolean includeInactive,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        String filename = "products." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                productExportService.export(compressed, exportFormat, category, includeInactive);
+                compressed.finish();
+            } else {
+                productExportService.export(output, exportFormat, category, includeInactive);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+}
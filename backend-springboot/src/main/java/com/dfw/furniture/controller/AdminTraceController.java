@@ -0,0 +1,45 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.tracing.TraceBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminTraceController {
+
+    private final TraceBuffer traceBuffer;
+
+    @Value("${tracing.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * The most recent and the slowest traced requests, each with its spans and the total time
+     * per span name.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTraces(
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        Map<String, Object> traces = new LinkedHashMap<>();
+        traces.put("enabled", enabled);
+        traces.put("slowest", traceBuffer.slowest().stream().limit(limit).toList());
+        traces.put("recent", traceBuffer.recent().stream().limit(limit).toList());
+        return ResponseEntity.ok(ApiResponse.success(traces));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<String>> clearTraces() {
+        traceBuffer.clear();
+        return ResponseEntity.ok(ApiResponse.success("Traces cleared", null));
+    }
+}
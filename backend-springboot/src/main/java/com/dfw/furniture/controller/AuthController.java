@@ -4,6 +4,7 @@ import com.dfw.furniture.dto.ApiResponse;
 import com.dfw.furniture.dto.AuthResponse;
 import com.dfw.furniture.dto.LoginRequest;
 import com.dfw.furniture.dto.RegisterRequest;
+import com.dfw.furniture.exception.TooManyRequestsException;
 import com.dfw.furniture.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(ApiResponse.success(response.getMessage(), response));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -32,6 +35,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(ApiResponse.success(response.getMessage(), response));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Invalid credentials"));
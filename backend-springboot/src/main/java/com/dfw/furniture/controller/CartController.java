@@ -0,0 +1,86 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.cart.CartService;
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.CartView;
+import com.dfw.furniture.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Signed-in users get their own cart; guests identify theirs with an {@code X-Cart-Session}
+ * header generated by the client.
+ */
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+public class CartController {
+
+    private final CartService cartService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<CartView>> getCart(
+            Authentication authentication,
+            @RequestHeader(value = "X-Cart-Session", required = false) String session
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(cartService.getCart(owner(authentication, session))));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<ApiResponse<CartView>> addItem(
+            @RequestParam UUID productId,
+            @RequestParam(defaultValue = "1") int quantity,
+            Authentication authentication,
+            @RequestHeader(value = "X-Cart-Session", required = false) String session
+    ) {
+        if (quantity < 1) {
+            throw new RuntimeException("Quantity must be at least 1");
+        }
+        CartView cart = cartService.addItem(owner(authentication, session), productId, quantity);
+        return ResponseEntity.ok(ApiResponse.success("Item added to cart", cart));
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<ApiResponse<CartView>> updateItem(
+            @PathVariable UUID productId,
+            @RequestParam int quantity,
+            Authentication authentication,
+            @RequestHeader(value = "X-Cart-Session", required = false) String session
+    ) {
+        CartView cart = cartService.setQuantity(owner(authentication, session), productId, quantity);
+        return ResponseEntity.ok(ApiResponse.success("Cart updated", cart));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<ApiResponse<CartView>> removeItem(
+            @PathVariable UUID productId,
+            Authentication authentication,
+            @RequestHeader(value = "X-Cart-Session", required = false) String session
+    ) {
+        CartView cart = cartService.removeItem(owner(authentication, session), productId);
+        return ResponseEntity.ok(ApiResponse.success("Item removed from cart", cart));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<String>> clearCart(
+            Authentication authentication,
+            @RequestHeader(value = "X-Cart-Session", required = false) String session
+    ) {
+        cartService.clear(owner(authentication, session));
+        return ResponseEntity.ok(ApiResponse.success("Cart cleared", null));
+    }
+
+    private static String owner(Authentication authentication, String session) {
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return CartService.userOwner(user.getId());
+        }
+        if (session == null || !session.matches("[A-Za-z0-9-]{16,64}")) {
+            throw new RuntimeException("Cart session required");
+        }
+        return CartService.guestOwner(session);
+    }
+}
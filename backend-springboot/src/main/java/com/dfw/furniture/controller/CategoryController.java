@@ -0,0 +1,78 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.cache.CatalogHttpCaching;
+import com.dfw.furniture.cache.CatalogVersion;
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.CategoryNode;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private static final String[] SURROGATE_KEYS = {CatalogHttpCaching.CATALOG, CatalogHttpCaching.CATEGORIES};
+
+    private final CategoryService categoryService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogHttpCaching catalogHttpCaching;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CategoryNode>>> getCategoryTree(WebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.current();
+        if (catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified())) {
+            return catalogHttpCaching.notModified(version.etag(), version.lastModified(), SURROGATE_KEYS);
+        }
+        return catalogHttpCaching.ok(version.etag(), version.lastModified(), SURROGATE_KEYS)
+                .body(ApiResponse.success(categoryService.getMenu()));
+    }
+
+    @GetMapping("/{slug}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCategory(@PathVariable String slug, WebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.current();
+        if (catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified())) {
+            return catalogHttpCaching.notModified(version.etag(), version.lastModified(), SURROGATE_KEYS);
+        }
+        CategoryNode category = categoryService.getCategoryBySlug(slug);
+        Map<String, Object> response = Map.of(
+                "category", category,
+                "breadcrumbs", categoryService.getBreadcrumbs(category.getId())
+        );
+        return catalogHttpCaching.ok(version.etag(), version.lastModified(), SURROGATE_KEYS)
+                .body(ApiResponse.success(response));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Category>> createCategory(@RequestBody Category category) {
+        Category createdCategory = categoryService.createCategory(category);
+        return ResponseEntity.ok(ApiResponse.success("Category created successfully", createdCategory));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Category>> updateCategory(
+            @PathVariable UUID id,
+            @RequestBody Category category
+    ) {
+        Category updatedCategory = categoryService.updateCategory(id, category);
+        return ResponseEntity.ok(ApiResponse.success("Category updated successfully", updatedCategory));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> deleteCategory(@PathVariable UUID id) {
+        categoryService.deleteCategory(id);
+        return ResponseEntity.ok(ApiResponse.success("Category deleted successfully", null));
+    }
+}
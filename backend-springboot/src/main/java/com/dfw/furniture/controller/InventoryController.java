@@ -0,0 +1,54 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.inventory.InventoryService;
+import com.dfw.furniture.inventory.Reservation;
+import com.dfw.furniture.inventory.StockStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.reservation.max-quantity:10}")
+    private int maxQuantity;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<ApiResponse<StockStatus>> getStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(ApiResponse.success(inventoryService.getStock(productId)));
+    }
+
+    @PostMapping("/reservations")
+    public ResponseEntity<ApiResponse<Reservation>> reserve(
+            @RequestParam UUID productId,
+            @RequestParam(defaultValue = "1") int quantity,
+            Authentication authentication
+    ) {
+        if (quantity < 1 || quantity > maxQuantity) {
+            throw new RuntimeException("Quantity must be between 1 and " + maxQuantity);
+        }
+        Reservation reservation = inventoryService.reserve(productId, quantity, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Stock reserved", reservation));
+    }
+
+    @PostMapping("/reservations/{id}/confirm")
+    public ResponseEntity<ApiResponse<Reservation>> confirm(@PathVariable UUID id, Authentication authentication) {
+        Reservation reservation = inventoryService.confirm(id, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Reservation confirmed", reservation));
+    }
+
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<ApiResponse<String>> release(@PathVariable UUID id, Authentication authentication) {
+        inventoryService.release(id, authentication.getName());
+        return ResponseEntity.ok(ApiResponse.success("Reservation released", null));
+    }
+}
@@ -0,0 +1,30 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.OrderConfirmation;
+import com.dfw.furniture.dto.OrderRequest;
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.order.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderService orderService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<OrderConfirmation>> placeOrder(
+            @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication
+    ) {
+        User user = (User) authentication.getPrincipal();
+        OrderConfirmation order = orderService.placeOrder(user, request, idempotencyKey);
+        return ResponseEntity.ok(ApiResponse.success("Order placed successfully", order));
+    }
+}
@@ -1,6 +1,15 @@
 package com.dfw.furniture.controller;
 
+import com.dfw.furniture.cache.CatalogHttpCaching;
+import com.dfw.furniture.cache.CatalogVersion;
+import com.dfw.furniture.cache.ResponseBytesCache;
 import com.dfw.furniture.dto.ApiResponse;
+import com.dfw.furniture.dto.CursorPage;
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.dto.ProductListing;
+import com.dfw.furniture.dto.ProductVersion;
+import com.dfw.furniture.metrics.ProductFilterObservationConvention;
+import com.dfw.furniture.metrics.QueryBudget;
 import com.dfw.furniture.model.Product;
 import com.dfw.furniture.service.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -11,10 +20,13 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -22,62 +34,157 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String FIRST_PAGE = "products-first-page";
+    private static final String FEATURED = "products-featured";
+
     private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final ResponseBytesCache responseBytesCache;
 
+    @QueryBudget(3)
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) UUID category,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> material,
+            @RequestParam(required = false) List<String> color,
+            @RequestParam(required = false) Boolean featured,
+            @RequestParam(required = false) Boolean customizable,
+            @RequestParam(required = false) String fields,
+            WebRequest request
     ) {
+        ProductFilter filter = ProductFilter.builder()
+                .search(search)
+                .category(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .brands(brand)
+                .materials(material)
+                .colors(color)
+                .featured(featured)
+                .customizable(customizable)
+                .build();
+        request.setAttribute(ProductFilterObservationConvention.FILTER_ATTRIBUTE, filter, RequestAttributes.SCOPE_REQUEST);
+
+        CatalogVersion.Stamp version = catalogVersion.current();
+        String[] surrogateKeys = listKeys(category);
+        if (catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified())) {
+            return catalogHttpCaching.notModified(version.etag(), version.lastModified(), surrogateKeys);
+        }
+
+        boolean searching = search != null && !search.isEmpty();
+        String sortField = sortBy != null ? sortBy : "createdAt";
         Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-
-        Page<Product> productsPage;
-
-        if (search != null && !search.isEmpty()) {
-            productsPage = productService.searchProducts(search, pageable);
-        } else if (category != null) {
-            productsPage = productService.getProductsByCategory(category, pageable);
-        } else if (minPrice != null || maxPrice != null) {
-            productsPage = productService.filterByPriceRange(minPrice, maxPrice, pageable);
+                ? Sort.by(sortField).ascending() 
+                : Sort.by(sortField).descending();
+        // Search results are ranked by relevance unless a sort is asked for explicitly
+        Pageable pageable = searching && sortBy == null
+                ? PageRequest.of(page, size)
+                : PageRequest.of(page, size, sort);
+
+        // The storefront's landing page: same bytes for every visitor
+        if (page == 0 && size == 20 && sortBy == null && sortDir.equalsIgnoreCase("desc")
+                && fields == null && filter.path().equals("all")) {
+            return responseBytesCache.respond(FIRST_PAGE, version, request,
+                    () -> ApiResponse.success(listProducts(filter, pageable, null)), surrogateKeys);
+        }
+        return catalogHttpCaching.ok(version.etag(), version.lastModified(), surrogateKeys)
+                .body(ApiResponse.success(listProducts(filter, pageable, fields)));
+    }
+
+    private Map<String, Object> listProducts(ProductFilter filter, Pageable pageable, String fields) {
+        // fields=summary returns product cards; fields=a,b,c returns only those fields
+        ProductListing<?> listing;
+        if (fields == null || fields.isBlank()) {
+            listing = productService.findProducts(filter, pageable);
+        } else if (fields.equalsIgnoreCase("summary")) {
+            listing = productService.findProductSummaries(filter, pageable);
         } else {
-            productsPage = productService.getAllProducts(pageable);
+            listing = productService.findProductFields(filter, pageable, List.of(fields.split(",")));
         }
+        Page<?> productsPage = listing.getProducts();
 
-        Map<String, Object> response = Map.of(
+        return Map.of(
                 "products", productsPage.getContent(),
                 "currentPage", productsPage.getNumber(),
                 "totalItems", productsPage.getTotalElements(),
-                "totalPages", productsPage.getTotalPages()
+                "totalPages", productsPage.getTotalPages(),
+                "facets", listing.getFacets()
         );
+    }
 
-        return ResponseEntity.ok(ApiResponse.success(response));
+    @QueryBudget(2)
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<Product>>> getProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) UUID category,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest request
+    ) {
+        CatalogVersion.Stamp version = catalogVersion.current();
+        String[] surrogateKeys = listKeys(category);
+        if (catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified())) {
+            return catalogHttpCaching.notModified(version.etag(), version.lastModified(), surrogateKeys);
+        }
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<Product> result = productService.getProductsAfter(
+                cursor, sortBy, sortDir.equalsIgnoreCase("asc"), category, pageSize);
+        if (includeTotal) {
+            result.setApproximateTotal(productService.countActiveProducts(category));
+        }
+        return catalogHttpCaching.ok(version.etag(), version.lastModified(), surrogateKeys)
+                .body(ApiResponse.success(result));
     }
 
+    @QueryBudget(2)
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Product>> getProduct(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Product>> getProduct(@PathVariable UUID id, WebRequest request) {
+        if (catalogHttpCaching.isConditional(request)) {
+            Optional<ProductVersion> current = productService.getProductVersion(id);
+            if (current.isPresent() && isNotModified(request, current.get())) {
+                return notModified(current.get());
+            }
+        }
         Product product = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(product));
+        return ok(product);
     }
 
+    @QueryBudget(2)
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<ApiResponse<Product>> getProductBySlug(@PathVariable String slug) {
+    public ResponseEntity<ApiResponse<Product>> getProductBySlug(@PathVariable String slug, WebRequest request) {
+        if (catalogHttpCaching.isConditional(request)) {
+            Optional<ProductVersion> current = productService.getProductVersionBySlug(slug);
+            if (current.isPresent() && isNotModified(request, current.get())) {
+                productService.recordView(current.get().id());
+                return notModified(current.get());
+            }
+        }
         Product product = productService.getProductBySlug(slug);
-        return ResponseEntity.ok(ApiResponse.success(product));
+        productService.recordView(product.getId());
+        return ok(product);
     }
 
+    @QueryBudget(2)
     @GetMapping("/featured")
-    public ResponseEntity<ApiResponse<List<Product>>> getFeaturedProducts() {
-        List<Product> products = productService.getFeaturedProducts();
-        return ResponseEntity.ok(ApiResponse.success(products));
+    public ResponseEntity<byte[]> getFeaturedProducts(WebRequest request) {
+        CatalogVersion.Stamp version = catalogVersion.current();
+        String[] surrogateKeys = listKeys(null);
+        if (catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified())) {
+            return catalogHttpCaching.notModified(version.etag(), version.lastModified(), surrogateKeys);
+        }
+        return responseBytesCache.respond(FEATURED, version, request,
+                () -> ApiResponse.success(productService.getFeaturedProducts()), surrogateKeys);
     }
 
     @PostMapping
@@ -103,4 +210,28 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", null));
     }
+
+    private boolean isNotModified(WebRequest request, ProductVersion version) {
+        return catalogHttpCaching.isNotModified(request, version.etag(), version.lastModified());
+    }
+
+    private <T> ResponseEntity<T> notModified(ProductVersion version) {
+        return catalogHttpCaching.notModified(version.etag(), version.lastModified(),
+                CatalogHttpCaching.CATALOG, CatalogHttpCaching.productKey(version.id()));
+    }
+
+    // Validators come from the product actually served, which may be a cached copy older
+    // than what the version lookup would return
+    private ResponseEntity<ApiResponse<Product>> ok(Product product) {
+        ProductVersion version = ProductVersion.of(product);
+        return catalogHttpCaching.ok(version.etag(), version.lastModified(),
+                        CatalogHttpCaching.CATALOG, CatalogHttpCaching.productKey(product.getId()))
+                .body(ApiResponse.success(product));
+    }
+
+    private static String[] listKeys(UUID category) {
+        return category == null
+                ? new String[]{CatalogHttpCaching.CATALOG, CatalogHttpCaching.PRODUCTS}
+                : new String[]{CatalogHttpCaching.CATALOG, CatalogHttpCaching.PRODUCTS, CatalogHttpCaching.categoryKey(category)};
+    }
 }
@@ -0,0 +1,24 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemView {
+    private UUID productId;
+    private String name;
+    private String slug;
+    private BigDecimal unitPrice;
+    private int quantity;
+    private BigDecimal lineTotal;
+    private Integer stockQuantity;
+    private boolean inStock;
+}
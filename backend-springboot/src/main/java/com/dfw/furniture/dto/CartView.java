@@ -0,0 +1,19 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartView {
+    private List<CartItemView> items;
+    private int itemCount;
+    private BigDecimal subtotal;
+}
@@ -0,0 +1,17 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBreadcrumb implements Serializable {
+    private UUID id;
+    private String name;
+    private String slug;
+}
@@ -0,0 +1,27 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryNode implements Serializable {
+    private UUID id;
+    private String name;
+    private String slug;
+    private String description;
+    private String imageUrl;
+    private String bannerImage;
+    private String icon;
+    private Integer sortOrder;
+    private UUID parentId;
+    private List<CategoryNode> children;
+}
@@ -0,0 +1,20 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    // Only filled in when requested; may lag recent writes by the count cache TTL
+    private Long approximateTotal;
+}
@@ -0,0 +1,36 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderConfirmation {
+    private UUID orderId;
+    private String orderNumber;
+    private String status;
+    private List<Line> items;
+    private BigDecimal subtotal;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID productId;
+        private String productName;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal totalPrice;
+    }
+}
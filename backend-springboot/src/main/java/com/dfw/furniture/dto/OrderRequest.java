@@ -0,0 +1,36 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+    private List<Item> items;
+    private Map<String, Object> shippingAddress;
+    private Map<String, Object> billingAddress;
+    private String shippingMethod;
+    private String notes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private UUID productId;
+        private int quantity;
+        // Optional: a stock reservation held for exactly this product and quantity
+        private UUID reservationId;
+
+        public Item(UUID productId, int quantity) {
+            this(productId, quantity, null);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and id of the last product returned.
+ * Sent to clients as an opaque URL-safe token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCursor {
+    private String sortBy;
+    private boolean ascending;
+    private Object lastValue;
+    private UUID lastId;
+
+    public String encode() {
+        if (lastValue == null || lastId == null) {
+            // The seek columns are NOT NULL; a null here would produce a cursor that cannot be decoded
+            throw new IllegalStateException("Cursor needs the last row's " + sortBy + " and id");
+        }
+        String raw = sortBy + "|" + (ascending ? "asc" : "desc") + "|" + lastValue + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            String sortBy = parts[0];
+            return new ProductCursor(sortBy, "asc".equals(parts[1]), parseValue(sortBy, parts[2]), UUID.fromString(parts[3]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "createdAt" -> LocalDateTime.parse(value);
+            case "price", "averageRating" -> new BigDecimal(value);
+            case "totalSales" -> Integer.valueOf(value);
+            default -> throw new IllegalArgumentException("Unsupported cursor sort: " + sortBy);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    private String search;
+    private UUID category;
+    private List<String> brands;
+    private List<String> materials;
+    private List<String> colors;
+    private Boolean featured;
+    private Boolean customizable;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    public boolean hasSearch() {
+        return search != null && !search.isEmpty();
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public boolean hasAttributeFilters() {
+        return brands != null && !brands.isEmpty()
+                || materials != null && !materials.isEmpty()
+                || colors != null && !colors.isEmpty()
+                || featured != null
+                || customizable != null;
+    }
+
+    /**
+     * Whether more than one kind of filter is set, or any attribute filter. Without the facet
+     * index such listings are served by one query over all of them.
+     */
+    public boolean isCombined() {
+        int kinds = (hasSearch() ? 1 : 0) + (category != null ? 1 : 0) + (hasPriceRange() ? 1 : 0);
+        return kinds > 1 || hasAttributeFilters();
+    }
+
+    /**
+     * How a listing is served without the facet index (combined, then search, category or
+     * price range), used to tag metrics.
+     */
+    public String path() {
+        if (isCombined()) {
+            return hasSearch() || category != null || hasPriceRange() ? "combined" : "attributes";
+        }
+        if (hasSearch()) {
+            return "search";
+        }
+        if (category != null) {
+            return "category";
+        }
+        if (hasPriceRange()) {
+            return "price";
+        }
+        return "all";
+    }
+}
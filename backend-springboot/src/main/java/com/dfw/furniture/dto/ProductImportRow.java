@@ -0,0 +1,40 @@
+package com.dfw.furniture.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One product in a bulk import file. Absent optional fields keep their current value when
+ * the row updates an existing product.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRow {
+    private String sku;
+    private String name;
+    private String slug;
+    private String description;
+    private String shortDescription;
+    private String categorySlug;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private Integer stockQuantity;
+    private String material;
+    private String color;
+    private String brand;
+    private Boolean isFeatured;
+    private Boolean isCustomizable;
+    private Boolean isActive;
+
+    @JsonIgnore
+    private long lineNumber;
+}
@@ -0,0 +1,22 @@
+package com.dfw.furniture.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * One page of a product listing. {@code T} is the full entity, a {@link ProductSummary} or
+ * a sparse field map, depending on what the client asked for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListing<T> implements Serializable {
+    private Page<T> products;
+    // facet -> value -> matching products, e.g. {"brand": {"Durian": 12}}
+    private Map<String, Map<String, Long>> facets;
+}
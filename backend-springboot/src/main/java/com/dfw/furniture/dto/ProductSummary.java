@@ -0,0 +1,59 @@
+package com.dfw.furniture.dto;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * What a product card in a listing needs: no TEXT columns and no category entity.
+ * The constructor order is used by the JPQL constructor expression in ProductRepository.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary implements Serializable {
+    private UUID id;
+    private String name;
+    private String slug;
+    private String shortDescription;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private String brand;
+    private String material;
+    private String color;
+    private Integer stockQuantity;
+    private BigDecimal averageRating;
+    private Integer totalReviews;
+    private Boolean isFeatured;
+    private String categoryName;
+    private String categorySlug;
+
+    public static ProductSummary from(Product product) {
+        Category category = product.getCategory();
+        return ProductSummary.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .slug(product.getSlug())
+                .shortDescription(product.getShortDescription())
+                .price(product.getPrice())
+                .salePrice(product.getSalePrice())
+                .brand(product.getBrand())
+                .material(product.getMaterial())
+                .color(product.getColor())
+                .stockQuantity(product.getStockQuantity())
+                .averageRating(product.getAverageRating())
+                .totalReviews(product.getTotalReviews())
+                .isFeatured(product.getIsFeatured())
+                .categoryName(category != null ? category.getName() : null)
+                .categorySlug(category != null ? category.getSlug() : null)
+                .build();
+    }
+}
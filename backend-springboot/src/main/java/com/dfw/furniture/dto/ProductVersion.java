@@ -0,0 +1,53 @@
+package com.dfw.furniture.dto;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * What a product page's validators are derived from: the product's own {@code updatedAt}
+ * and those of the category and parent category it embeds. Loaded on its own by
+ * {@code ProductRepository.findVersionById}, so a conditional GET can be answered without
+ * fetching the product.
+ */
+public record ProductVersion(UUID id, LocalDateTime updatedAt,
+                             LocalDateTime categoryUpdatedAt, LocalDateTime parentUpdatedAt) {
+
+    public static ProductVersion of(Product product) {
+        Category category = product.getCategory();
+        Category parent = category == null ? null : category.getParent();
+        return new ProductVersion(product.getId(), product.getUpdatedAt(),
+                category == null ? null : category.getUpdatedAt(),
+                parent == null ? null : parent.getUpdatedAt());
+    }
+
+    /**
+     * Newest of the three timestamps. Entities only move forward in time, so any change to
+     * the product or the categories it embeds changes this.
+     */
+    public Instant lastModified() {
+        LocalDateTime latest = latest(latest(updatedAt, categoryUpdatedAt), parentUpdatedAt);
+        return latest == null
+                ? Instant.EPOCH
+                // Databases keep microseconds; an entity fresh from a save still has nanos
+                : latest.truncatedTo(ChronoUnit.MICROS).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    public String etag() {
+        Instant lastModified = lastModified();
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, lastModified);
+        return "\"" + Integer.toHexString(id.hashCode()) + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dfw.furniture.event;
+
+/**
+ * Order of the after-commit listeners on {@link ProductChangedEvent} and
+ * {@link CategoryChangedEvent}. In-memory views of the catalog (snapshot, search and facet
+ * indexes, category tree, stock levels) are brought up to date before any cache is
+ * invalidated, so a request that misses a cache right after the eviction refills it from
+ * views that already include the change.
+ */
+public final class CatalogListenerOrder {
+
+    public static final int DERIVED_VIEWS = 0;
+    public static final int CACHE_INVALIDATION = 100;
+
+    private CatalogListenerOrder() {
+    }
+}
@@ -0,0 +1,9 @@
+package com.dfw.furniture.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code CategoryService} after a category is created, updated or deactivated.
+ */
+public record CategoryChangedEvent(UUID categoryId) {
+}
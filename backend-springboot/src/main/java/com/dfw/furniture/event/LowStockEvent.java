@@ -0,0 +1,9 @@
+package com.dfw.furniture.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a product's available stock drops to or below its low-stock threshold.
+ */
+public record LowStockEvent(UUID productId, int available, int threshold) {
+}
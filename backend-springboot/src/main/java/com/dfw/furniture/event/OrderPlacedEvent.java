@@ -0,0 +1,16 @@
+package com.dfw.furniture.event;
+
+import com.dfw.furniture.dto.OrderConfirmation;
+
+import java.util.UUID;
+
+/**
+ * Published inside the order transaction; listeners run once it has committed. Stock has
+ * already been taken by then, in the same transaction as the order rows.
+ */
+public record OrderPlacedEvent(
+        OrderConfirmation order,
+        UUID userId,
+        String customerEmail
+) {
+}
@@ -0,0 +1,18 @@
+package com.dfw.furniture.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code ProductService} after a product is created, updated or deactivated.
+ * A {@code null} product id means the whole catalog changed (e.g. a bulk import).
+ */
+public record ProductChangedEvent(UUID productId, String slug) {
+
+    public static ProductChangedEvent catalogChanged() {
+        return new ProductChangedEvent(null, null);
+    }
+
+    public boolean isCatalogWide() {
+        return productId == null;
+    }
+}
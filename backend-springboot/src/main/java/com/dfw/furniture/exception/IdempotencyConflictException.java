@@ -0,0 +1,8 @@
+package com.dfw.furniture.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
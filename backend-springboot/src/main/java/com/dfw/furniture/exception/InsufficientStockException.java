@@ -0,0 +1,17 @@
+package com.dfw.furniture.exception;
+
+import java.util.UUID;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final UUID productId;
+
+    public InsufficientStockException(UUID productId) {
+        super("Insufficient stock");
+        this.productId = productId;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.dfw.furniture.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(int budget, String sql) {
+        super("Query budget of " + budget + " exceeded by: " + sql);
+    }
+}
@@ -0,0 +1,56 @@
+package com.dfw.furniture.exporter;
+
+import com.dfw.furniture.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+class CsvProductRowWriter implements ProductRowWriter {
+
+    private final BufferedWriter writer;
+
+    CsvProductRowWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        for (int i = 0; i < ExportColumn.ALL.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(ExportColumn.ALL.get(i).name());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(Product product) throws IOException {
+        for (int i = 0; i < ExportColumn.ALL.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = ExportColumn.ALL.get(i).value().apply(product);
+            if (value != null) {
+                writeValue(value.toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeValue(String value) throws IOException {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,35 @@
+package com.dfw.furniture.exporter;
+
+import com.dfw.furniture.model.Product;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A column of the catalog export. Names match what the bulk import accepts, so an export can
+ * be edited and imported back.
+ */
+record ExportColumn(String name, Function<Product, Object> value) {
+
+    static final List<ExportColumn> ALL = List.of(
+            new ExportColumn("id", Product::getId),
+            new ExportColumn("sku", Product::getSku),
+            new ExportColumn("name", Product::getName),
+            new ExportColumn("slug", Product::getSlug),
+            new ExportColumn("shortDescription", Product::getShortDescription),
+            new ExportColumn("description", Product::getDescription),
+            new ExportColumn("categorySlug", product -> product.getCategory() != null ? product.getCategory().getSlug() : null),
+            new ExportColumn("price", Product::getPrice),
+            new ExportColumn("salePrice", Product::getSalePrice),
+            new ExportColumn("stockQuantity", Product::getStockQuantity),
+            new ExportColumn("material", Product::getMaterial),
+            new ExportColumn("color", Product::getColor),
+            new ExportColumn("brand", Product::getBrand),
+            new ExportColumn("isFeatured", Product::getIsFeatured),
+            new ExportColumn("isCustomizable", Product::getIsCustomizable),
+            new ExportColumn("isActive", Product::getIsActive),
+            new ExportColumn("averageRating", Product::getAverageRating),
+            new ExportColumn("totalReviews", Product::getTotalReviews),
+            new ExportColumn("updatedAt", Product::getUpdatedAt)
+    );
+}
@@ -0,0 +1,38 @@
+package com.dfw.furniture.exporter;
+
+import com.dfw.furniture.model.Product;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonProductRowWriter implements ProductRowWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonProductRowWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        // Keep the response stream open; the controller owns it
+        this.generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(Product product) throws IOException {
+        generator.writeStartObject();
+        for (ExportColumn column : ExportColumn.ALL) {
+            Object value = column.value().apply(product);
+            if (value != null) {
+                generator.writeObjectField(column.name(), value);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
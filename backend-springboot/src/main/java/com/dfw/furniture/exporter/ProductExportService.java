@@ -0,0 +1,85 @@
+package com.dfw.furniture.exporter;
+
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Streams the catalog from a database cursor to an output stream. Each product is written
+ * and then detached, so the persistence context - and the heap - stays the same size
+ * however many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Counter exportedRows;
+    private Timer exportTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        exportedRows = Counter.builder("product.export.rows").register(meterRegistry);
+        exportTimer = Timer.builder("product.export").register(meterRegistry);
+    }
+
+    /**
+     * Writes every matching product to {@code output} and returns the number written.
+     */
+    public long export(OutputStream output, ExportFormat format, UUID categoryId, boolean includeInactive) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long started = System.nanoTime();
+        Long written = transaction.execute(status -> {
+            try (Stream<Product> products = productRepository.streamForExport(categoryId, includeInactive)) {
+                ProductRowWriter writer = format == ExportFormat.CSV
+                        ? new CsvProductRowWriter(output)
+                        : new NdjsonProductRowWriter(output, objectMapper);
+                long count = 0;
+                Iterator<Product> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    Product product = iterator.next();
+                    writer.write(product);
+                    entityManager.detach(product);
+                    count++;
+                }
+                writer.finish();
+                return count;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        long count = written != null ? written : 0;
+        exportedRows.increment(count);
+        exportTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Exported {} products as {} in {} ms", count, format, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
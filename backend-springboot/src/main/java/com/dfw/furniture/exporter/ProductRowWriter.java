@@ -0,0 +1,18 @@
+package com.dfw.furniture.exporter;
+
+import com.dfw.furniture.model.Product;
+
+import java.io.IOException;
+
+/**
+ * Writes exported products one at a time straight to the response stream.
+ */
+interface ProductRowWriter {
+
+    void write(Product product) throws IOException;
+
+    /**
+     * Flushes buffered output; the underlying stream stays open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,147 @@
+package com.dfw.furniture.importer;
+
+import com.dfw.furniture.dto.ProductImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV with a header row. Header names are matched ignoring case, underscores and
+ * dashes ({@code sale_price}, {@code salePrice} and {@code Sale-Price} are the same column);
+ * unknown columns are ignored. Quoted values may contain commas, quotes and line breaks.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private List<String> header;
+    private long lineNumber;
+
+    public CsvProductRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = names.stream()
+                    .map(name -> name.replaceAll("[_\\-\\s]", "").toLowerCase(Locale.ROOT))
+                    .toList();
+        }
+
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isBlank());
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        ProductImportRow row = new ProductImportRow();
+        row.setLineNumber(lineNumber);
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                set(row, header.get(i), value);
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static void set(ProductImportRow row, String column, String value) {
+        try {
+            switch (column) {
+                case "sku" -> row.setSku(value);
+                case "name" -> row.setName(value);
+                case "slug" -> row.setSlug(value);
+                case "description" -> row.setDescription(value);
+                case "shortdescription" -> row.setShortDescription(value);
+                case "category", "categoryslug" -> row.setCategorySlug(value);
+                case "price" -> row.setPrice(new BigDecimal(value));
+                case "saleprice" -> row.setSalePrice(new BigDecimal(value));
+                case "stock", "stockquantity" -> row.setStockQuantity(Integer.valueOf(value));
+                case "material" -> row.setMaterial(value);
+                case "color" -> row.setColor(value);
+                case "brand" -> row.setBrand(value);
+                case "featured", "isfeatured" -> row.setIsFeatured(Boolean.valueOf(value));
+                case "customizable", "iscustomizable" -> row.setIsCustomizable(Boolean.valueOf(value));
+                case "active", "isactive" -> row.setIsActive(Boolean.valueOf(value));
+                default -> {
+                }
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number for " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Reads one record, which spans several lines if a quoted value contains line breaks.
+     */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("Unterminated quoted value");
+                }
+                lineNumber++;
+                value.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dfw.furniture.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat of(String format, String contentType) {
+        String value = (format != null ? format : contentType != null ? contentType : "").toLowerCase(Locale.ROOT);
+        if (value.contains("csv")) {
+            return CSV;
+        }
+        if (value.contains("ndjson") || value.contains("json")) {
+            return NDJSON;
+        }
+        throw new RuntimeException("Unsupported import format, use text/csv or application/x-ndjson");
+    }
+}
@@ -0,0 +1,103 @@
+package com.dfw.furniture.importer;
+
+import com.dfw.furniture.dto.ImportReport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one running or finished import. Written by the importing thread and read by
+ * progress requests, so counters are atomic and the error list is guarded.
+ */
+class ImportJob {
+
+    enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final UUID id = UUID.randomUUID();
+    private final ImportFormat format;
+    private final int maxErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportReport.RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile String failure;
+    private volatile LocalDateTime finishedAt;
+
+    ImportJob(ImportFormat format, int maxErrors) {
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void written(long insertedRows, long updatedRows) {
+        inserted.addAndGet(insertedRows);
+        updated.addAndGet(updatedRows);
+    }
+
+    long changedRows() {
+        return inserted.get() + updated.get();
+    }
+
+    void rowFailed(long line, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        failure = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    ImportReport toReport() {
+        List<ImportReport.RowError> rowErrors;
+        synchronized (errors) {
+            rowErrors = new ArrayList<>(errors);
+        }
+        if (failure != null) {
+            rowErrors.add(new ImportReport.RowError(0, failure));
+        }
+        return ImportReport.builder()
+                .id(id)
+                .format(format.name())
+                .status(status.name())
+                .rowsRead(rowsRead.get())
+                .inserted(inserted.get())
+                .updated(updated.get())
+                .failed(failed.get())
+                .errors(rowErrors)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.dfw.furniture.importer;
+
+import com.dfw.furniture.dto.ProductImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One JSON object per line; blank lines are skipped.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader rowReader;
+    private long lineNumber;
+
+    public NdjsonProductRowReader(BufferedReader reader, ObjectReader rowReader) {
+        this.reader = reader;
+        this.rowReader = rowReader;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            ProductImportRow row = rowReader.readValue(line);
+            row.setLineNumber(lineNumber);
+            return row;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
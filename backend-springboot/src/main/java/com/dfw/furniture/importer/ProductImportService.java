@@ -0,0 +1,340 @@
+package com.dfw.furniture.importer;
+
+import com.dfw.furniture.dto.ImportReport;
+import com.dfw.furniture.dto.ProductImportRow;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams a CSV or NDJSON catalog file into the products table. Rows are validated as they
+ * are read and written in batches: one category lookup, one existing-product lookup and one
+ * JDBC batch of inserts and of updates per batch, each batch in its own transaction. Caches
+ * and indexes are refreshed once, after the whole import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, name, slug, description, short_description, category_id, sku, price, " +
+            "sale_price, stock_quantity, low_stock_threshold, material, color, brand, is_featured, is_active, " +
+            "is_customizable, has_360_view, assembly_required, average_rating, total_reviews, total_sales, views, " +
+            "created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 5, ?, ?, ?, ?, ?, ?, false, false, 0, 0, 0, 0, ?, ?)";
+
+    // Optional columns keep their current value when the row leaves them out
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = ?, slug = COALESCE(?, slug), description = COALESCE(?, description), " +
+            "short_description = COALESCE(?, short_description), category_id = COALESCE(?, category_id), " +
+            "sku = COALESCE(?, sku), price = ?, sale_price = COALESCE(?, sale_price), " +
+            "stock_quantity = COALESCE(?, stock_quantity), material = COALESCE(?, material), " +
+            "color = COALESCE(?, color), brand = COALESCE(?, brand), is_featured = COALESCE(?, is_featured), " +
+            "is_active = COALESCE(?, is_active), is_customizable = COALESCE(?, is_customizable), updated_at = ? " +
+            "WHERE id = ?";
+
+    private static final int MAX_TRACKED_JOBS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.max-errors:100}")
+    private int maxErrors;
+
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private Counter insertedRows;
+    private Counter updatedRows;
+    private Counter failedRows;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        insertedRows = Counter.builder("product.import.rows").tag("result", "inserted").register(meterRegistry);
+        updatedRows = Counter.builder("product.import.rows").tag("result", "updated").register(meterRegistry);
+        failedRows = Counter.builder("product.import.rows").tag("result", "failed").register(meterRegistry);
+        batchTimer = Timer.builder("product.import.batch").register(meterRegistry);
+    }
+
+    public ImportReport importProducts(InputStream input, ImportFormat format) {
+        ImportJob job = register(format);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (ProductRowReader rows = format == ImportFormat.CSV
+                ? new CsvProductRowReader(reader)
+                : new NdjsonProductRowReader(reader, objectMapper.readerFor(ProductImportRow.class))) {
+            List<ProductImportRow> batch = new ArrayList<>(batchSize);
+            while (true) {
+                ProductImportRow row;
+                try {
+                    row = rows.next();
+                } catch (IllegalArgumentException ex) {
+                    job.rowRead();
+                    rowFailed(job, rows.lineNumber(), ex.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                job.rowRead();
+                String error = validate(row);
+                if (error != null) {
+                    rowFailed(job, row.getLineNumber(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, job);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, job);
+            }
+            job.complete();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Product import {} aborted: {}", job.getId(), ex.getMessage());
+            job.fail("Import aborted: " + ex.getMessage());
+        } finally {
+            if (job.changedRows() > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.catalogChanged());
+            }
+        }
+        ImportReport report = job.toReport();
+        log.info("Product import {} {}: {} read, {} inserted, {} updated, {} failed", report.getId(),
+                report.getStatus(), report.getRowsRead(), report.getInserted(), report.getUpdated(), report.getFailed());
+        return report;
+    }
+
+    public ImportReport getImport(UUID id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Import not found");
+        }
+        return job.toReport();
+    }
+
+    public List<ImportReport> getImports() {
+        return jobs.values().stream()
+                .map(ImportJob::toReport)
+                .sorted(Comparator.comparing(ImportReport::getStartedAt).reversed())
+                .toList();
+    }
+
+    private ImportJob register(ImportFormat format) {
+        if (jobs.size() >= MAX_TRACKED_JOBS) {
+            jobs.values().stream()
+                    .filter(ImportJob::isFinished)
+                    .min(Comparator.comparing(ImportJob::getStartedAt))
+                    .ifPresent(oldest -> jobs.remove(oldest.getId()));
+        }
+        ImportJob job = new ImportJob(format, maxErrors);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private static String validate(ProductImportRow row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getName().length() > 255) {
+            return "name is longer than 255 characters";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() <= 0) {
+            return "price must be greater than 0";
+        }
+        if (row.getSalePrice() != null
+                && (row.getSalePrice().signum() < 0 || row.getSalePrice().compareTo(row.getPrice()) > 0)) {
+            return "salePrice must be between 0 and price";
+        }
+        if (row.getStockQuantity() != null && row.getStockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        return null;
+    }
+
+    private void writeBatch(List<ProductImportRow> batch, ImportJob job) {
+        batchTimer.record(() -> {
+            // A later row for the same sku or slug replaces an earlier one in the same batch
+            Map<String, ProductImportRow> unique = new LinkedHashMap<>();
+            for (ProductImportRow row : batch) {
+                unique.put(row.getSku() != null ? "sku:" + row.getSku() : "slug:" + slugOf(row), row);
+            }
+            List<ProductImportRow> rows = new ArrayList<>(unique.values());
+
+            Map<String, UUID> categories = resolveCategories(rows);
+            rows.removeIf(row -> {
+                if (row.getCategorySlug() != null && !categories.containsKey(row.getCategorySlug())) {
+                    rowFailed(job, row.getLineNumber(), "Unknown category: " + row.getCategorySlug());
+                    return true;
+                }
+                return false;
+            });
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            try {
+                long[] written = new TransactionTemplate(transactionManager)
+                        .execute(status -> upsert(rows, categories, job));
+                job.written(written[0], written[1]);
+                insertedRows.increment(written[0]);
+                updatedRows.increment(written[1]);
+            } catch (DataAccessException ex) {
+                String cause = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+                log.warn("Product import {} batch of {} rows failed: {}", job.getId(), rows.size(), cause);
+                for (ProductImportRow row : rows) {
+                    rowFailed(job, row.getLineNumber(), "Batch failed: " + cause);
+                }
+            }
+        });
+    }
+
+    private Map<String, UUID> resolveCategories(List<ProductImportRow> rows) {
+        Set<String> slugs = new HashSet<>();
+        for (ProductImportRow row : rows) {
+            if (row.getCategorySlug() != null) {
+                slugs.add(row.getCategorySlug());
+            }
+        }
+        Map<String, UUID> categories = new HashMap<>();
+        if (!slugs.isEmpty()) {
+            for (Category category : categoryRepository.findBySlugIn(slugs)) {
+                categories.put(category.getSlug(), category.getId());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Matches rows to existing products by sku, then by slug, and writes one insert batch and
+     * one update batch. Returns {inserted, updated}.
+     */
+    private long[] upsert(List<ProductImportRow> rows, Map<String, UUID> categories, ImportJob job) {
+        Set<String> skus = new HashSet<>();
+        Set<String> slugs = new HashSet<>();
+        for (ProductImportRow row : rows) {
+            if (row.getSku() != null) {
+                skus.add(row.getSku());
+            }
+            slugs.add(slugOf(row));
+        }
+        Map<String, UUID> idsBySku = new HashMap<>();
+        Map<String, UUID> idsBySlug = new HashMap<>();
+        findExisting(skus, slugs, idsBySku, idsBySlug);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<String> claimedSlugs = new HashSet<>();
+        for (ProductImportRow row : rows) {
+            String slug = slugOf(row);
+            UUID id = row.getSku() != null ? idsBySku.get(row.getSku()) : null;
+            UUID slugOwner = idsBySlug.get(slug);
+            if (id == null && row.getSku() == null) {
+                id = slugOwner;
+            }
+            // An update without a slug keeps the product's current one, so there is nothing to clash with
+            boolean writesSlug = id == null || row.getSlug() != null;
+            if (writesSlug && ((slugOwner != null && !slugOwner.equals(id)) || !claimedSlugs.add(slug))) {
+                rowFailed(job, row.getLineNumber(), "Slug already used by another product: " + slug);
+                continue;
+            }
+            UUID categoryId = row.getCategorySlug() != null ? categories.get(row.getCategorySlug()) : null;
+
+            if (id == null) {
+                inserts.add(new Object[]{
+                        UUID.randomUUID(), row.getName(), slug, row.getDescription(), row.getShortDescription(),
+                        categoryId, row.getSku(), row.getPrice(), row.getSalePrice(),
+                        row.getStockQuantity() != null ? row.getStockQuantity() : 0,
+                        row.getMaterial(), row.getColor(), row.getBrand(),
+                        Boolean.TRUE.equals(row.getIsFeatured()),
+                        !Boolean.FALSE.equals(row.getIsActive()),
+                        Boolean.TRUE.equals(row.getIsCustomizable()),
+                        now, now
+                });
+            } else {
+                updates.add(new Object[]{
+                        row.getName(), row.getSlug(), row.getDescription(), row.getShortDescription(), categoryId,
+                        row.getSku(), row.getPrice(), row.getSalePrice(), row.getStockQuantity(),
+                        row.getMaterial(), row.getColor(), row.getBrand(),
+                        row.getIsFeatured(), row.getIsActive(), row.getIsCustomizable(), now, id
+                });
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return new long[]{inserts.size(), updates.size()};
+    }
+
+    private void findExisting(Set<String> skus, Set<String> slugs, Map<String, UUID> idsBySku, Map<String, UUID> idsBySlug) {
+        MapSqlParameterSource params = new MapSqlParameterSource("slugs", slugs);
+        String sql = "SELECT id, sku, slug FROM products WHERE slug IN (:slugs)";
+        if (!skus.isEmpty()) {
+            sql += " OR sku IN (:skus)";
+            params.addValue("skus", skus);
+        }
+        namedJdbcTemplate.query(sql, params, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            String sku = rs.getString("sku");
+            if (sku != null) {
+                idsBySku.put(sku, id);
+            }
+            idsBySlug.put(rs.getString("slug"), id);
+        });
+    }
+
+    private void rowFailed(ImportJob job, long line, String message) {
+        job.rowFailed(line, message);
+        failedRows.increment();
+    }
+
+    private static String slugOf(ProductImportRow row) {
+        if (row.getSlug() != null) {
+            return row.getSlug();
+        }
+        return row.getName().toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("(^-|-$)", "");
+    }
+}
@@ -0,0 +1,24 @@
+package com.dfw.furniture.importer;
+
+import com.dfw.furniture.dto.ProductImportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one row at a time, so memory use does not depend on the file size.
+ */
+public interface ProductRowReader extends Closeable {
+
+    /**
+     * The next row, or {@code null} at the end of the input.
+     *
+     * @throws IllegalArgumentException if the row cannot be parsed; reading can continue
+     */
+    ProductImportRow next() throws IOException;
+
+    /**
+     * Line number of the row last returned or rejected.
+     */
+    long lineNumber();
+}
@@ -0,0 +1,624 @@
+package com.dfw.furniture.inventory;
+
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.LowStockEvent;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.exception.InsufficientStockException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Stock reservations on per-product counters in Redis, shared by every instance. A checkout
+ * reserves units, then confirms them (sold) or releases them; reservations that are neither
+ * confirmed nor released within the TTL are released by a sweep.
+ * <p>
+ * Each product has a hash {@code dfw:stock:{id}}. Its {@code available} units are taken with
+ * one HINCRBY, which is given back if it went below zero, so reservations on any number of
+ * nodes never take the same unit and different products never contend. {@code reserved} and
+ * {@code sold} count units held by reservations and units sold but not yet written to the
+ * database; {@code stock} is the {@code stock_quantity} the counters are based on. The hash is
+ * loaded from the database on first use. Confirm, release and expiry each start by deleting
+ * the reservation's key, so they can race freely and exactly one of them takes effect.
+ * <p>
+ * Sold units are written back in batches: a sale adds the product to a dirty set, and each
+ * flush pops a batch, subtracts the {@code sold} units from {@code stock_quantity} in one
+ * transaction and then from the counters. Product writes re-sync {@code stock} with the
+ * database without touching reservations. A flush or re-sync of a product holds a short
+ * Redis lock on it, so neither sees the other half done. A node dying between a flush's
+ * commit and its counter update subtracts those units twice, never too few.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryService {
+
+    static final String STOCK_KEY_PREFIX = "dfw:stock:";
+    static final String DIRTY_KEY = "dfw:stock:dirty";
+    // Products with counters, for re-syncing them all after a catalog-wide change
+    static final String TRACKED_KEY = "dfw:stock:tracked";
+    static final String RESERVATION_KEY_PREFIX = "dfw:reservation:";
+    static final String EXPIRING_KEY = "dfw:reservation:expiring";
+    static final String HELD_KEY_PREFIX = "dfw:reservation:held:";
+
+    private static final String AVAILABLE = "available";
+    private static final String RESERVED = "reserved";
+    private static final String SOLD = "sold";
+    private static final String STOCK = "stock";
+    private static final String THRESHOLD = "threshold";
+
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final Duration LOCK_WAIT = Duration.ofSeconds(2);
+
+    private static final String STOCK_SQL =
+            "SELECT COALESCE(stock_quantity, 0), COALESCE(low_stock_threshold, 5) FROM products WHERE id = ?";
+    private static final String WRITE_BACK_SQL = """
+            UPDATE products SET stock_quantity = COALESCE(stock_quantity, 0) - ?,
+                total_sales = COALESCE(total_sales, 0) + ?, updated_at = ?
+            WHERE id = ?""";
+    private static final String SLUGS_SQL = "SELECT id, slug FROM products WHERE id IN (%s)";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.reservation.ttl:10m}")
+    private Duration reservationTtl;
+
+    // Units one owner may hold at once, so a single account cannot lock up a product's stock
+    @Value("${inventory.reservation.max-held-per-user:20}")
+    private int maxHeldPerUser;
+
+    @Value("${inventory.batch-size:500}")
+    private int batchSize;
+
+    private final String lockToken = UUID.randomUUID().toString();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private TransactionTemplate transactionTemplate;
+    private Counter reserved;
+    private Counter rejected;
+    private Counter confirmed;
+    private Counter released;
+    private Counter expired;
+    private Counter flushedUnits;
+    private Counter failedProducts;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        reserved = Counter.builder("inventory.reservations").tag("result", "reserved").register(meterRegistry);
+        rejected = Counter.builder("inventory.reservations").tag("result", "rejected").register(meterRegistry);
+        confirmed = Counter.builder("inventory.reservations").tag("result", "confirmed").register(meterRegistry);
+        released = Counter.builder("inventory.reservations").tag("result", "released").register(meterRegistry);
+        expired = Counter.builder("inventory.reservations").tag("result", "expired").register(meterRegistry);
+        Gauge.builder("inventory.dirty", redisTemplate, template -> {
+                    Long size = template.opsForSet().size(DIRTY_KEY);
+                    return size == null ? 0 : size;
+                })
+                .description("Products with sold units not yet written to the database")
+                .register(meterRegistry);
+        flushedUnits = Counter.builder("inventory.flushed").register(meterRegistry);
+        failedProducts = Counter.builder("inventory.flush.failed").register(meterRegistry);
+        flushTimer = Timer.builder("inventory.flush").register(meterRegistry);
+    }
+
+    public StockStatus getStock(UUID productId) {
+        String key = STOCK_KEY_PREFIX + productId;
+        List<Object> counters = redisTemplate.opsForHash().multiGet(key, List.of(STOCK, AVAILABLE, RESERVED, THRESHOLD));
+        if (counters.get(0) == null) {
+            load(productId);
+            counters = redisTemplate.opsForHash().multiGet(key, List.of(STOCK, AVAILABLE, RESERVED, THRESHOLD));
+        }
+        int available = toInt(counters.get(1));
+        int reservedUnits = toInt(counters.get(2));
+        return new StockStatus(productId, available, reservedUnits, available + reservedUnits,
+                available <= toInt(counters.get(3)));
+    }
+
+    /**
+     * Holds {@code quantity} units for {@code owner} until confirmed, released or expired.
+     *
+     * @throws InsufficientStockException if fewer units are available
+     */
+    public Reservation reserve(UUID productId, int quantity, String owner) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        // Counted before the stock is taken, so concurrent reservations cannot all pass the cap
+        String heldKey = HELD_KEY_PREFIX + owner;
+        List<Object> held = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForValue().increment(heldKey, quantity);
+                // Outlives every reservation it counts
+                operations.expire(heldKey, reservationTtl.multipliedBy(2));
+                return null;
+            }
+        });
+        if ((Long) held.get(0) > maxHeldPerUser) {
+            redisTemplate.opsForValue().decrement(heldKey, quantity);
+            throw new RuntimeException("At most " + maxHeldPerUser + " units can be reserved at once");
+        }
+        try {
+            take(productId, quantity);
+        } catch (RuntimeException ex) {
+            redisTemplate.opsForValue().decrement(heldKey, quantity);
+            throw ex;
+        }
+
+        Reservation reservation = new Reservation(
+                UUID.randomUUID(), productId, quantity, owner, Instant.now().plus(reservationTtl));
+        pipelined(operations -> {
+            operations.opsForHash().increment(STOCK_KEY_PREFIX + productId, RESERVED, quantity);
+            store(operations, reservation);
+        });
+        reserved.increment();
+        return reservation;
+    }
+
+    /**
+     * Sells the reserved units. They leave {@code stock_quantity} with the next flush.
+     *
+     * @throws RuntimeException if the reservation is unknown, settled or past its TTL
+     */
+    public Reservation confirm(UUID reservationId, String owner) {
+        Reservation reservation = claimUnexpired(find(reservationId, owner));
+        settle(reservation, true);
+        confirmed.increment();
+        return reservation;
+    }
+
+    public void release(UUID reservationId, String owner) {
+        Reservation reservation = find(reservationId, owner);
+        if (!claim(reservation)) {
+            throw new RuntimeException("Reservation not found");
+        }
+        settle(reservation, false);
+        released.increment();
+    }
+
+    /**
+     * Takes the stock for an order being placed, all or none. A line with a reservation uses
+     * it instead: the reservation must belong to {@code owner}, match the line's product and
+     * quantity and not have expired. The units are sold by {@link #commit} once the order is
+     * stored, or given back by {@link #abort}, which also restores the reservations.
+     *
+     * @throws InsufficientStockException if a product has fewer units available
+     */
+    public StockHold hold(List<StockHold.Line> lines, String owner) {
+        List<StockHold.Line> taken = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        try {
+            for (StockHold.Line line : lines) {
+                if (line.reservationId() == null) {
+                    take(line.productId(), line.quantity());
+                    taken.add(line);
+                    continue;
+                }
+                Reservation reservation = find(line.reservationId(), owner);
+                if (!reservation.productId().equals(line.productId()) || reservation.quantity() != line.quantity()) {
+                    throw new RuntimeException("Reservation does not match its order line");
+                }
+                reservations.add(claimUnexpired(reservation));
+            }
+        } catch (RuntimeException ex) {
+            abort(new StockHold(taken, reservations));
+            throw ex;
+        }
+        return new StockHold(taken, reservations);
+    }
+
+    public void commit(StockHold hold) {
+        pipelined(operations -> hold.taken().forEach(line -> {
+            operations.opsForHash().increment(STOCK_KEY_PREFIX + line.productId(), SOLD, line.quantity());
+            operations.opsForSet().add(DIRTY_KEY, line.productId().toString());
+        }));
+        hold.reservations().forEach(reservation -> {
+            settle(reservation, true);
+            confirmed.increment();
+        });
+    }
+
+    public void abort(StockHold hold) {
+        pipelined(operations -> {
+            hold.taken().forEach(line ->
+                    operations.opsForHash().increment(STOCK_KEY_PREFIX + line.productId(), AVAILABLE, line.quantity()));
+            // Still holding their units, so the order can be retried with them
+            hold.reservations().forEach(reservation -> store(operations, reservation));
+        });
+    }
+
+    /**
+     * Takes units off {@code available}. A take that finds too few puts them straight back,
+     * so one that fails can briefly make a concurrent one fail too, but none can oversell.
+     */
+    private void take(UUID productId, int quantity) {
+        String key = STOCK_KEY_PREFIX + productId;
+        List<Object> result = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.opsForHash().increment(key, AVAILABLE, -quantity);
+                operations.opsForHash().get(key, THRESHOLD);
+                return null;
+            }
+        });
+        long left = (Long) result.get(0);
+        if (left < 0 || result.get(1) == null) {
+            redisTemplate.opsForHash().increment(key, AVAILABLE, quantity);
+            if (result.get(1) == null) {
+                // No counters for this product yet
+                load(productId);
+                take(productId, quantity);
+                return;
+            }
+            rejected.increment();
+            throw new InsufficientStockException(productId);
+        }
+
+        // Fires once, on the take that crosses the threshold
+        int threshold = toInt(result.get(1));
+        if (left <= threshold && left + quantity > threshold) {
+            eventPublisher.publishEvent(new LowStockEvent(productId, (int) left, threshold));
+        }
+    }
+
+    /**
+     * Creates the product's counters from the database. {@code available} is added to rather
+     * than set, as takes that found no counters may have left their give-backs in it.
+     */
+    private void load(UUID productId) {
+        String key = STOCK_KEY_PREFIX + productId;
+        withLock(productId, () -> {
+            if (Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(key, STOCK))) {
+                return;
+            }
+            Level level = level(productId);
+            if (level == null) {
+                throw new RuntimeException("Product not found");
+            }
+            pipelined(operations -> {
+                operations.opsForHash().put(key, STOCK, String.valueOf(level.stock()));
+                operations.opsForHash().put(key, THRESHOLD, String.valueOf(level.lowStockThreshold()));
+                operations.opsForHash().increment(key, AVAILABLE, level.stock());
+                operations.opsForSet().add(TRACKED_KEY, productId.toString());
+            });
+        });
+    }
+
+    private Level level(UUID productId) {
+        List<Level> rows = jdbcTemplate.query(STOCK_SQL,
+                (rs, rowNum) -> new Level(rs.getInt(1), rs.getInt(2)), productId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Reservation find(UUID reservationId, String owner) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(RESERVATION_KEY_PREFIX + reservationId);
+        if (fields.isEmpty() || (owner != null && !owner.equals(fields.get("owner")))) {
+            throw new RuntimeException("Reservation not found");
+        }
+        return new Reservation(reservationId,
+                UUID.fromString((String) fields.get("productId")),
+                toInt(fields.get("quantity")),
+                (String) fields.get("owner"),
+                Instant.ofEpochMilli(Long.parseLong((String) fields.get("expiresAt"))));
+    }
+
+    private static void store(RedisOperations<String, String> operations, Reservation reservation) {
+        operations.opsForHash().putAll(RESERVATION_KEY_PREFIX + reservation.id(), Map.of(
+                "productId", reservation.productId().toString(),
+                "quantity", String.valueOf(reservation.quantity()),
+                "owner", reservation.owner(),
+                "expiresAt", String.valueOf(reservation.expiresAt().toEpochMilli())));
+        operations.opsForZSet().add(EXPIRING_KEY, reservation.id().toString(), reservation.expiresAt().toEpochMilli());
+    }
+
+    private Reservation claimUnexpired(Reservation reservation) {
+        if (reservation.isExpired(Instant.now())) {
+            // Its units are for sale again, even if the sweep has not got to it yet
+            if (claim(reservation)) {
+                settle(reservation, false);
+                expired.increment();
+            }
+            throw new RuntimeException("Reservation expired");
+        }
+        if (!claim(reservation)) {
+            throw new RuntimeException("Reservation not found");
+        }
+        return reservation;
+    }
+
+    /**
+     * Deletes the reservation's key; only the caller whose delete succeeds may settle it.
+     */
+    private boolean claim(Reservation reservation) {
+        List<Object> result = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.delete(RESERVATION_KEY_PREFIX + reservation.id());
+                operations.opsForZSet().remove(EXPIRING_KEY, reservation.id().toString());
+                return null;
+            }
+        });
+        return Long.valueOf(1).equals(result.get(0));
+    }
+
+    private void settle(Reservation reservation, boolean sold) {
+        String key = STOCK_KEY_PREFIX + reservation.productId();
+        int quantity = reservation.quantity();
+        pipelined(operations -> {
+            operations.opsForHash().increment(key, RESERVED, -quantity);
+            if (sold) {
+                operations.opsForHash().increment(key, SOLD, quantity);
+                operations.opsForSet().add(DIRTY_KEY, reservation.productId().toString());
+            } else {
+                operations.opsForHash().increment(key, AVAILABLE, quantity);
+            }
+            operations.opsForValue().decrement(HELD_KEY_PREFIX + reservation.owner(), quantity);
+        });
+    }
+
+    // At most one batch per run; a backlog is worked off over the following runs
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval-ms:5000}")
+    public void releaseExpired() {
+        try {
+            Set<String> ids = redisTemplate.opsForZSet()
+                    .rangeByScore(EXPIRING_KEY, 0, System.currentTimeMillis(), 0, batchSize);
+            for (String id : ids == null ? Set.<String>of() : ids) {
+                Reservation reservation;
+                try {
+                    reservation = find(UUID.fromString(id), null);
+                } catch (RuntimeException ex) {
+                    // Settled by another node between its delete and its removal from the index
+                    redisTemplate.opsForZSet().remove(EXPIRING_KEY, id);
+                    continue;
+                }
+                if (claim(reservation)) {
+                    settle(reservation, false);
+                    expired.increment();
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Reservation sweep skipped, Redis unavailable: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(() -> {
+                List<String> busy = new ArrayList<>();
+                List<String> productIds;
+                // SPOP hands each product to exactly one node, so several instances can flush at once
+                while (!(productIds = popDirty()).isEmpty()) {
+                    if (!writeBack(productIds, busy)) {
+                        break;
+                    }
+                }
+                if (!busy.isEmpty()) {
+                    // Being re-synced elsewhere; next run
+                    redisTemplate.opsForSet().add(DIRTY_KEY, busy.toArray(String[]::new));
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Stock flush skipped, Redis unavailable: {}", ex.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private List<String> popDirty() {
+        List<String> productIds = redisTemplate.opsForSet().pop(DIRTY_KEY, batchSize);
+        return productIds == null ? List.of() : productIds;
+    }
+
+    private boolean writeBack(List<String> productIds, List<String> busy) {
+        List<UUID> locked = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            if (tryLock(UUID.fromString(productId))) {
+                locked.add(UUID.fromString(productId));
+            } else {
+                busy.add(productId);
+            }
+        }
+        if (locked.isEmpty()) {
+            return true;
+        }
+        Map<UUID, String> slugs;
+        try {
+            List<Object> sold = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    locked.forEach(productId -> operations.opsForHash().get(STOCK_KEY_PREFIX + productId, SOLD));
+                    return null;
+                }
+            });
+            Map<UUID, Integer> units = new LinkedHashMap<>();
+            for (int i = 0; i < locked.size(); i++) {
+                int quantity = toInt(sold.get(i));
+                if (quantity > 0) {
+                    units.put(locked.get(i), quantity);
+                }
+            }
+            if (units.isEmpty()) {
+                return true;
+            }
+
+            Timestamp at = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = units.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue(), entry.getValue(), at, entry.getKey()})
+                    .toList();
+            String placeholders = String.join(",", Collections.nCopies(units.size(), "?"));
+            slugs = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(WRITE_BACK_SQL, rows);
+                Map<UUID, String> bySlug = new LinkedHashMap<>();
+                jdbcTemplate.query(SLUGS_SQL.formatted(placeholders),
+                        rs -> {
+                            bySlug.put(rs.getObject(1, UUID.class), rs.getString(2));
+                        },
+                        units.keySet().toArray());
+                return bySlug;
+            });
+            pipelined(operations -> units.forEach((productId, quantity) -> {
+                operations.opsForHash().increment(STOCK_KEY_PREFIX + productId, STOCK, -quantity);
+                operations.opsForHash().increment(STOCK_KEY_PREFIX + productId, SOLD, -quantity);
+            }));
+            flushedUnits.increment(units.values().stream().mapToInt(Integer::intValue).sum());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write stock of {} products, will retry: {}", locked.size(), ex.getMessage());
+            failedProducts.increment(locked.size());
+            redisTemplate.opsForSet().add(DIRTY_KEY, locked.stream().map(UUID::toString).toArray(String[]::new));
+            return false;
+        } finally {
+            locked.forEach(this::unlock);
+        }
+        // Unlocked first: the re-sync these trigger takes the same lock
+        slugs.forEach((productId, slug) -> eventPublisher.publishEvent(new ProductChangedEvent(productId, slug)));
+        return true;
+    }
+
+    /**
+     * Re-bases the counters on {@code stock_quantity} after a product write. Reserved and sold
+     * units are kept; only the difference to the stock the counters were based on is applied.
+     */
+    @Order(CatalogListenerOrder.DERIVED_VIEWS)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        try {
+            if (event.isCatalogWide()) {
+                Set<String> productIds = redisTemplate.opsForSet().members(TRACKED_KEY);
+                if (productIds != null) {
+                    productIds.forEach(productId -> resync(UUID.fromString(productId)));
+                }
+            } else {
+                resync(event.productId());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Stock counters not re-synced after a product change: {}", ex.getMessage());
+        }
+    }
+
+    private void resync(UUID productId) {
+        String key = STOCK_KEY_PREFIX + productId;
+        if (!Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(key, STOCK))) {
+            // Loaded from the database on first use
+            return;
+        }
+        withLock(productId, () -> {
+            Object basis = redisTemplate.opsForHash().get(key, STOCK);
+            if (basis == null) {
+                return;
+            }
+            Level level = level(productId);
+            if (level == null) {
+                pipelined(operations -> {
+                    operations.delete(key);
+                    operations.opsForSet().remove(TRACKED_KEY, productId.toString());
+                });
+                return;
+            }
+            int difference = level.stock() - toInt(basis);
+            pipelined(operations -> {
+                if (difference != 0) {
+                    operations.opsForHash().increment(key, STOCK, difference);
+                    operations.opsForHash().increment(key, AVAILABLE, difference);
+                }
+                operations.opsForHash().put(key, THRESHOLD, String.valueOf(level.lowStockThreshold()));
+            });
+        });
+    }
+
+    private void withLock(UUID productId, Runnable action) {
+        long deadline = System.nanoTime() + LOCK_WAIT.toNanos();
+        while (!tryLock(productId)) {
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("Stock is being updated, please try again");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+        try {
+            action.run();
+        } finally {
+            unlock(productId);
+        }
+    }
+
+    private boolean tryLock(UUID productId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(STOCK_KEY_PREFIX + productId + ":lock", lockToken, LOCK_TTL));
+    }
+
+    private void unlock(UUID productId) {
+        String lockKey = STOCK_KEY_PREFIX + productId + ":lock";
+        if (lockToken.equals(redisTemplate.opsForValue().get(lockKey))) {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    private void pipelined(Consumer<RedisOperations<String, String>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                commands.accept(operations);
+                return null;
+            }
+        });
+    }
+
+    private static int toInt(Object value) {
+        return value == null ? 0 : Integer.parseInt((String) value);
+    }
+
+    private record Level(int stock, int lowStockThreshold) {
+    }
+}
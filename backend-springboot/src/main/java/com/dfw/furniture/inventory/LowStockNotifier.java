@@ -0,0 +1,25 @@
+package com.dfw.furniture.inventory;
+
+import com.dfw.furniture.event.LowStockEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockNotifier {
+
+    private final MeterRegistry meterRegistry;
+
+    @Async
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        meterRegistry.counter("inventory.low-stock").increment();
+        log.warn("Product {} is low on stock: {} available (threshold {})",
+                event.productId(), event.available(), event.threshold());
+    }
+}
@@ -0,0 +1,14 @@
+package com.dfw.furniture.inventory;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Units of one product held for a checkout until {@code expiresAt}.
+ */
+public record Reservation(UUID id, UUID productId, int quantity, String owner, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
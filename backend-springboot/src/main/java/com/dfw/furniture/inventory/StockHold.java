@@ -0,0 +1,18 @@
+package com.dfw.furniture.inventory;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock held for an order being placed: units taken off the available stock, and the
+ * reservations the order uses instead.
+ */
+public record StockHold(List<Line> taken, List<Reservation> reservations) {
+
+    /**
+     * Units of one product for an order, covered by the reservation {@code reservationId}, or
+     * to be taken off the available stock if that is null.
+     */
+    public record Line(UUID productId, int quantity, UUID reservationId) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.dfw.furniture.inventory;
+
+import java.util.UUID;
+
+public record StockStatus(UUID productId, int available, int reserved, int onHand, boolean lowStock) {
+}
@@ -0,0 +1,31 @@
+package com.dfw.furniture.metrics;
+
+import com.dfw.furniture.dto.ProductFilter;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@code filter} tag to {@code http.server.requests}: {@link ProductFilter#path()} of
+ * a product listing, {@code none} for everything else. The listing hands over its parsed
+ * filter as the {@link #FILTER_ATTRIBUTE} request attribute, so the tag always agrees with
+ * how the request was served.
+ */
+@Component
+public class ProductFilterObservationConvention extends DefaultServerRequestObservationConvention {
+
+    public static final String FILTER_ATTRIBUTE = ProductFilterObservationConvention.class.getName() + ".filter";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("filter", filter(context)));
+    }
+
+    private static String filter(ServerRequestObservationContext context) {
+        return context.getCarrier().getAttribute(FILTER_ATTRIBUTE) instanceof ProductFilter filter
+                ? filter.path()
+                : "none";
+    }
+}
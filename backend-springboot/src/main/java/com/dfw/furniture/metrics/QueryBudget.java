@@ -0,0 +1,28 @@
+package com.dfw.furniture.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request to this endpoint may run, including lazy loads while its
+ * response is serialized. Endpoints without it get {@code queries.budget.default}.
+ * <p>
+ * Exceeding the budget is logged and counted; with {@code queries.budget.fail=true} (meant for
+ * tests) the statement over budget fails the request, so a test asserting on the response
+ * catches a new N+1 select.
+ * <p>
+ * Endpoints whose statement count grows with their input, such as imports, are marked
+ * {@link #UNLIMITED}; their statements are still counted.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    int UNLIMITED = -1;
+
+    int value();
+}
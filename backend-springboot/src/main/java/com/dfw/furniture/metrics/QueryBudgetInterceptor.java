@@ -0,0 +1,36 @@
+package com.dfw.furniture.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the {@link QueryBudget} of the handling controller method (or class) to the
+ * request's {@link QueryCounter} scope.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Value("${queries.budget.default:20}")
+    private int defaultBudget;
+
+    @Value("${queries.budget.fail:false}")
+    private boolean failWhenExceeded;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+            }
+            QueryCounter.budget(budget != null ? budget.value() : defaultBudget, failWhenExceeded);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.dfw.furniture.metrics;
+
+import com.dfw.furniture.exception.QueryBudgetExceededException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}, as reported by {@link QueryCountingDataSource}, and how often each
+ * distinct statement repeats. Statements outside a started scope are not counted.
+ * <p>
+ * A scope can be given a budget with {@link #budget}; in failing mode the statement that
+ * exceeds it throws {@link QueryBudgetExceededException} instead of running.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        SCOPE.set(new Scope());
+    }
+
+    public static Scope stop() {
+        Scope scope = SCOPE.get();
+        SCOPE.remove();
+        return scope != null ? scope : new Scope();
+    }
+
+    /**
+     * Limits the current scope to {@code maxQueries} statements, counting those already run.
+     */
+    public static void budget(int maxQueries, boolean failWhenExceeded) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.budget = maxQueries;
+            scope.failWhenExceeded = failWhenExceeded;
+        }
+    }
+
+    /**
+     * Counts {@code sql} in the current scope, if there is one.
+     *
+     * @throws QueryBudgetExceededException if it exceeds a failing budget
+     */
+    public static void count(String sql) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.count++;
+            scope.statements.merge(sql, 1, Integer::sum);
+            if (scope.failWhenExceeded && scope.isOverBudget()) {
+                throw new QueryBudgetExceededException(scope.budget, sql);
+            }
+        }
+    }
+
+    public static class Scope {
+
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int count;
+        private int budget = -1;
+        private boolean failWhenExceeded;
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * The budget set for this scope, or -1 if none was.
+         */
+        public int getBudget() {
+            return budget;
+        }
+
+        public boolean isOverBudget() {
+            return budget >= 0 && count > budget;
+        }
+
+        /**
+         * Statements that ran at least {@code minRepeats} times, most repeated first - the
+         * signature of an N+1 select.
+         */
+        public List<Map.Entry<String, Integer>> repeated(int minRepeats) {
+            return statements.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minRepeats)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .toList();
+        }
+    }
+}
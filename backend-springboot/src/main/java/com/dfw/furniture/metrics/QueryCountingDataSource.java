@@ -0,0 +1,73 @@
+package com.dfw.furniture.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement execution to the {@link QueryCounter}, before it runs, whether it
+ * comes from Hibernate or from a {@code JdbcTemplate}. A batch counts once.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> counting((Statement) result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> counting((Statement) result, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> counting((Statement) result, Statement.class, null);
+                        default -> result;
+                    };
+                }
+        );
+    }
+
+    private Object counting(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        // Plain statements pass their SQL to execute*; prepared ones already have it
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                        QueryCounter.count(sql != null ? sql : "batch");
+                    }
+                    return invoke(statement, method, args);
+                }
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dfw.furniture.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the response body size and the number of SQL statements of every API request,
+ * tagged by method and route, as {@code http.server.response.bytes} and
+ * {@code http.server.requests.queries}. Logs requests that exceed their {@link QueryBudget}
+ * or repeat a statement {@code queries.duplicate-threshold} times.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${queries.duplicate-threshold:3}")
+    private int duplicateThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            QueryCounter.Scope queries = QueryCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            checkQueries(request.getMethod(), uri, queries);
+            // Streamed responses are still being written on another thread; their size is unknown here
+            if (request.isAsyncStarted()) {
+                return;
+            }
+
+            DistributionSummary.builder("http.server.response.bytes")
+                    .baseUnit("bytes")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry)
+                    .record(countingResponse.bytesWritten());
+            DistributionSummary.builder("http.server.requests.queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry)
+                    .record(queries.getCount());
+        }
+    }
+
+    private void checkQueries(String method, String uri, QueryCounter.Scope queries) {
+        List<Map.Entry<String, Integer>> repeated = queries.repeated(duplicateThreshold);
+        if (queries.isOverBudget()) {
+            Counter.builder("http.server.requests.query-budget.exceeded")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements, budget is {}; most repeated: {}",
+                    method, uri, queries.getCount(), queries.getBudget(),
+                    repeated.isEmpty() ? "none" : repeated.get(0).getValue() + "x " + repeated.get(0).getKey());
+        } else if (!repeated.isEmpty()) {
+            log.warn("{} {} ran the same SQL statement {} times, possible N+1 select: {}",
+                    method, uri, repeated.get(0).getValue(), repeated.get(0).getKey());
+        }
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+        private long bytes;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        long bytesWritten() {
+            return bytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(@NonNull byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
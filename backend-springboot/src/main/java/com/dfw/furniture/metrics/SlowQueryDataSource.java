@@ -0,0 +1,140 @@
+package com.dfw.furniture.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Logs every statement that runs longer than the threshold, with its bind parameters (each
+ * cut to {@value #MAX_PARAMETER_LENGTH} characters) unless those are switched off, and counts
+ * it in {@code db.queries.slow}.
+ */
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final long thresholdNanos;
+    private final boolean logParameters;
+    private final Counter slowQueries;
+
+    public SlowQueryDataSource(DataSource target, Duration threshold, boolean logParameters, Counter slowQueries) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.logParameters = logParameters;
+        this.slowQueries = slowQueries;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timing(super.getConnection(username, password));
+    }
+
+    private Connection timing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> timing((PreparedStatement) result, (String) args[0]);
+                        case "createStatement" -> timing((Statement) result);
+                        default -> result;
+                    };
+                }
+        );
+    }
+
+    private PreparedStatement timing(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (logParameters && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    }
+                    if (!name.startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        report(System.nanoTime() - started, sql, name.equals("executeBatch") ? null : parameters);
+                    }
+                }
+        );
+    }
+
+    private Statement timing(Statement statement) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute") || args == null || !(args[0] instanceof String sql)) {
+                        return invoke(statement, method, args);
+                    }
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        report(System.nanoTime() - started, sql, null);
+                    }
+                }
+        );
+    }
+
+    private void report(long elapsedNanos, String sql, Map<Integer, Object> parameters) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        slowQueries.increment();
+        if (parameters == null || parameters.isEmpty()) {
+            log.warn("Slow query took {} ms: {}", elapsedNanos / 1_000_000, sql);
+        } else {
+            log.warn("Slow query took {} ms: {} with parameters {}", elapsedNanos / 1_000_000, sql, format(parameters));
+        }
+    }
+
+    private static String format(Map<Integer, Object> parameters) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (Object value : parameters.values()) {
+            if (formatted.length() > 1) {
+                formatted.append(", ");
+            }
+            String text = String.valueOf(value);
+            formatted.append(text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text);
+        }
+        return formatted.append(']').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.dfw.furniture.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,6 +10,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -19,7 +21,8 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Category {
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Category implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -42,8 +45,12 @@ public class Category {
 
     private String icon;
 
+    // Serialized one level deep, the depth product queries fetch. Cached products are shared
+    // across requests by the L1 cache (see TwoLevelCache), so a deeper lazy proxy would be
+    // initialized through whichever request's session loaded it, after that session closed
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
+    @JsonIgnoreProperties({"parent", "hibernateLazyInitializer", "handler"})
     private Category parent;
 
     @Column(name = "is_active")
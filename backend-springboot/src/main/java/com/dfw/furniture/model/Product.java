@@ -1,26 +1,38 @@
 package com.dfw.furniture.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_created_id", columnList = "is_active, created_at, id"),
+        @Index(name = "idx_products_active_price_id", columnList = "is_active, price, id"),
+        @Index(name = "idx_products_active_rating_id", columnList = "is_active, average_rating, id"),
+        @Index(name = "idx_products_active_sales_id", columnList = "is_active, total_sales, id"),
+        @Index(name = "idx_products_category_active_created_id", columnList = "category_id, is_active, created_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Product {
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Product implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -90,16 +102,24 @@ public class Product {
     @Column(name = "assembly_required")
     private Boolean assemblyRequired = false;
 
-    @Column(name = "average_rating", precision = 3, scale = 2)
+    // Seek columns for cursor pages, so never null: a JSON null keeps the default
+    @Builder.Default
+    @JsonSetter(nulls = Nulls.SKIP)
+    @ColumnDefault("0")
+    @Column(name = "average_rating", nullable = false, precision = 3, scale = 2)
     private BigDecimal averageRating = BigDecimal.ZERO;
 
     @Column(name = "total_reviews")
     private Integer totalReviews = 0;
 
-    @Column(name = "total_sales")
+    // Counters are only ever incremented in SQL; saving an entity must not write back a stale copy
+    @Builder.Default
+    @JsonSetter(nulls = Nulls.SKIP)
+    @ColumnDefault("0")
+    @Column(name = "total_sales", nullable = false, updatable = false)
     private Integer totalSales = 0;
 
-    @Column(name = "views")
+    @Column(name = "views", updatable = false)
     private Integer views = 0;
 
     @Column(name = "seo_title")
@@ -109,7 +129,8 @@ public class Product {
     private String seoDescription;
 
     @CreatedDate
-    @Column(name = "created_at", updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
@@ -0,0 +1,91 @@
+package com.dfw.furniture.order;
+
+import com.dfw.furniture.dto.OrderConfirmation;
+import com.dfw.furniture.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Remembers order requests by client-supplied idempotency key, per user. The first request
+ * claims the key with SET NX; a retry either gets the original result back or, while the
+ * first attempt is still running, a conflict. Each entry carries a fingerprint of the request
+ * body so a key cannot be reused for a different order.
+ */
+@Component
+@RequiredArgsConstructor
+class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "dfw:order:idempotency:";
+    private static final String PENDING = "pending:";
+    private static final String DONE = "done:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Bounds how long a key stays locked if the node placing the order dies
+    @Value("${order.idempotency.pending-ttl:1m}")
+    private Duration pendingTtl;
+
+    @Value("${order.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    /**
+     * Claims {@code key}, or returns the stored result of the request that already claimed it.
+     */
+    Optional<OrderConfirmation> claim(UUID userId, String key, String fingerprint) {
+        String redisKey = redisKey(userId, key);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey, PENDING + fingerprint, pendingTtl))) {
+                return Optional.empty();
+            }
+            String stored = redisTemplate.opsForValue().get(redisKey);
+            if (stored == null) {
+                // Expired between the two calls
+                continue;
+            }
+            boolean pending = stored.startsWith(PENDING);
+            String rest = stored.substring(pending ? PENDING.length() : DONE.length());
+            if (!rest.startsWith(fingerprint)) {
+                throw new IdempotencyConflictException("Idempotency key was already used for a different order");
+            }
+            if (pending) {
+                throw new IdempotencyConflictException("An order with this idempotency key is still being processed");
+            }
+            try {
+                return Optional.of(objectMapper.readValue(
+                        rest.substring(fingerprint.length() + 1), OrderConfirmation.class));
+            } catch (JsonProcessingException ex) {
+                throw new RuntimeException("Stored order could not be read", ex);
+            }
+        }
+        throw new IdempotencyConflictException("An order with this idempotency key is still being processed");
+    }
+
+    void complete(UUID userId, String key, String fingerprint, OrderConfirmation confirmation) {
+        try {
+            redisTemplate.opsForValue().set(redisKey(userId, key),
+                    DONE + fingerprint + ":" + objectMapper.writeValueAsString(confirmation), ttl);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Order could not be stored", ex);
+        }
+    }
+
+    /**
+     * Frees {@code key} after a failed attempt so the client can retry with it.
+     */
+    void release(UUID userId, String key) {
+        redisTemplate.delete(redisKey(userId, key));
+    }
+
+    private static String redisKey(UUID userId, String key) {
+        return KEY_PREFIX + userId + ":" + key;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dfw.furniture.order;
+
+import com.dfw.furniture.dto.OrderConfirmation;
+import com.dfw.furniture.event.OrderPlacedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Post-commit work for a placed order, run on the async executor so the request returns as
+ * soon as the order is stored. Nothing here may change stock or the order: that all happened
+ * before the request returned, and work lost here (on a crash, say) must only cost a metric
+ * or an email.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderFulfillmentListener {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order.confirmation-email.enabled:false}")
+    private boolean emailEnabled;
+
+    @Value("${order.confirmation-email.from:orders@dfwfurniture.com}")
+    private String emailFrom;
+
+    private Counter placed;
+    private DistributionSummary amounts;
+
+    @PostConstruct
+    void registerMetrics() {
+        placed = Counter.builder("orders.placed").register(meterRegistry);
+        amounts = DistributionSummary.builder("orders.amount")
+                .baseUnit("INR")
+                .register(meterRegistry);
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        OrderConfirmation order = event.order();
+        placed.increment();
+        amounts.record(order.getTotalAmount().doubleValue());
+
+        if (emailEnabled && event.customerEmail() != null) {
+            sendConfirmation(event.customerEmail(), order);
+        }
+    }
+
+    private void sendConfirmation(String to, OrderConfirmation order) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            return;
+        }
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(emailFrom);
+        message.setTo(to);
+        message.setSubject("Your DFW Furniture order " + order.getOrderNumber());
+        StringBuilder body = new StringBuilder("Thank you for your order.\n\n");
+        for (OrderConfirmation.Line line : order.getItems()) {
+            body.append(line.getQuantity()).append(" x ").append(line.getProductName())
+                    .append(" - ").append(line.getTotalPrice()).append('\n');
+        }
+        body.append("\nTotal: ").append(order.getTotalAmount()).append('\n');
+        message.setText(body.toString());
+        try {
+            sender.send(message);
+        } catch (RuntimeException ex) {
+            log.warn("Could not send confirmation for order {}: {}", order.getOrderNumber(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.dfw.furniture.order;
+
+import com.dfw.furniture.dto.OrderConfirmation;
+import com.dfw.furniture.dto.OrderRequest;
+import com.dfw.furniture.event.OrderPlacedEvent;
+import com.dfw.furniture.inventory.InventoryService;
+import com.dfw.furniture.inventory.StockHold;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Places orders. Validation and one batched product lookup for pricing happen before the
+ * database transaction, and so does taking the stock off the Redis counters (see
+ * {@link InventoryService#hold}), so the transaction locks no product rows; it only inserts
+ * the order and its items. A line may name a stock reservation the customer holds, which then
+ * supplies its units. The units are sold (and the reservations confirmed) once the transaction
+ * commits, and given back (and the reservations restored) if it fails.
+ * Only metrics and the confirmation email run after commit (see
+ * {@link OrderFulfillmentListener}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderService {
+
+    private static final int MAX_QUANTITY = 99;
+    private static final int MAX_LINES = 100;
+    private static final DateTimeFormatter ORDER_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO orders (id, order_number, user_id, status, payment_status, subtotal, total_amount,
+                customer_email, customer_phone, customer_name, shipping_address, billing_address,
+                shipping_method, notes, order_date, created_at, updated_at)
+            VALUES (?, ?, ?, 'pending', 'pending', ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO order_items (order_id, product_id, product_name, product_sku, quantity, unit_price, total_price)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final ProductService productService;
+    private final InventoryService inventoryService;
+    private final IdempotencyStore idempotencyStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer placeTimer;
+    private Timer transactionTimer;
+    private Counter replays;
+
+    @PostConstruct
+    void registerMetrics() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        placeTimer = Timer.builder("orders.place")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        transactionTimer = Timer.builder("orders.transaction")
+                .description("Time the order insert holds its database transaction open")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        replays = Counter.builder("orders.idempotent-replays")
+                .description("Retried order requests answered from the idempotency cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Places an order for {@code user}. With an idempotency key, a retry of the same request
+     * returns the original order instead of placing a second one.
+     */
+    public OrderConfirmation placeOrder(User user, OrderRequest request, String idempotencyKey) {
+        Map<UUID, Integer> quantities = validate(request);
+        if (idempotencyKey == null) {
+            return placeTimer.record(() -> place(user, request, quantities));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 100) {
+            throw new RuntimeException("Invalid idempotency key");
+        }
+
+        String fingerprint = fingerprint(request);
+        Optional<OrderConfirmation> previous = idempotencyStore.claim(user.getId(), idempotencyKey, fingerprint);
+        if (previous.isPresent()) {
+            replays.increment();
+            return previous.get();
+        }
+        OrderConfirmation confirmation;
+        try {
+            confirmation = placeTimer.record(() -> place(user, request, quantities));
+        } catch (RuntimeException ex) {
+            // Nothing was stored, so the client may retry with the same key
+            idempotencyStore.release(user.getId(), idempotencyKey);
+            throw ex;
+        }
+        try {
+            idempotencyStore.complete(user.getId(), idempotencyKey, fingerprint, confirmation);
+        } catch (RuntimeException ex) {
+            // The order is committed. Keeping the key claimed makes retries conflict instead of
+            // placing it a second time, until the claim expires.
+            log.error("Order {} was placed but could not be recorded for idempotency key {}: {}",
+                    confirmation.getOrderNumber(), idempotencyKey, ex.getMessage());
+        }
+        return confirmation;
+    }
+
+    private OrderConfirmation place(User user, OrderRequest request, Map<UUID, Integer> quantities) {
+        // One lookup prices every line
+        List<Product> products = productService.getProductsByIds(new ArrayList<>(quantities.keySet()));
+        if (products.size() != quantities.size()
+                || products.stream().anyMatch(product -> !Boolean.TRUE.equals(product.getIsActive()))) {
+            throw new RuntimeException("Product not found");
+        }
+
+        UUID orderId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        String orderNumber = "DFW-" + now.format(ORDER_DATE) + "-"
+                + orderId.toString().substring(0, 8).toUpperCase();
+
+        List<OrderConfirmation.Line> lines = new ArrayList<>(products.size());
+        List<Object[]> itemRows = new ArrayList<>(products.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (Product product : products) {
+            int quantity = quantities.get(product.getId());
+            BigDecimal unitPrice = product.getSalePrice() != null ? product.getSalePrice() : product.getPrice();
+            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            lines.add(new OrderConfirmation.Line(product.getId(), product.getName(), quantity, unitPrice, totalPrice));
+            itemRows.add(new Object[]{
+                    orderId, product.getId(), product.getName(), product.getSku(), quantity, unitPrice, totalPrice
+            });
+            subtotal = subtotal.add(totalPrice);
+        }
+
+        OrderConfirmation confirmation = OrderConfirmation.builder()
+                .orderId(orderId)
+                .orderNumber(orderNumber)
+                .status("pending")
+                .items(lines)
+                .subtotal(subtotal)
+                .totalAmount(subtotal)
+                .orderDate(now)
+                .build();
+
+        Timestamp at = Timestamp.valueOf(now);
+        String shippingAddress = toJson(request.getShippingAddress());
+        String billingAddress = toJson(request.getBillingAddress());
+        StockHold hold = inventoryService.hold(stockLines(request), user.getEmail());
+        try {
+            transactionTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_ORDER_SQL,
+                        orderId, orderNumber, user.getId(), confirmation.getSubtotal(), confirmation.getTotalAmount(),
+                        user.getEmail(), user.getPhone(), customerName(user), shippingAddress, billingAddress,
+                        request.getShippingMethod(), request.getNotes(), at, at, at);
+                jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+                eventPublisher.publishEvent(new OrderPlacedEvent(confirmation, user.getId(), user.getEmail()));
+            }));
+        } catch (RuntimeException ex) {
+            inventoryService.abort(hold);
+            throw ex;
+        }
+        // A node dying before this keeps the units held: never sold twice, at worst not sold at all
+        inventoryService.commit(hold);
+        return confirmation;
+    }
+
+    private static Map<UUID, Integer> validate(OrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order has no items");
+        }
+        if (request.getItems().size() > MAX_LINES) {
+            throw new RuntimeException("Order has too many items");
+        }
+        // Repeated products are merged into one line
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        Set<UUID> reservations = new HashSet<>();
+        for (OrderRequest.Item item : request.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() < 1) {
+                throw new RuntimeException("Each item needs a product and a quantity of at least 1");
+            }
+            if (item.getReservationId() != null && !reservations.add(item.getReservationId())) {
+                throw new RuntimeException("A reservation can only be used once");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (quantities.values().stream().anyMatch(quantity -> quantity > MAX_QUANTITY)) {
+            throw new RuntimeException("Quantity must be at most " + MAX_QUANTITY);
+        }
+        return quantities;
+    }
+
+    // Reserved lines stay apart, each with its reservation; the others are merged per product
+    private static List<StockHold.Line> stockLines(OrderRequest request) {
+        List<StockHold.Line> lines = new ArrayList<>();
+        Map<UUID, Integer> unreserved = new LinkedHashMap<>();
+        for (OrderRequest.Item item : request.getItems()) {
+            if (item.getReservationId() != null) {
+                lines.add(new StockHold.Line(item.getProductId(), item.getQuantity(), item.getReservationId()));
+            } else {
+                unreserved.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        unreserved.forEach((productId, quantity) -> lines.add(new StockHold.Line(productId, quantity, null)));
+        return lines;
+    }
+
+    private String fingerprint(OrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Invalid address", ex);
+        }
+    }
+
+    private static String customerName(User user) {
+        String first = user.getFirstName() == null ? "" : user.getFirstName();
+        String last = user.getLastName() == null ? "" : user.getLastName();
+        return (first + " " + last).trim();
+    }
+}
@@ -0,0 +1,110 @@
+package com.dfw.furniture.ratelimit;
+
+/**
+ * In-process token buckets with no per-client objects. Each bucket is two longs in an
+ * open-addressed table: a 64-bit hash of limit and subject, and the bucket's theoretical
+ * arrival time (GCRA): the instant it would be full again. A request is let through when
+ * that instant, pushed back by one token, is at most one period ahead of now.
+ * <p>
+ * The table is split into independently locked stripes chosen by hash, so concurrent
+ * requests for different clients rarely meet. A bucket whose arrival time has passed is
+ * full and its slot is reused freely; when a probe window holds only busy buckets, the one
+ * closest to full is dropped, which at worst hands that client a fresh bucket.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private static final int PROBES = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param maxKeys total buckets kept, rounded up to a power of two
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    public LocalRateLimiter(int maxKeys, int stripes) {
+        int stripeCount = powerOfTwo(stripes);
+        int slots = powerOfTwo(Math.max(PROBES, maxKeys / stripeCount));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(slots);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public long tryAcquire(RateLimit limit, String subject) {
+        long hash = hash(limit.name(), subject);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        synchronized (stripe) {
+            return stripe.acquire(hash, System.nanoTime(), limit.intervalNanos(), limit.period().toNanos());
+        }
+    }
+
+    private static final class Stripe {
+        private final long[] keys;
+        private final long[] arrivals;
+        private final int mask;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.arrivals = new long[slots];
+            this.mask = slots - 1;
+        }
+
+        long acquire(long hash, long now, long interval, long period) {
+            int start = (int) hash & mask;
+            int slot = -1;
+            int free = -1;
+            int fullest = start;
+            for (int i = 0; i < PROBES; i++) {
+                int index = (start + i) & mask;
+                if (keys[index] == hash) {
+                    slot = index;
+                    break;
+                }
+                if (free < 0 && (keys[index] == 0 || arrivals[index] - now <= 0)) {
+                    free = index;
+                }
+                if (arrivals[index] - arrivals[fullest] < 0) {
+                    fullest = index;
+                }
+            }
+
+            long arrival = slot >= 0 && arrivals[slot] - now > 0 ? arrivals[slot] : now;
+            long next = arrival + interval;
+            long wait = next - now - period;
+            if (wait > 0) {
+                return wait;
+            }
+            if (slot < 0) {
+                slot = free >= 0 ? free : fullest;
+                keys[slot] = hash;
+            }
+            arrivals[slot] = next;
+            return 0;
+        }
+    }
+
+    // FNV-1a over both strings, then a murmur3 finalizer; 0 marks an empty slot
+    private static long hash(String name, String subject) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '|') * 0x100000001b3L;
+        for (int i = 0; i < subject.length(); i++) {
+            hash = (hash ^ subject.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
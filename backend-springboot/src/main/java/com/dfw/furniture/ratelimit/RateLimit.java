@@ -0,0 +1,24 @@
+package com.dfw.furniture.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A token bucket: up to {@code capacity} requests at once, refilled continuously so the
+ * whole bucket is back after {@code period}. {@code name} scopes the keys, so the same
+ * client has separate buckets per limit.
+ */
+public record RateLimit(String name, int capacity, Duration period) {
+
+    public RateLimit {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+    }
+
+    /**
+     * Time for one token to come back.
+     */
+    public long intervalNanos() {
+        return period.toNanos() / capacity;
+    }
+}
@@ -0,0 +1,99 @@
+package com.dfw.furniture.ratelimit;
+
+import com.dfw.furniture.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the first matching {@link RateLimitRule} in the security chain, after JWT
+ * authentication so signed-in users can be limited per user as well as per address.
+ * Refused requests never reach the controller; they are answered through the regular
+ * exception handling, as 429 with {@code Retry-After}, and counted in
+ * {@code http.server.requests.throttled}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<RateLimitRule> rules;
+    private final RateLimiter rateLimiter;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Map<String, Counter> throttled = new HashMap<>();
+
+    public RateLimitFilter(List<RateLimitRule> rules, RateLimiter rateLimiter,
+                           HandlerExceptionResolver exceptionResolver, MeterRegistry meterRegistry) {
+        this.rules = rules;
+        this.rateLimiter = rateLimiter;
+        this.exceptionResolver = exceptionResolver;
+        for (RateLimitRule rule : rules) {
+            for (String key : rule.perUser() != null ? List.of("ip", "user") : List.of("ip")) {
+                throttled.put(rule.route() + ":" + key, Counter.builder("http.server.requests.throttled")
+                        .tag("route", rule.route())
+                        .tag("key", key)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RateLimitRule rule = match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean user = rule.perUser() != null && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        // The user's bucket first: once it is empty, refusals stop spending the tokens of
+        // everyone else behind the same address
+        if (user && refused(rule, "user", rateLimiter.tryAcquire(rule.perUser(), authentication.getName()),
+                request, response)) {
+            return;
+        }
+        if (refused(rule, "ip", rateLimiter.tryAcquire(rule.perIp(), request.getRemoteAddr()), request, response)) {
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean refused(RateLimitRule rule, String key, long waitNanos,
+                            HttpServletRequest request, HttpServletResponse response) {
+        if (waitNanos <= 0) {
+            return false;
+        }
+        throttled.get(rule.route() + ":" + key).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        exceptionResolver.resolveException(request, response, null,
+                new TooManyRequestsException("Too many requests, please retry later", retryAfter));
+        return true;
+    }
+
+    private RateLimitRule match(HttpServletRequest request) {
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(request)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
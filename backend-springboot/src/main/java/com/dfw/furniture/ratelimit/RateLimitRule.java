@@ -0,0 +1,21 @@
+package com.dfw.furniture.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.function.Predicate;
+
+/**
+ * Limits for one route: {@code perIp} for every request, keyed by client address, and
+ * {@code perUser} on top of it once the request is authenticated, keyed by user. A request
+ * must get a token from each bucket that applies.
+ */
+public record RateLimitRule(String route, Predicate<HttpServletRequest> matcher, RateLimit perIp, RateLimit perUser) {
+
+    public RateLimitRule(String route, Predicate<HttpServletRequest> matcher, RateLimit perIp) {
+        this(route, matcher, perIp, null);
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        return matcher.test(request);
+    }
+}
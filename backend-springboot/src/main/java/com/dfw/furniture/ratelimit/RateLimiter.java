@@ -0,0 +1,12 @@
+package com.dfw.furniture.ratelimit;
+
+public interface RateLimiter {
+
+    /**
+     * Takes one token from {@code subject}'s bucket for {@code limit}.
+     *
+     * @return 0 if the request may proceed, otherwise how long (in nanoseconds) until a
+     * token is available; a refused request takes nothing
+     */
+    long tryAcquire(RateLimit limit, String subject);
+}
@@ -0,0 +1,66 @@
+package com.dfw.furniture.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Cluster-wide buckets: the same arrival-time algorithm as {@link LocalRateLimiter}, run as
+ * one Lua script per request against a single Redis key that expires once the bucket is
+ * full again. Time comes from the Redis server, so node clocks do not matter. If Redis
+ * cannot be reached the request is decided by the local limiter instead, so limits degrade
+ * to per node rather than disappearing or failing requests.
+ */
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    // KEYS[1] bucket; ARGV[1] interval, ARGV[2] period, both in microseconds.
+    // Returns 0 when allowed, otherwise the wait in microseconds.
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local arrival = tonumber(redis.call('GET', KEYS[1]) or 0)
+            if arrival < now then arrival = now end
+            local next = arrival + interval
+            local wait = next - now - period
+            if wait > 0 then return wait end
+            redis.call('SET', KEYS[1], next, 'PX', math.ceil((next - now) / 1000))
+            return 0""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final RateLimiter fallback;
+    private final Counter fallbacks;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, String keyPrefix, RateLimiter fallback,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.fallback = fallback;
+        this.fallbacks = Counter.builder("ratelimit.redis.fallbacks")
+                .description("Decisions taken by the local limiter because Redis failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(RateLimit limit, String subject) {
+        try {
+            Long waitMicros = redisTemplate.execute(ACQUIRE,
+                    List.of(keyPrefix + limit.name() + ":" + subject),
+                    String.valueOf(limit.intervalNanos() / 1000),
+                    String.valueOf(limit.period().toNanos() / 1000));
+            return waitMicros == null ? 0 : waitMicros * 1000;
+        } catch (RuntimeException ex) {
+            fallbacks.increment();
+            log.debug("Rate limit check in Redis failed, deciding locally: {}", ex.getMessage());
+            return fallback.tryAcquire(limit, subject);
+        }
+    }
+}
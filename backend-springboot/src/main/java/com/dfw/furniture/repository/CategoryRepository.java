@@ -4,6 +4,7 @@ import com.dfw.furniture.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +12,7 @@ import java.util.UUID;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     Optional<Category> findBySlug(String slug);
+    List<Category> findBySlugIn(Collection<String> slugs);
     List<Category> findByIsActiveTrueOrderBySortOrder();
     List<Category> findByParentIdAndIsActiveTrue(UUID parentId);
 }
@@ -0,0 +1,89 @@
+package com.dfw.furniture.repository;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fields a client may request with {@code fields=}. Each one maps to a JPQL path, so only
+ * the requested columns are selected, and to a getter, for products already in memory.
+ */
+public final class ProductFields {
+
+    public static final String ID = "id";
+
+    private record Field(String path, Function<Product, Object> getter) {
+    }
+
+    private static final Map<String, Field> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put(ID, new Field("p.id", Product::getId));
+        FIELDS.put("name", new Field("p.name", Product::getName));
+        FIELDS.put("slug", new Field("p.slug", Product::getSlug));
+        FIELDS.put("sku", new Field("p.sku", Product::getSku));
+        FIELDS.put("shortDescription", new Field("p.shortDescription", Product::getShortDescription));
+        FIELDS.put("price", new Field("p.price", Product::getPrice));
+        FIELDS.put("salePrice", new Field("p.salePrice", Product::getSalePrice));
+        FIELDS.put("stockQuantity", new Field("p.stockQuantity", Product::getStockQuantity));
+        FIELDS.put("brand", new Field("p.brand", Product::getBrand));
+        FIELDS.put("material", new Field("p.material", Product::getMaterial));
+        FIELDS.put("color", new Field("p.color", Product::getColor));
+        FIELDS.put("isFeatured", new Field("p.isFeatured", Product::getIsFeatured));
+        FIELDS.put("isCustomizable", new Field("p.isCustomizable", Product::getIsCustomizable));
+        FIELDS.put("averageRating", new Field("p.averageRating", Product::getAverageRating));
+        FIELDS.put("totalReviews", new Field("p.totalReviews", Product::getTotalReviews));
+        FIELDS.put("totalSales", new Field("p.totalSales", Product::getTotalSales));
+        FIELDS.put("createdAt", new Field("p.createdAt", Product::getCreatedAt));
+        FIELDS.put("categoryName", new Field("c.name", product -> categoryOf(product, Category::getName)));
+        FIELDS.put("categorySlug", new Field("c.slug", product -> categoryOf(product, Category::getSlug)));
+    }
+
+    private ProductFields() {
+    }
+
+    /**
+     * Validates the requested field names and returns them de-duplicated with {@code id} first.
+     */
+    public static List<String> resolve(List<String> requested) {
+        List<String> fields = new ArrayList<>();
+        fields.add(ID);
+        for (String name : requested) {
+            String field = name.trim();
+            if (field.isEmpty() || fields.contains(field)) {
+                continue;
+            }
+            if (!FIELDS.containsKey(field)) {
+                throw new RuntimeException("Unknown product field: " + field);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    static String path(String field) {
+        return FIELDS.get(field).path();
+    }
+
+    static boolean needsCategory(List<String> fields) {
+        return fields.stream().anyMatch(field -> FIELDS.get(field).path().startsWith("c."));
+    }
+
+    public static Map<String, Object> extract(Product product, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, FIELDS.get(field).getter().apply(product));
+        }
+        return values;
+    }
+
+    private static Object categoryOf(Product product, Function<Category, Object> getter) {
+        Category category = product.getCategory();
+        return category != null ? getter.apply(category) : null;
+    }
+}
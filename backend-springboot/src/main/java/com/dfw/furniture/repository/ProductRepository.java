@@ -1,25 +1,64 @@
 package com.dfw.furniture.repository;
 
+import com.dfw.furniture.dto.ProductSummary;
+import com.dfw.furniture.dto.ProductVersion;
 import com.dfw.furniture.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+    // Read paths fetch category (and its parent) eagerly so results are fully materialized
+    // before they are cached or serialized outside the session
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Optional<Product> findById(UUID id);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     Optional<Product> findBySlug(String slug);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     Page<Product> findByIsActiveTrue(Pageable pageable);
-    Page<Product> findByCategoryIdAndIsActiveTrue(UUID categoryId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Page<Product> findByCategoryIdInAndIsActiveTrue(Collection<UUID> categoryIds, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     List<Product> findByIsFeaturedTrueAndIsActiveTrue();
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    List<Product> findByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT new com.dfw.furniture.dto.ProductSummary(p.id, p.name, p.slug, p.shortDescription, " +
+           "p.price, p.salePrice, p.brand, p.material, p.color, p.stockQuantity, p.averageRating, " +
+           "p.totalReviews, p.isFeatured, c.name, c.slug) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
     
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR p.price <= :maxPrice)")
@@ -29,7 +68,40 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
             Pageable pageable
     );
     
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Product> searchProducts(@Param("search") String search, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c LEFT JOIN FETCH c.parent " +
+           "WHERE p.isActive = true")
+    List<Product> findAllActiveWithCategory();
+
+    // Cursor over the catalog for exports: rows are fetched from the server in chunks and
+    // loaded read-only. Must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c " +
+           "WHERE (:includeInactive = true OR p.isActive = true) " +
+           "AND (:categoryId IS NULL OR c.id = :categoryId)")
+    Stream<Product> streamForExport(@Param("categoryId") UUID categoryId, @Param("includeInactive") boolean includeInactive);
+
+    long countByIsActiveTrue();
+
+    long countByCategoryIdInAndIsActiveTrue(Collection<UUID> categoryIds);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c LEFT JOIN FETCH c.parent " +
+           "WHERE p.id = :id")
+    Optional<Product> findWithCategoryById(@Param("id") UUID id);
+
+    @Query("SELECT new com.dfw.furniture.dto.ProductVersion(p.id, p.updatedAt, c.updatedAt, pc.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN c.parent pc WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new com.dfw.furniture.dto.ProductVersion(p.id, p.updatedAt, c.updatedAt, pc.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN c.parent pc WHERE p.slug = :slug")
+    Optional<ProductVersion> findVersionBySlug(@Param("slug") String slug);
 }
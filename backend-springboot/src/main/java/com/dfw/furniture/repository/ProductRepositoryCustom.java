@@ -0,0 +1,32 @@
+package com.dfw.furniture.repository;
+
+import com.dfw.furniture.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page of active products ordered by {@code sortBy} then id, starting strictly after
+     * ({@code lastValue}, {@code lastId}) - or from the beginning when {@code lastId} is null.
+     * {@code categoryIds} restricts to those categories, or is null for all.
+     * Runs a single seek query and no COUNT.
+     */
+    List<Product> findPageAfter(
+            String sortBy,
+            boolean ascending,
+            Object lastValue,
+            UUID lastId,
+            Collection<UUID> categoryIds,
+            int limit
+    );
+
+    /**
+     * Selects only {@code fields} (as resolved by {@link ProductFields#resolve}) for the given
+     * products, in no particular order. The category is joined only if a category field is asked for.
+     */
+    List<Map<String, Object>> findFieldsByIdIn(Collection<UUID> ids, List<String> fields);
+}
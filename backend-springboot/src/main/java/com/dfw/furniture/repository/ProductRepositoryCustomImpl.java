@@ -0,0 +1,108 @@
+package com.dfw.furniture.repository;
+
+import com.dfw.furniture.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Seek columns; each has a matching (is_active, column, id) index on products. All are
+    // NOT NULL: a NULL would match neither bound and drop out of every page
+    private static final Map<String, String> SEEK_COLUMNS = Map.of(
+            "createdAt", "p.createdAt",
+            "price", "p.price",
+            "averageRating", "p.averageRating",
+            "totalSales", "p.totalSales"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static boolean supportsSort(String sortBy) {
+        return SEEK_COLUMNS.containsKey(sortBy);
+    }
+
+    @Override
+    public List<Product> findPageAfter(
+            String sortBy,
+            boolean ascending,
+            Object lastValue,
+            UUID lastId,
+            Collection<UUID> categoryIds,
+            int limit
+    ) {
+        String column = SEEK_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sortBy);
+        }
+        String comparison = ascending ? ">" : "<";
+        String direction = ascending ? "ASC" : "DESC";
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT p FROM Product p LEFT JOIN FETCH p.category c LEFT JOIN FETCH c.parent " +
+                "WHERE p.isActive = true");
+        if (categoryIds != null) {
+            jpql.append(" AND p.category.id IN :categoryIds");
+        }
+        if (lastId != null) {
+            // The leading single-column bound is what lets the planner seek into the
+            // (is_active, column, id) index; the OR alone is not sargable
+            String bound = ascending ? ">=" : "<=";
+            jpql.append(" AND ").append(column).append(' ').append(bound).append(" :lastValue")
+                .append(" AND (").append(column).append(' ').append(comparison).append(" :lastValue")
+                .append(" OR (").append(column).append(" = :lastValue AND p.id ")
+                .append(comparison).append(" :lastId))");
+        }
+        jpql.append(" ORDER BY ").append(column).append(' ').append(direction)
+            .append(", p.id ").append(direction);
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class);
+        if (categoryIds != null) {
+            query.setParameter("categoryIds", categoryIds);
+        }
+        if (lastId != null) {
+            query.setParameter("lastValue", lastValue);
+            query.setParameter("lastId", lastId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdIn(Collection<UUID> ids, List<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < fields.size(); i++) {
+            jpql.append(i > 0 ? ", " : "").append(ProductFields.path(fields.get(i)));
+        }
+        jpql.append(" FROM Product p");
+        if (ProductFields.needsCategory(fields)) {
+            jpql.append(" LEFT JOIN p.category c");
+        }
+        jpql.append(" WHERE p.id IN :ids");
+
+        List<?> rows = entityManager.createQuery(jpql.toString())
+                .setParameter("ids", ids)
+                .getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            // A single selected column comes back as the value itself
+            Object[] columns = row instanceof Object[] array ? array : new Object[]{row};
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(fields.get(i), columns[i]);
+            }
+            result.add(values);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfw.furniture.repository;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.model.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Criteria for listings that combine several filters. Matches the facet index: values within
+ * one attribute are OR-ed, compared trimmed and case-insensitively, and attributes are AND-ed.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Active products matching every filter in {@code filter}; {@code categoryIds} is the
+     * selected category with all its subcategories, or null for any category.
+     */
+    public static Specification<Product> matching(ProductFilter filter, Collection<UUID> categoryIds) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("isActive")));
+            if (filter.hasSearch()) {
+                predicates.add(cb.like(cb.lower(root.get("name")),
+                        "%" + escape(filter.getSearch().toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+            if (categoryIds != null) {
+                predicates.add(root.get("category").get("id").in(categoryIds));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            anyOf(cb, root.get("brand"), filter.getBrands(), predicates);
+            anyOf(cb, root.get("material"), filter.getMaterials(), predicates);
+            anyOf(cb, root.get("color"), filter.getColors(), predicates);
+            if (filter.getFeatured() != null) {
+                predicates.add(cb.equal(root.get("isFeatured"), filter.getFeatured()));
+            }
+            if (filter.getCustomizable() != null) {
+                predicates.add(cb.equal(root.get("isCustomizable"), filter.getCustomizable()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static void anyOf(CriteriaBuilder cb, Expression<String> column, List<String> values,
+                              List<Predicate> predicates) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        List<String> normalized = values.stream().map(value -> value.trim().toLowerCase(Locale.ROOT)).toList();
+        predicates.add(cb.lower(cb.trim(column)).in(normalized));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
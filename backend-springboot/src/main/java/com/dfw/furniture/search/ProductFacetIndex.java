@@ -0,0 +1,351 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.model.Product;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap per facet value (category, brand, material, color, featured,
+ * customizable, price bucket) over the active catalog. A query ORs the selected values within
+ * a facet, ANDs across facets, and counts every facet value against the other facets'
+ * selections - so selecting a brand still shows how many products every other brand has.
+ *
+ * <p>Each product keeps its internal doc id across updates; ids of removed products are reused.
+ */
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String MATERIAL = "material";
+    public static final String COLOR = "color";
+    public static final String FEATURED = "featured";
+    public static final String CUSTOMIZABLE = "customizable";
+    public static final String PRICE = "price";
+
+    private static final Set<String> SORTABLE = Set.of("createdAt", "price", "averageRating", "totalSales", "name");
+
+    private final long[] priceBucketBounds;
+    private final String[] priceBucketLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+    private final Map<String, Map<String, String>> labels = new HashMap<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    public ProductFacetIndex(List<BigDecimal> priceBucketBounds) {
+        List<BigDecimal> bounds = priceBucketBounds.stream().sorted().toList();
+        this.priceBucketBounds = bounds.stream().mapToLong(ProductFacetIndex::toMinorUnits).toArray();
+        this.priceBucketLabels = new String[bounds.size() + 1];
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < bounds.size(); i++) {
+            priceBucketLabels[i] = lower.toPlainString() + "-" + bounds.get(i).toPlainString();
+            lower = bounds.get(i);
+        }
+        priceBucketLabels[bounds.size()] = lower.toPlainString() + "+";
+    }
+
+    public static boolean supportsSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces {@code product}. Inactive products are removed.
+     */
+    public void index(Product product) {
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            remove(product.getId());
+            return;
+        }
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> valueLabels = new HashMap<>();
+        putValue(values, valueLabels, CATEGORY, product.getCategory() == null ? null : product.getCategory().getId().toString());
+        putValue(values, valueLabels, BRAND, product.getBrand());
+        putValue(values, valueLabels, MATERIAL, product.getMaterial());
+        putValue(values, valueLabels, COLOR, product.getColor());
+        putValue(values, valueLabels, FEATURED, String.valueOf(Boolean.TRUE.equals(product.getIsFeatured())));
+        putValue(values, valueLabels, CUSTOMIZABLE, String.valueOf(Boolean.TRUE.equals(product.getIsCustomizable())));
+        long price = toMinorUnits(product.getPrice());
+        putValue(values, valueLabels, PRICE, priceBucketLabels[priceBucket(price)]);
+
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.get(product.getId());
+            if (docId != null) {
+                unindex(docId);
+            } else {
+                docId = freeDocIds.isEmpty() ? docs.size() : freeDocIds.pop();
+                docIds.put(product.getId(), docId);
+            }
+            Doc doc = new Doc(
+                    product.getId(),
+                    values,
+                    price,
+                    product.getCreatedAt() == null ? 0 : product.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    product.getAverageRating() == null ? 0 : toMinorUnits(product.getAverageRating()),
+                    product.getTotalSales() == null ? 0 : product.getTotalSales(),
+                    product.getName()
+            );
+            if (docId == docs.size()) {
+                docs.add(doc);
+            } else {
+                docs.set(docId, doc);
+            }
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                bitmaps.computeIfAbsent(value.getKey(), facet -> new HashMap<>())
+                        .computeIfAbsent(value.getValue(), key -> new RoaringBitmap())
+                        .add(docId);
+                labels.computeIfAbsent(value.getKey(), facet -> new HashMap<>())
+                        .putIfAbsent(value.getValue(), valueLabels.get(value.getKey()));
+            }
+            live.add(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(productId);
+            if (docId != null) {
+                unindex(docId);
+                docs.set(docId, null);
+                freeDocIds.push(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param selections      facet -> selected values (any case); values within a facet are ORed
+     * @param rankedCandidates if not null, only these products are eligible, and with an unsorted
+     *                         {@code sort} results keep this order (e.g. search relevance)
+     */
+    public FacetResult query(
+            Map<String, Set<String>> selections,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            List<UUID> rankedCandidates,
+            Sort sort,
+            long offset,
+            int limit
+    ) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = live.clone();
+            if (rankedCandidates != null) {
+                RoaringBitmap candidates = new RoaringBitmap();
+                for (UUID id : rankedCandidates) {
+                    Integer docId = docIds.get(id);
+                    if (docId != null) {
+                        candidates.add(docId);
+                    }
+                }
+                base.and(candidates);
+            }
+
+            Map<String, RoaringBitmap> filters = new LinkedHashMap<>();
+            selections.forEach((facet, selected) -> {
+                if (selected != null && !selected.isEmpty()) {
+                    filters.put(facet, union(facet, selected));
+                }
+            });
+            if (minPrice != null || maxPrice != null) {
+                filters.put(PRICE, priceRange(base, minPrice, maxPrice));
+            }
+
+            RoaringBitmap matches = base.clone();
+            filters.values().forEach(matches::and);
+
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (String facet : List.of(CATEGORY, BRAND, MATERIAL, COLOR, FEATURED, CUSTOMIZABLE, PRICE)) {
+                RoaringBitmap others = base.clone();
+                filters.forEach((filtered, bitmap) -> {
+                    if (!filtered.equals(facet)) {
+                        others.and(bitmap);
+                    }
+                });
+                counts.put(facet, count(facet, others));
+            }
+
+            List<UUID> pageIds = rankedCandidates != null && sort.isUnsorted()
+                    ? pageInRankOrder(matches, rankedCandidates, offset, limit)
+                    : pageSorted(matches, sort.isUnsorted() ? Sort.by("createdAt").descending() : sort, offset, limit);
+            return new FacetResult(pageIds, matches.getLongCardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap union(String facet, Set<String> selected) {
+        Map<String, RoaringBitmap> values = bitmaps.getOrDefault(facet, Map.of());
+        RoaringBitmap union = new RoaringBitmap();
+        for (String value : selected) {
+            RoaringBitmap bitmap = values.get(normalize(value));
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private RoaringBitmap priceRange(RoaringBitmap base, BigDecimal minPrice, BigDecimal maxPrice) {
+        long min = minPrice == null ? Long.MIN_VALUE : toMinorUnits(minPrice);
+        long max = maxPrice == null ? Long.MAX_VALUE : toMinorUnits(maxPrice);
+        RoaringBitmap inRange = new RoaringBitmap();
+        base.forEach((int docId) -> {
+            long price = docs.get(docId).price();
+            if (price >= min && price <= max) {
+                inRange.add(docId);
+            }
+        });
+        return inRange;
+    }
+
+    private Map<String, Long> count(String facet, RoaringBitmap restrictedTo) {
+        Map<String, Long> counts = new TreeMap<>();
+        Map<String, String> facetLabels = labels.getOrDefault(facet, Map.of());
+        bitmaps.getOrDefault(facet, Map.of()).forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(restrictedTo, bitmap);
+            if (count > 0) {
+                counts.put(facetLabels.getOrDefault(value, value), count);
+            }
+        });
+        return counts;
+    }
+
+    private List<UUID> pageInRankOrder(RoaringBitmap matches, List<UUID> rankedCandidates, long offset, int limit) {
+        List<UUID> page = new ArrayList<>(limit);
+        long skipped = 0;
+        for (UUID id : rankedCandidates) {
+            Integer docId = docIds.get(id);
+            if (docId == null || !matches.contains(docId)) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            page.add(id);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private List<UUID> pageSorted(RoaringBitmap matches, Sort sort, long offset, int limit) {
+        Comparator<Integer> order = comparator(sort);
+        long wanted = Math.min(offset + limit, matches.getLongCardinality());
+        if (wanted <= 0) {
+            return List.of();
+        }
+        // Bounded heap keeps the first `wanted` results in O(n log k) instead of sorting every match
+        PriorityQueue<Integer> top = new PriorityQueue<>((int) wanted, order.reversed());
+        matches.forEach((int docId) -> {
+            if (top.size() < wanted) {
+                top.add(docId);
+            } else if (order.compare(docId, top.peek()) < 0) {
+                top.poll();
+                top.add(docId);
+            }
+        });
+        List<Integer> sorted = new ArrayList<>(top);
+        sorted.sort(order);
+        List<UUID> page = new ArrayList<>(limit);
+        for (int i = (int) Math.min(offset, sorted.size()); i < sorted.size(); i++) {
+            page.add(docs.get(sorted.get(i)).productId());
+        }
+        return page;
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Doc> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Doc> byField = switch (order.getProperty()) {
+                case "price" -> Comparator.comparingLong(Doc::price);
+                case "createdAt" -> Comparator.comparingLong(Doc::createdAt);
+                case "averageRating" -> Comparator.comparingLong(Doc::rating);
+                case "totalSales" -> Comparator.comparingInt(Doc::sales);
+                case "name" -> Comparator.comparing(Doc::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                default -> throw new IllegalArgumentException("Unsupported sort: " + order.getProperty());
+            };
+            byField = order.isAscending() ? byField : byField.reversed();
+            comparator = comparator == null ? byField : comparator.thenComparing(byField);
+        }
+        Comparator<Doc> byProductId = Comparator.comparing(Doc::productId);
+        Comparator<Doc> total = comparator == null ? byProductId : comparator.thenComparing(byProductId);
+        return (a, b) -> total.compare(docs.get(a), docs.get(b));
+    }
+
+    private void unindex(int docId) {
+        Doc doc = docs.get(docId);
+        if (doc == null) {
+            return;
+        }
+        doc.values().forEach((facet, value) -> {
+            Map<String, RoaringBitmap> values = bitmaps.get(facet);
+            RoaringBitmap bitmap = values.get(value);
+            bitmap.remove(docId);
+            if (bitmap.isEmpty()) {
+                values.remove(value);
+                labels.get(facet).remove(value);
+            }
+        });
+        live.remove(docId);
+    }
+
+    private int priceBucket(long price) {
+        int bucket = 0;
+        while (bucket < priceBucketBounds.length && price >= priceBucketBounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static void putValue(Map<String, String> values, Map<String, String> valueLabels, String facet, String value) {
+        if (value != null && !value.isBlank()) {
+            values.put(facet, normalize(value));
+            valueLabels.put(facet, value.trim());
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private record Doc(
+            UUID productId,
+            Map<String, String> values,
+            long price,
+            long createdAt,
+            long rating,
+            int sales,
+            String name
+    ) {
+    }
+
+    public record FacetResult(List<UUID> pageIds, long total, Map<String, Map<String, Long>> facets) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.repository.ProductRepository;
+import com.dfw.furniture.service.CategoryTreeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a {@link ProductFacetIndex} in sync with the catalog and answers combined filter
+ * queries against it. Rebuilds follow {@link ProductSearchService}: products changed while
+ * the catalog is loading are indexed again once the new index is in place.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetService {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchService productSearchService;
+    private final CategoryTreeService categoryTreeService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.facets.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.facets.price-buckets:10000,25000,50000,100000}")
+    private List<BigDecimal> priceBuckets;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Object changesLock = new Object();
+    private volatile ProductFacetIndex index;
+    // Guarded by changesLock; non-null while a rebuild is loading the catalog
+    private Set<UUID> changedDuringRebuild;
+    private Timer queryTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.facets.size", this, service -> service.index == null ? 0 : service.index.size())
+                .description("Products in the facet index")
+                .register(meterRegistry);
+        queryTimer = Timer.builder("search.facets.query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            synchronized (changesLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            ProductFacetIndex rebuilt = new ProductFacetIndex(priceBuckets);
+            productRepository.findAllActiveWithCategory().forEach(rebuilt::index);
+            Set<UUID> changed;
+            synchronized (changesLock) {
+                index = rebuilt;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            }
+            changed.forEach(productId -> refresh(rebuilt, productId));
+            log.info("Facet index built with {} products in {} ms",
+                    rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Order(CatalogListenerOrder.DERIVED_VIEWS)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isCatalogWide()) {
+            if (index != null) {
+                rebuild();
+            }
+            return;
+        }
+        ProductFacetIndex current;
+        synchronized (changesLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.productId());
+            }
+            current = index;
+        }
+        if (current != null) {
+            refresh(current, event.productId());
+        }
+    }
+
+    private void refresh(ProductFacetIndex target, UUID productId) {
+        productRepository.findWithCategoryById(productId)
+                .ifPresentOrElse(target::index, () -> target.remove(productId));
+    }
+
+    /**
+     * Runs {@code filter} against the facet index, or returns empty if the index (or, for a
+     * search, the search index) is not available.
+     */
+    public Optional<ProductFacetIndex.FacetResult> query(ProductFilter filter, Pageable pageable) {
+        ProductFacetIndex current = index;
+        if (!enabled || current == null || !ProductFacetIndex.supportsSort(pageable.getSort())) {
+            return Optional.empty();
+        }
+        List<UUID> rankedCandidates = null;
+        if (filter.hasSearch()) {
+            Optional<List<UUID>> ranked = productSearchService.search(filter.getSearch(), Pageable.unpaged());
+            if (ranked.isEmpty()) {
+                return Optional.empty();
+            }
+            rankedCandidates = ranked.get();
+        }
+
+        Map<String, Set<String>> selections = new HashMap<>();
+        if (filter.getCategory() != null) {
+            // Values within a facet are OR-ed, so this matches the category and all its subcategories
+            Set<String> categoryIds = new HashSet<>();
+            categoryTreeService.getDescendantIds(filter.getCategory()).forEach(id -> categoryIds.add(id.toString()));
+            selections.put(ProductFacetIndex.CATEGORY, categoryIds);
+        }
+        selections.put(ProductFacetIndex.BRAND, toSet(filter.getBrands()));
+        selections.put(ProductFacetIndex.MATERIAL, toSet(filter.getMaterials()));
+        selections.put(ProductFacetIndex.COLOR, toSet(filter.getColors()));
+        if (filter.getFeatured() != null) {
+            selections.put(ProductFacetIndex.FEATURED, Set.of(filter.getFeatured().toString()));
+        }
+        if (filter.getCustomizable() != null) {
+            selections.put(ProductFacetIndex.CUSTOMIZABLE, Set.of(filter.getCustomizable().toString()));
+        }
+
+        List<UUID> candidates = rankedCandidates;
+        return Optional.of(queryTimer.record(() -> current.query(
+                selections,
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                candidates,
+                pageable.getSort(),
+                pageable.getOffset(),
+                pageable.getPageSize()
+        )));
+    }
+
+    private static Set<String> toSet(List<String> values) {
+        return values == null ? Set.of() : new HashSet<>(values);
+    }
+}
@@ -0,0 +1,477 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.model.Product;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, brand, material, color, descriptions and
+ * category name. Ranking is BM25 over field-weighted term frequencies, multiplied by a
+ * popularity boost from sales and rating. Query terms are matched exactly, then by typo
+ * (Damerau-Levenshtein distance 1, or 2 for long terms), and the last term also by prefix
+ * so results update while the shopper is still typing. Typo candidates come from a bigram
+ * index over the vocabulary, so only terms sharing most of the query term's bigrams are
+ * compared.
+ *
+ * <p>Documents get a new internal id on every update; replaced ids are tombstoned. Once
+ * they make up a quarter of the index, the live documents are renumbered from zero and the
+ * posting lists rewritten, so the index stays as large as the live catalog.
+ */
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float ATTRIBUTE_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float FUZZY_PENALTY = 0.6f;
+    private static final float PREFIX_PENALTY = 0.8f;
+    private static final int MAX_EXPANSIONS = 20;
+
+    private static final Set<String> SORTABLE = Set.of("createdAt", "price", "averageRating", "totalSales", "name");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final NavigableSet<String> vocabulary = new TreeSet<>();
+    private final Map<String, Set<String>> termsByBigram = new HashMap<>();
+    private List<Doc> docs = new ArrayList<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private long totalLength;
+    private int deletedDocs;
+
+    public static boolean supportsSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Live and tombstoned documents; what a query allocates its per-document arrays for
+    int slots() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces {@code product}. Inactive products are removed.
+     */
+    public void index(Product product) {
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            remove(product.getId());
+            return;
+        }
+        Map<String, Float> termWeights = new HashMap<>();
+        int length = 0;
+        length += addField(termWeights, product.getName(), NAME_WEIGHT);
+        length += addField(termWeights, product.getBrand(), BRAND_WEIGHT);
+        length += addField(termWeights, product.getMaterial(), ATTRIBUTE_WEIGHT);
+        length += addField(termWeights, product.getColor(), ATTRIBUTE_WEIGHT);
+        if (product.getCategory() != null) {
+            length += addField(termWeights, product.getCategory().getName(), ATTRIBUTE_WEIGHT);
+        }
+        length += addField(termWeights, product.getShortDescription(), DESCRIPTION_WEIGHT);
+        length += addField(termWeights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        Doc doc = new Doc(
+                product.getId(),
+                Math.max(length, 1),
+                popularityBoost(product),
+                product.getPrice(),
+                product.getCreatedAt(),
+                product.getAverageRating(),
+                product.getTotalSales() == null ? 0 : product.getTotalSales(),
+                product.getName()
+        );
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            int docId = docs.size();
+            docs.add(doc);
+            docIds.put(product.getId(), docId);
+            totalLength += doc.length();
+            termWeights.forEach((term, weight) -> {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    list = new PostingList();
+                    postings.put(term, list);
+                    addToVocabulary(term);
+                }
+                list.add(docId, weight);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of matching products, best match first - or ordered by {@code sort} when
+     * it is not {@link Sort#unsorted()}. Every query term must match; if that finds nothing
+     * for a multi-term query, products matching any term are returned instead.
+     */
+    public List<UUID> search(String query, Sort sort) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String prefix = trailingToken(query);
+        String prefixTerm = prefix == null ? null : TextAnalyzer.stem(prefix);
+
+        lock.readLock().lock();
+        try {
+            int maxDoc = docs.size();
+            float[] scores = new float[maxDoc];
+            int[] matchedTerms = new int[maxDoc];
+            float[] best = new float[maxDoc];
+            int[] touched = new int[maxDoc];
+            float avgLength = docIds.isEmpty() ? 1 : (float) totalLength / docIds.size();
+
+            for (String term : terms) {
+                Map<String, Float> expansions = expand(term, term.equals(prefixTerm) ? prefix : null);
+                int touchedCount = 0;
+                for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                    PostingList list = postings.get(expansion.getKey());
+                    float idf = idf(list.size);
+                    for (int i = 0; i < list.size; i++) {
+                        int docId = list.docs[i];
+                        Doc doc = docs.get(docId);
+                        if (doc == null) {
+                            continue;
+                        }
+                        float tf = list.weights[i];
+                        float norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length() / avgLength));
+                        float score = expansion.getValue() * idf * norm;
+                        if (best[docId] == 0) {
+                            touched[touchedCount++] = docId;
+                        }
+                        if (score > best[docId]) {
+                            best[docId] = score;
+                        }
+                    }
+                }
+                // A document scores once per query term, with its best-matching expansion
+                for (int i = 0; i < touchedCount; i++) {
+                    int docId = touched[i];
+                    scores[docId] += best[docId];
+                    matchedTerms[docId]++;
+                    best[docId] = 0;
+                }
+            }
+
+            List<Integer> hits = collect(matchedTerms, terms.size());
+            if (hits.isEmpty() && terms.size() > 1) {
+                hits = collect(matchedTerms, 1);
+            }
+            for (int docId : hits) {
+                Doc doc = docs.get(docId);
+                scores[docId] *= doc.boost() * ((float) matchedTerms[docId] / terms.size());
+            }
+            hits.sort(comparator(sort, scores));
+
+            List<UUID> ids = new ArrayList<>(hits.size());
+            for (int docId : hits) {
+                ids.add(docs.get(docId).productId());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Float> expand(String term, String prefix) {
+        Map<String, Float> expansions = new HashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0f);
+        } else {
+            int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+            if (maxEdits > 0) {
+                for (String candidate : typoCandidates(term, maxEdits)) {
+                    expansions.put(candidate, FUZZY_PENALTY);
+                }
+            }
+        }
+        if (prefix != null && prefix.length() >= 2) {
+            for (String candidate : vocabulary.subSet(prefix, true, prefix + Character.MAX_VALUE, true)) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                expansions.putIfAbsent(candidate, PREFIX_PENALTY);
+            }
+        }
+        return expansions;
+    }
+
+    /**
+     * Vocabulary terms within {@code maxEdits} of {@code term}, closest first. An edit
+     * changes at most three bigrams (a transposition), so a term within {@code maxEdits}
+     * shares all but {@code 3 * maxEdits} of the query term's bigrams; only those terms are
+     * compared.
+     */
+    private List<String> typoCandidates(String term, int maxEdits) {
+        Set<String> bigrams = bigrams(term);
+        int required = Math.max(1, bigrams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : bigrams) {
+            for (String candidate : termsByBigram.getOrDefault(bigram, Set.of())) {
+                if (Math.abs(candidate.length() - term.length()) <= maxEdits) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        Map<String, Integer> distances = new HashMap<>();
+        shared.forEach((candidate, count) -> {
+            if (count >= required) {
+                int distance = editDistance(term, candidate, maxEdits);
+                if (distance <= maxEdits) {
+                    distances.put(candidate, distance);
+                }
+            }
+        });
+        return distances.keySet().stream()
+                .sorted(Comparator.comparing((String candidate) -> distances.get(candidate)).thenComparing(Comparator.naturalOrder()))
+                .limit(MAX_EXPANSIONS)
+                .toList();
+    }
+
+    private List<Integer> collect(int[] matchedTerms, int minimumMatches) {
+        List<Integer> hits = new ArrayList<>();
+        for (int docId = 0; docId < matchedTerms.length; docId++) {
+            if (matchedTerms[docId] >= minimumMatches) {
+                hits.add(docId);
+            }
+        }
+        return hits;
+    }
+
+    private Comparator<Integer> comparator(Sort sort, float[] scores) {
+        Comparator<Integer> relevance = (a, b) -> Float.compare(scores[b], scores[a]);
+        if (sort.isUnsorted()) {
+            return relevance;
+        }
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Doc> byField = switch (order.getProperty()) {
+                case "price" -> Comparator.comparing(Doc::price, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparing(Doc::createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "averageRating" -> Comparator.comparing(Doc::rating, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "totalSales" -> Comparator.comparingInt(Doc::sales);
+                case "name" -> Comparator.comparing(Doc::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                default -> throw new IllegalArgumentException("Unsupported sort: " + order.getProperty());
+            };
+            Comparator<Doc> directed = order.isAscending() ? byField : byField.reversed();
+            Comparator<Integer> next = (a, b) -> directed.compare(docs.get(a), docs.get(b));
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(relevance);
+    }
+
+    private float idf(int documentFrequency) {
+        int liveDocs = docIds.size();
+        return (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void removeLocked(UUID productId) {
+        Integer docId = docIds.remove(productId);
+        if (docId == null) {
+            return;
+        }
+        totalLength -= docs.get(docId).length();
+        docs.set(docId, null);
+        deletedDocs++;
+        if (deletedDocs > 1000 && deletedDocs > docIds.size() / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live documents from zero, keeping their order, and drops the tombstoned
+     * ones from the posting lists.
+     */
+    private void compact() {
+        int[] renumbered = new int[docs.size()];
+        List<Doc> live = new ArrayList<>(docIds.size());
+        for (int docId = 0; docId < docs.size(); docId++) {
+            Doc doc = docs.get(docId);
+            renumbered[docId] = doc == null ? -1 : live.size();
+            if (doc != null) {
+                live.add(doc);
+            }
+        }
+        docs = live;
+        docIds.replaceAll((productId, docId) -> renumbered[docId]);
+
+        Iterator<Map.Entry<String, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, PostingList> entry = entries.next();
+            entry.getValue().renumber(renumbered);
+            if (entry.getValue().size == 0) {
+                entries.remove();
+                removeFromVocabulary(entry.getKey());
+            }
+        }
+        deletedDocs = 0;
+    }
+
+    private void addToVocabulary(String term) {
+        vocabulary.add(term);
+        for (String bigram : bigrams(term)) {
+            termsByBigram.computeIfAbsent(bigram, key -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void removeFromVocabulary(String term) {
+        vocabulary.remove(term);
+        for (String bigram : bigrams(term)) {
+            Set<String> terms = termsByBigram.get(bigram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                termsByBigram.remove(bigram);
+            }
+        }
+    }
+
+    // Padded, so the first and last letters count as much as the others
+    private static Set<String> bigrams(String term) {
+        String padded = "^" + term + "$";
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private static int addField(Map<String, Float> termWeights, String text, float weight) {
+        List<String> terms = TextAnalyzer.analyze(text);
+        for (String term : terms) {
+            termWeights.merge(term, weight, Float::sum);
+        }
+        return terms.size();
+    }
+
+    private static float popularityBoost(Product product) {
+        int sales = product.getTotalSales() == null ? 0 : product.getTotalSales();
+        double rating = product.getAverageRating() == null ? 0 : product.getAverageRating().doubleValue();
+        return (float) ((1 + 0.1 * Math.log1p(sales)) * (1 + 0.05 * rating));
+    }
+
+    /**
+     * The word the query ends in, if the shopper may still be typing it. A trailing stop
+     * word is not a query term, so it is not expanded either.
+     */
+    private static String trailingToken(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        int end = lower.length();
+        if (end == 0 || !Character.isLetterOrDigit(lower.charAt(end - 1))) {
+            return null;
+        }
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(lower.charAt(start - 1))) {
+            start--;
+        }
+        String token = lower.substring(start, end);
+        return TextAnalyzer.isStopWord(token) ? null : token;
+    }
+
+    /**
+     * Optimal string alignment distance, abandoning once it must exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private record Doc(
+            UUID productId,
+            int length,
+            float boost,
+            BigDecimal price,
+            LocalDateTime createdAt,
+            BigDecimal rating,
+            int sales,
+            String name
+    ) {
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int docId, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = docId;
+            weights[size] = weight;
+            size++;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int docId = renumbered[docs[i]];
+                if (docId >= 0) {
+                    docs[kept] = docId;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(size, 4));
+                weights = Arrays.copyOf(weights, Math.max(size, 4));
+            }
+        }
+    }
+}
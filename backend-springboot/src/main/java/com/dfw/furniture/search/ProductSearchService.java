@@ -0,0 +1,130 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a {@link ProductSearchIndex} in sync with the catalog: built at startup, updated
+ * per product after each committed write, rebuilt on catalog-wide changes. Products changed
+ * while a rebuild loads the catalog are indexed again once the new index is in place, since
+ * the load may have read them before the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Object changesLock = new Object();
+    private volatile ProductSearchIndex index;
+    // Guarded by changesLock; non-null while a rebuild is loading the catalog
+    private Set<UUID> changedDuringRebuild;
+    private Timer searchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.index.size", this, service -> service.index == null ? 0 : service.index.size())
+                .description("Products in the in-memory search index")
+                .register(meterRegistry);
+        searchTimer = Timer.builder("search.index.query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return enabled && index != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            synchronized (changesLock) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            // Build off to the side and swap, so searches keep using the old index meanwhile
+            ProductSearchIndex rebuilt = new ProductSearchIndex();
+            productRepository.findAllActiveWithCategory().forEach(rebuilt::index);
+            Set<UUID> changed;
+            synchronized (changesLock) {
+                index = rebuilt;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+            }
+            changed.forEach(productId -> refresh(rebuilt, productId));
+            log.info("Search index built with {} products in {} ms",
+                    rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Order(CatalogListenerOrder.DERIVED_VIEWS)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isCatalogWide()) {
+            if (index != null) {
+                rebuild();
+            }
+            return;
+        }
+        ProductSearchIndex current;
+        synchronized (changesLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.productId());
+            }
+            current = index;
+        }
+        if (current != null) {
+            refresh(current, event.productId());
+        }
+    }
+
+    private void refresh(ProductSearchIndex target, UUID productId) {
+        productRepository.findWithCategoryById(productId)
+                .ifPresentOrElse(target::index, () -> target.remove(productId));
+    }
+
+    /**
+     * Ranked product ids for {@code query}, or empty if the index is not available and the
+     * caller should fall back to the database.
+     */
+    public Optional<List<UUID>> search(String query, Pageable pageable) {
+        ProductSearchIndex current = index;
+        if (!enabled || current == null || !ProductSearchIndex.supportsSort(pageable.getSort())) {
+            return Optional.empty();
+        }
+        return Optional.of(searchTimer.record(() -> current.search(query, pageable.getSort())));
+    }
+}
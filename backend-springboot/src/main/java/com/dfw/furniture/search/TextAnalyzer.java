@@ -0,0 +1,71 @@
+package com.dfw.furniture.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lower-cases, splits on non-alphanumerics, drops stop words and applies a light English
+ * stemmer, so that "Sofas", "sofa" and "SOFA" all index as {@code sofa}.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "of", "on", "or", "the", "to", "with", "your", "our", "this", "that"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    static String stem(String token) {
+        int length = token.length();
+        if (length <= 3 || Character.isDigit(token.charAt(length - 1))) {
+            return token;
+        }
+        if (token.endsWith("ies") && length > 4 && !token.endsWith("eies") && !token.endsWith("aies")) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (token.endsWith("es") && (token.endsWith("ches") || token.endsWith("shes")
+                || token.endsWith("sses") || token.endsWith("xes") || token.endsWith("zes"))) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, length - 1);
+        }
+        if (token.endsWith("ing") && length > 5) {
+            return token.substring(0, length - 3);
+        }
+        if (token.endsWith("ed") && length > 4 && !token.endsWith("eed")) {
+            return token.substring(0, length - 2);
+        }
+        return token;
+    }
+}
@@ -1,5 +1,7 @@
 package com.dfw.furniture.security;
 
+import com.dfw.furniture.tracing.RequestTracer;
+import com.dfw.furniture.tracing.Span;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +11,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,8 +21,8 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final TokenVerificationCache tokenVerificationCache;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -31,7 +32,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -40,13 +40,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         
+        Span span = RequestTracer.start("auth");
         try {
-            userEmail = jwtTokenProvider.extractUsername(jwt);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Verified once per token, then served from memory until it expires
+                VerifiedToken token = tokenVerificationCache.verify(jwt);
+                UserDetails userDetails = token.isActive() && token.email() != null
+                        ? principalCache.load(token.email())
+                        : null;
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtTokenProvider.validateToken(jwt, userDetails)) {
+                if (userDetails != null && userDetails.isEnabled()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -58,6 +61,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: " + e.getMessage());
+        } finally {
+            span.end(SecurityContextHolder.getContext().getAuthentication() != null ? "authenticated" : "anonymous");
         }
 
         filterChain.doFilter(request, response);
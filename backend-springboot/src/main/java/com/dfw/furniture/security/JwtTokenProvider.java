@@ -1,9 +1,12 @@
 package com.dfw.furniture.security;
 
+import com.dfw.furniture.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,6 +15,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -26,12 +30,30 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh.expiration}")
     private Long refreshExpiration;
 
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // Let the authentication filter reject inactive accounts without a lookup
+        if (userDetails instanceof User user) {
+            claims.put("uid", user.getId() != null ? user.getId().toString() : null);
+            claims.put("role", user.getRole().name());
+            claims.put("status", user.getStatus().name());
+        }
         return createToken(claims, userDetails.getUsername(), expiration);
     }
 
@@ -64,11 +86,24 @@ public class JwtTokenProvider {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Checks the signature and expiry and reads every claim in a single parse.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        String userId = claims.get("uid", String.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                claims.get("role", String.class),
+                claims.get("status", String.class),
+                claims.getExpiration().toInstant()
+        );
     }
 
     public Boolean isTokenExpired(String token) {
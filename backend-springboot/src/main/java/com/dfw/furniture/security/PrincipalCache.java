@@ -0,0 +1,84 @@
+package com.dfw.furniture.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Short-lived cache of authenticated principals by username, so that authenticated requests
+ * do not each query the users table. Entries are evicted as soon as the user is updated on
+ * this node (see {@link UserCacheEvictionListener}); the TTL bounds staleness for changes
+ * made elsewhere.
+ * <p>
+ * A miss is loaded on the requesting thread, outside the cache's map lock, and concurrent
+ * requests for the same user wait on that load's future rather than on a monitor that would
+ * pin a virtual thread for the length of the query.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.principal-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${jwt.principal-cache.time-to-live:30s}")
+    private Duration timeToLive;
+
+    private AsyncCache<String, UserDetails> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "jwt.principals");
+    }
+
+    public UserDetails load(String username) {
+        CompletableFuture<UserDetails> cached = principals.getIfPresent(username);
+        if (cached != null) {
+            return join(cached);
+        }
+        CompletableFuture<UserDetails> loading = new CompletableFuture<>();
+        CompletableFuture<UserDetails> existing = principals.asMap().putIfAbsent(username, loading);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            loading.complete(userDetailsService.loadUserByUsername(username));
+        } catch (RuntimeException ex) {
+            // Failed futures are dropped by the cache, so the next request loads again
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        return loading.join();
+    }
+
+    public void evict(String username) {
+        principals.synchronous().invalidate(username);
+    }
+
+    private static UserDetails join(CompletableFuture<UserDetails> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+}
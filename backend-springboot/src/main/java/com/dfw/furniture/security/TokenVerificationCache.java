@@ -0,0 +1,70 @@
+package com.dfw.furniture.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers tokens that passed verification until they expire, so a client sending the same
+ * bearer token on every request pays for signature checking and claim parsing once.
+ * Invalid tokens are never cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVerificationCache {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, VerifiedToken> tokens;
+
+    @PostConstruct
+    void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.tokens");
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken verified = tokens.get(token, jwtTokenProvider::verify);
+        if (verified.isExpired()) {
+            tokens.invalidate(token);
+            throw new ExpiredJwtException(null, null, "Token expired");
+        }
+        return verified;
+    }
+}
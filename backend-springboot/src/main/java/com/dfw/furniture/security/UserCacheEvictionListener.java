@@ -0,0 +1,48 @@
+package com.dfw.furniture.security;
+
+import com.dfw.furniture.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that drops the cached principal whenever a user row is
+ * updated or deleted - e.g. when an account is blocked or its role changes.
+ * <p>
+ * The JPA callbacks run at flush, before the change is committed. Evicting there would let
+ * a concurrent request reload the old row and cache it again, so inside a transaction the
+ * eviction is deferred until after commit.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    // Resolved lazily: entity listeners are created while the EntityManagerFactory is built
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserCacheEvictionListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getEmail();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(username);
+            }
+        });
+    }
+
+    private void evict(String username) {
+        principalCache.ifAvailable(cache -> cache.evict(username));
+    }
+}
@@ -0,0 +1,22 @@
+package com.dfw.furniture.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. Role, status and user id
+ * are absent in tokens issued before they were added as claims.
+ */
+public record VerifiedToken(String email, UUID userId, String role, String status, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * False only when the token itself says the account was not active when it was issued.
+     */
+    public boolean isActive() {
+        return status == null || "ACTIVE".equals(status);
+    }
+}
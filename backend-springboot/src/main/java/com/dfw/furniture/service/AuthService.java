@@ -6,12 +6,15 @@ import com.dfw.furniture.dto.RegisterRequest;
 import com.dfw.furniture.model.User;
 import com.dfw.furniture.repository.UserRepository;
 import com.dfw.furniture.security.JwtTokenProvider;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -21,18 +24,24 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
-        // Check if user already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already registered");
-        }
+        // Hash before touching the database: the encoder may queue for up to
+        // security.password.max-wait, and no pool connection should be held meanwhile
+        String passwordHash = passwordEncoder.encode(request.getPassword());
 
-        // Create new user
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phone(request.getPhone())
@@ -43,7 +52,12 @@ public class AuthService {
                 .phoneVerified(false)
                 .build();
 
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email already registered");
+            }
+            userRepository.save(user);
+        });
 
         // Generate tokens
         String token = jwtTokenProvider.generateToken(user);
@@ -59,21 +73,17 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest request) {
-        // Authenticate user
-        authenticationManager.authenticate(
+        // Authenticate user; the principal is the loaded user, so no second lookup is needed
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
                 )
         );
+        User user = (User) authentication.getPrincipal();
 
-        // Get user
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Update last login
-        user.setLastLogin(java.time.LocalDateTime.now());
-        userRepository.save(user);
+        // Written in the background in batches
+        loginActivityRecorder.recordLogin(user);
 
         // Generate tokens
         String token = jwtTokenProvider.generateToken(user);
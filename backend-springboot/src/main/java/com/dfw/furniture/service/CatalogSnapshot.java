@@ -0,0 +1,222 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, point-in-time view of the active catalog. A new instance is built for every
+ * change; readers never lock and never see a partially applied update.
+ */
+public final class CatalogSnapshot {
+
+    private static final Map<String, Function<Product, Comparable<?>>> SORT_KEYS = Map.of(
+            "createdAt", Product::getCreatedAt,
+            "updatedAt", Product::getUpdatedAt,
+            "name", Product::getName,
+            "price", Product::getPrice,
+            "averageRating", Product::getAverageRating,
+            "totalSales", Product::getTotalSales,
+            "totalReviews", Product::getTotalReviews,
+            "views", Product::getViews,
+            "stockQuantity", Product::getStockQuantity
+    );
+
+    private final long version;
+    private final Instant createdAt;
+    private final Map<UUID, Product> productsById;
+    private final Map<String, Product> productsBySlug;
+    private final Map<UUID, List<Product>> productsByCategory;
+    private final List<Product> featuredProducts;
+    private final Map<UUID, Category> categoriesById;
+    private final Map<String, Category> categoriesBySlug;
+
+    // Sorted views are memoized per sort; they are derived data, so the snapshot stays immutable
+    private final Map<Sort, List<Product>> sortedProducts = new ConcurrentHashMap<>();
+
+    private CatalogSnapshot(long version, Map<UUID, Product> productsById, Map<UUID, Category> categoriesById) {
+        this.version = version;
+        this.createdAt = Instant.now();
+        this.productsById = Collections.unmodifiableMap(productsById);
+        this.categoriesById = Collections.unmodifiableMap(categoriesById);
+
+        Map<String, Product> bySlug = new HashMap<>();
+        Map<UUID, List<Product>> byCategory = new HashMap<>();
+        List<Product> featured = new ArrayList<>();
+        for (Product product : productsById.values()) {
+            bySlug.put(product.getSlug(), product);
+            if (product.getCategory() != null) {
+                byCategory.computeIfAbsent(product.getCategory().getId(), id -> new ArrayList<>()).add(product);
+            }
+            if (Boolean.TRUE.equals(product.getIsFeatured())) {
+                featured.add(product);
+            }
+        }
+        byCategory.replaceAll((id, products) -> List.copyOf(products));
+        featured.sort(Comparator.comparing(Product::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Map<String, Category> categoriesBySlug = new HashMap<>();
+        categoriesById.values().forEach(category -> categoriesBySlug.put(category.getSlug(), category));
+
+        this.productsBySlug = Collections.unmodifiableMap(bySlug);
+        this.productsByCategory = Collections.unmodifiableMap(byCategory);
+        this.featuredProducts = List.copyOf(featured);
+        this.categoriesBySlug = Collections.unmodifiableMap(categoriesBySlug);
+    }
+
+    public static CatalogSnapshot of(long version, Collection<Product> products, Collection<Category> categories) {
+        Map<UUID, Product> productsById = new HashMap<>();
+        products.stream()
+                .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                .forEach(product -> productsById.put(product.getId(), product));
+        Map<UUID, Category> categoriesById = new HashMap<>();
+        categories.stream()
+                .filter(category -> Boolean.TRUE.equals(category.getIsActive()))
+                .forEach(category -> categoriesById.put(category.getId(), category));
+        return new CatalogSnapshot(version, productsById, categoriesById);
+    }
+
+    /**
+     * Returns the next version with {@code product} added, replaced or - if it is no longer
+     * active - removed. All other entries are shared with this snapshot.
+     */
+    public CatalogSnapshot withProduct(Product product) {
+        Map<UUID, Product> productsById = new HashMap<>(this.productsById);
+        if (Boolean.TRUE.equals(product.getIsActive())) {
+            productsById.put(product.getId(), product);
+        } else {
+            productsById.remove(product.getId());
+        }
+        return new CatalogSnapshot(version + 1, productsById, new HashMap<>(categoriesById));
+    }
+
+    public CatalogSnapshot withoutProduct(UUID productId) {
+        if (!productsById.containsKey(productId)) {
+            return this;
+        }
+        Map<UUID, Product> productsById = new HashMap<>(this.productsById);
+        productsById.remove(productId);
+        return new CatalogSnapshot(version + 1, productsById, new HashMap<>(categoriesById));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return productsById.size();
+    }
+
+    public Optional<Product> findById(UUID id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    public Optional<Product> findBySlug(String slug) {
+        return Optional.ofNullable(productsBySlug.get(slug));
+    }
+
+    public List<Product> getFeaturedProducts() {
+        return featuredProducts;
+    }
+
+    public Optional<Category> findCategoryById(UUID id) {
+        return Optional.ofNullable(categoriesById.get(id));
+    }
+
+    public Optional<Category> findCategoryBySlug(String slug) {
+        return Optional.ofNullable(categoriesBySlug.get(slug));
+    }
+
+    /**
+     * Pages over all active products. Empty if the requested sort cannot be evaluated in
+     * memory, in which case the caller should fall back to the database.
+     */
+    public Optional<Page<Product>> findAll(Pageable pageable) {
+        return sorted(pageable.getSort()).map(products -> toPage(products, pageable));
+    }
+
+    /**
+     * Pages over the active products in any of {@code categoryIds}.
+     */
+    public Optional<Page<Product>> findByCategories(Collection<UUID> categoryIds, Pageable pageable) {
+        Optional<Comparator<Product>> comparator = comparatorFor(pageable.getSort());
+        if (comparator.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Product> products = new ArrayList<>();
+        for (UUID categoryId : categoryIds) {
+            products.addAll(productsByCategory.getOrDefault(categoryId, List.of()));
+        }
+        products.sort(comparator.get());
+        return Optional.of(toPage(products, pageable));
+    }
+
+    public Optional<Page<Product>> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        Predicate<Product> inRange = product ->
+                (minPrice == null || product.getPrice().compareTo(minPrice) >= 0)
+                        && (maxPrice == null || product.getPrice().compareTo(maxPrice) <= 0);
+        return sorted(pageable.getSort())
+                .map(products -> toPage(products.stream().filter(inRange).toList(), pageable));
+    }
+
+    private Optional<List<Product>> sorted(Sort sort) {
+        List<Product> cached = sortedProducts.get(sort);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Sorted outside the map: two requests may both sort a new order once, but neither
+        // waits on the other's map lock (which would pin a virtual thread)
+        return comparatorFor(sort).map(comparator -> {
+            List<Product> products = new ArrayList<>(productsById.values());
+            products.sort(comparator);
+            List<Product> built = List.copyOf(products);
+            List<Product> existing = sortedProducts.putIfAbsent(sort, built);
+            return existing != null ? existing : built;
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Optional<Comparator<Product>> comparatorFor(Sort sort) {
+        Comparator<Product> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<Product, Comparable<?>> key = SORT_KEYS.get(order.getProperty());
+            if (key == null) {
+                return Optional.empty();
+            }
+            Comparator<Comparable> natural = order.isAscending()
+                    ? Comparator.naturalOrder()
+                    : Comparator.reverseOrder();
+            Comparator<Product> next = Comparator.comparing(
+                    product -> (Comparable) key.apply(product),
+                    Comparator.nullsLast(natural)
+            );
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        // Tie-break on id so pages are stable across requests
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        return Optional.of(comparator == null ? byId : comparator.thenComparing(byId));
+    }
+
+    private static Page<Product> toPage(List<Product> products, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(products);
+        }
+        int from = (int) Math.min(pageable.getOffset(), products.size());
+        int to = Math.min(from + pageable.getPageSize(), products.size());
+        return new PageImpl<>(products.subList(from, to), pageable, products.size());
+    }
+}
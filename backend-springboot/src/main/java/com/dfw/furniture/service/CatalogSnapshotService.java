@@ -0,0 +1,133 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.CategoryRepository;
+import com.dfw.furniture.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link CatalogSnapshot} when {@code catalog.snapshot.enabled=true}.
+ * Reads are a single volatile load; writers are serialized and publish a new snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${catalog.snapshot.enabled:false}")
+    private boolean enabled;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("catalog.snapshot.age", this, service -> service.ageSeconds())
+                .description("Seconds since the catalog snapshot was last published")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.size", this, service -> service.snapshot == null ? 0 : service.snapshot.size())
+                .description("Active products held in the catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.version", this, service -> service.snapshot == null ? 0 : service.snapshot.getVersion())
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The snapshot to serve reads from, or empty if snapshot mode is off or still loading.
+     */
+    public Optional<CatalogSnapshot> current() {
+        return enabled ? Optional.ofNullable(snapshot) : Optional.empty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms:900000}",
+               initialDelayString = "${catalog.snapshot.refresh-interval-ms:900000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    public void reload() {
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            long nextVersion = snapshot == null ? 1 : snapshot.getVersion() + 1;
+            CatalogSnapshot loaded = new TransactionTemplate(transactionManager).execute(status -> {
+                // Load categories first so product -> category -> parent references resolve to
+                // initialized instances instead of lazy proxies that outlive the session
+                List<Category> categories = categoryRepository.findAll();
+                List<Product> products = productRepository.findAllActiveWithCategory();
+                return CatalogSnapshot.of(nextVersion, products, categories);
+            });
+            snapshot = loaded;
+            log.info("Catalog snapshot v{} loaded with {} products in {} ms",
+                    loaded.getVersion(), loaded.size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Order(CatalogListenerOrder.DERIVED_VIEWS)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || snapshot == null) {
+            return;
+        }
+        if (event.isCatalogWide()) {
+            reload();
+            return;
+        }
+        writeLock.lock();
+        try {
+            Optional<Product> product = productRepository.findWithCategoryById(event.productId());
+            snapshot = product.map(snapshot::withProduct)
+                    .orElseGet(() -> snapshot.withoutProduct(event.productId()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private double ageSeconds() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : Duration.between(current.getCreatedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+}
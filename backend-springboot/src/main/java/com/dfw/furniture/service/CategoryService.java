@@ -0,0 +1,90 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.dto.CategoryBreadcrumb;
+import com.dfw.furniture.dto.CategoryNode;
+import com.dfw.furniture.event.CategoryChangedEvent;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<CategoryNode> getMenu() {
+        return categoryTreeService.current().getRoots();
+    }
+
+    public CategoryNode getCategoryBySlug(String slug) {
+        return categoryTreeService.current().findBySlug(slug)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+    }
+
+    public List<CategoryBreadcrumb> getBreadcrumbs(UUID categoryId) {
+        return categoryTreeService.current().getPath(categoryId);
+    }
+
+    @Transactional
+    public Category createCategory(Category category) {
+        category.setParent(resolveParent(category.getParent(), null));
+        Category savedCategory = categoryRepository.save(category);
+        publishChange(savedCategory.getId());
+        return savedCategory;
+    }
+
+    @Transactional
+    public Category updateCategory(UUID id, Category updatedCategory) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+
+        category.setName(updatedCategory.getName());
+        category.setSlug(updatedCategory.getSlug());
+        category.setDescription(updatedCategory.getDescription());
+        category.setImageUrl(updatedCategory.getImageUrl());
+        category.setBannerImage(updatedCategory.getBannerImage());
+        category.setIcon(updatedCategory.getIcon());
+        category.setSortOrder(updatedCategory.getSortOrder());
+        category.setParent(resolveParent(updatedCategory.getParent(), id));
+
+        Category savedCategory = categoryRepository.save(category);
+        publishChange(savedCategory.getId());
+        return savedCategory;
+    }
+
+    @Transactional
+    public void deleteCategory(UUID id) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+        category.setIsActive(false);
+        categoryRepository.save(category);
+        publishChange(id);
+    }
+
+    private Category resolveParent(Category parent, UUID categoryId) {
+        if (parent == null || parent.getId() == null) {
+            return null;
+        }
+        if (categoryId != null && categoryTreeService.getDescendantIds(categoryId).contains(parent.getId())) {
+            throw new RuntimeException("A category cannot be moved under itself or its descendants");
+        }
+        return categoryRepository.findById(parent.getId())
+                .orElseThrow(() -> new RuntimeException("Parent category not found"));
+    }
+
+    private void publishChange(UUID categoryId) {
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+        // Products embed their category, and category listings include subcategories
+        eventPublisher.publishEvent(ProductChangedEvent.catalogChanged());
+    }
+}
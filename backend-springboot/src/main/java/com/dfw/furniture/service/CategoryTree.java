@@ -0,0 +1,143 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.dto.CategoryBreadcrumb;
+import com.dfw.furniture.dto.CategoryNode;
+import com.dfw.furniture.model.Category;
+
+import java.util.*;
+
+/**
+ * Immutable tree of the active categories, built in one pass from a flat list. Every node's
+ * ancestor path and descendant id set are computed up front, so menus, breadcrumbs and
+ * "this category and everything under it" filters never touch the database.
+ * A category whose parent is inactive is left out along with its whole subtree.
+ */
+public final class CategoryTree {
+
+    private final List<CategoryNode> roots;
+    private final Map<UUID, CategoryNode> nodesById;
+    private final Map<String, CategoryNode> nodesBySlug;
+    private final Map<UUID, List<CategoryBreadcrumb>> paths;
+    private final Map<UUID, Set<UUID>> descendants;
+
+    private CategoryTree(
+            List<CategoryNode> roots,
+            Map<UUID, CategoryNode> nodesById,
+            Map<String, CategoryNode> nodesBySlug,
+            Map<UUID, List<CategoryBreadcrumb>> paths,
+            Map<UUID, Set<UUID>> descendants
+    ) {
+        this.roots = roots;
+        this.nodesById = nodesById;
+        this.nodesBySlug = nodesBySlug;
+        this.paths = paths;
+        this.descendants = descendants;
+    }
+
+    public static CategoryTree of(Collection<Category> categories) {
+        Map<UUID, List<Category>> childrenByParent = new HashMap<>();
+        List<Category> topLevel = new ArrayList<>();
+        for (Category category : categories) {
+            if (!Boolean.TRUE.equals(category.getIsActive())) {
+                continue;
+            }
+            Category parent = category.getParent();
+            if (parent == null) {
+                topLevel.add(category);
+            } else {
+                childrenByParent.computeIfAbsent(parent.getId(), id -> new ArrayList<>()).add(category);
+            }
+        }
+
+        Map<UUID, CategoryNode> nodesById = new HashMap<>();
+        Map<String, CategoryNode> nodesBySlug = new HashMap<>();
+        Map<UUID, List<CategoryBreadcrumb>> paths = new HashMap<>();
+        Map<UUID, Set<UUID>> descendants = new HashMap<>();
+        List<CategoryNode> roots = build(topLevel, List.of(), childrenByParent, nodesById, nodesBySlug, paths, descendants);
+        return new CategoryTree(roots, nodesById, nodesBySlug, paths, descendants);
+    }
+
+    private static List<CategoryNode> build(
+            List<Category> categories,
+            List<CategoryBreadcrumb> parentPath,
+            Map<UUID, List<Category>> childrenByParent,
+            Map<UUID, CategoryNode> nodesById,
+            Map<String, CategoryNode> nodesBySlug,
+            Map<UUID, List<CategoryBreadcrumb>> paths,
+            Map<UUID, Set<UUID>> descendants
+    ) {
+        List<Category> sorted = new ArrayList<>(categories);
+        sorted.sort(Comparator.comparing((Category category) -> category.getSortOrder() != null ? category.getSortOrder() : 0)
+                .thenComparing(Category::getName));
+
+        List<CategoryNode> nodes = new ArrayList<>(sorted.size());
+        for (Category category : sorted) {
+            // Guards against a parent cycle in the data
+            if (nodesById.containsKey(category.getId())) {
+                continue;
+            }
+            List<CategoryBreadcrumb> path = new ArrayList<>(parentPath);
+            path.add(new CategoryBreadcrumb(category.getId(), category.getName(), category.getSlug()));
+
+            CategoryNode node = CategoryNode.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .slug(category.getSlug())
+                    .description(category.getDescription())
+                    .imageUrl(category.getImageUrl())
+                    .bannerImage(category.getBannerImage())
+                    .icon(category.getIcon())
+                    .sortOrder(category.getSortOrder())
+                    .parentId(category.getParent() != null ? category.getParent().getId() : null)
+                    .build();
+            nodesById.put(category.getId(), node);
+            nodesBySlug.put(category.getSlug(), node);
+            paths.put(category.getId(), List.copyOf(path));
+
+            List<CategoryNode> children = build(
+                    childrenByParent.getOrDefault(category.getId(), List.of()),
+                    path, childrenByParent, nodesById, nodesBySlug, paths, descendants);
+            node.setChildren(children);
+
+            Set<UUID> subtree = new HashSet<>();
+            subtree.add(category.getId());
+            for (CategoryNode child : children) {
+                subtree.addAll(descendants.get(child.getId()));
+            }
+            descendants.put(category.getId(), Collections.unmodifiableSet(subtree));
+            nodes.add(node);
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public List<CategoryNode> getRoots() {
+        return roots;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    public Optional<CategoryNode> findById(UUID id) {
+        return Optional.ofNullable(nodesById.get(id));
+    }
+
+    public Optional<CategoryNode> findBySlug(String slug) {
+        return Optional.ofNullable(nodesBySlug.get(slug));
+    }
+
+    /**
+     * Breadcrumbs from the top-level category down to {@code id} itself.
+     */
+    public List<CategoryBreadcrumb> getPath(UUID id) {
+        return paths.getOrDefault(id, List.of());
+    }
+
+    /**
+     * {@code id} and every active category below it. A category that is not in the tree
+     * matches only itself.
+     */
+    public Set<UUID> getDescendantIds(UUID id) {
+        return descendants.getOrDefault(id, Set.of(id));
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.event.CatalogListenerOrder;
+import com.dfw.furniture.event.CategoryChangedEvent;
+import com.dfw.furniture.repository.CategoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link CategoryTree}. It is loaded with a single query on first use and
+ * rebuilt and swapped after every committed category write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CategoryTree tree;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("category.tree.size", this, service -> service.tree == null ? 0 : service.tree.size())
+                .description("Active categories in the in-memory category tree")
+                .register(meterRegistry);
+    }
+
+    public CategoryTree current() {
+        CategoryTree current = tree;
+        return current != null ? current : rebuild();
+    }
+
+    public Set<UUID> getDescendantIds(UUID categoryId) {
+        return current().getDescendantIds(categoryId);
+    }
+
+    public CategoryTree rebuild() {
+        rebuildLock.lock();
+        try {
+            CategoryTree rebuilt = new TransactionTemplate(transactionManager).execute(status ->
+                    CategoryTree.of(categoryRepository.findAll()));
+            tree = rebuilt;
+            log.debug("Category tree built with {} active categories", rebuilt.size());
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Order(CatalogListenerOrder.DERIVED_VIEWS)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+}
@@ -0,0 +1,197 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records logins off the request path. Repeated logins by the same user between flushes
+ * collapse into one pending {@code last_login}, written in periodic batched UPDATEs; each
+ * login is also appended to a Redis stream for security analytics.
+ * <p>
+ * Delivery is at-least-once: entries leave the buffers only after their write succeeded and
+ * are flushed on shutdown. Both buffers are bounded - a login that finds the last-login
+ * buffer full is written directly, and a login event that finds the event buffer full is
+ * dropped and counted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginActivityRecorder {
+
+    // Never moves last_login backwards if an older entry is written after a newer one
+    private static final String FLUSH_SQL =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.last-login.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth.last-login.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${auth.login-events.enabled:true}")
+    private boolean eventsEnabled;
+
+    @Value("${auth.login-events.stream:dfw:login-events}")
+    private String eventStream;
+
+    @Value("${auth.login-events.max-length:100000}")
+    private long eventStreamMaxLength;
+
+    @Value("${auth.login-events.buffer-size:10000}")
+    private int eventBufferSize;
+
+    private final Map<UUID, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private BlockingQueue<Map<String, String>> pendingEvents;
+
+    private Counter droppedEvents;
+    private Counter directWrites;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        pendingEvents = new ArrayBlockingQueue<>(eventBufferSize);
+        Gauge.builder("auth.last-login.pending", pendingLogins, Map::size)
+                .description("Users whose last login is not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("auth.login-events.pending", this, recorder -> recorder.pendingEvents.size())
+                .register(meterRegistry);
+        droppedEvents = Counter.builder("auth.login-events.dropped").register(meterRegistry);
+        directWrites = Counter.builder("auth.last-login.direct-writes")
+                .description("Logins written synchronously because the buffer was full")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("auth.login-activity.flush").register(meterRegistry);
+    }
+
+    public void recordLogin(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        if (pendingLogins.size() >= maxPending && !pendingLogins.containsKey(user.getId())) {
+            directWrites.increment();
+            jdbcTemplate.update(FLUSH_SQL, Timestamp.valueOf(now), user.getId(), Timestamp.valueOf(now));
+        } else {
+            pendingLogins.merge(user.getId(), now, (current, latest) -> latest.isAfter(current) ? latest : current);
+        }
+
+        if (eventsEnabled && !pendingEvents.offer(Map.of(
+                "userId", user.getId().toString(),
+                "email", user.getEmail(),
+                "role", user.getRole().name(),
+                "at", now.toString()
+        ))) {
+            droppedEvents.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(() -> {
+                drainLogins();
+                drainEvents();
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pendingLogins.isEmpty() || !pendingEvents.isEmpty()) {
+            log.warn("{} last-login updates and {} login events could not be written on shutdown",
+                    pendingLogins.size(), pendingEvents.size());
+        }
+    }
+
+    private void drainLogins() {
+        List<Map.Entry<UUID, LocalDateTime>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<UUID, LocalDateTime> entry : pendingLogins.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                writeLogins(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeLogins(batch);
+        }
+    }
+
+    private void writeLogins(List<Map.Entry<UUID, LocalDateTime>> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Map.Entry<UUID, LocalDateTime> entry : batch) {
+            Timestamp at = Timestamp.valueOf(entry.getValue());
+            rows.add(new Object[]{at, entry.getKey(), at});
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to write {} last-login updates, will retry: {}", batch.size(), ex.getMessage());
+            return;
+        }
+        // Only remove what was written; a login that arrived meanwhile stays for the next flush
+        for (Map.Entry<UUID, LocalDateTime> entry : batch) {
+            pendingLogins.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void drainEvents() {
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        List<Map<String, String>> events = new ArrayList<>(pendingEvents.size());
+        pendingEvents.drainTo(events);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    for (Map<String, String> event : events) {
+                        operations.opsForStream().add(StreamRecords.newRecord().in(eventStream).ofMap(event));
+                    }
+                    operations.opsForStream().trim(eventStream, eventStreamMaxLength, true);
+                    return null;
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Failed to append {} login events, will retry: {}", events.size(), ex.getMessage());
+            for (Map<String, String> event : events) {
+                if (!pendingEvents.offer(event)) {
+                    droppedEvents.increment();
+                }
+            }
+        }
+    }
+}
@@ -1,69 +1,285 @@
 package com.dfw.furniture.service;
 
+import com.dfw.furniture.cache.CacheNames;
+import com.dfw.furniture.dto.CursorPage;
+import com.dfw.furniture.dto.ProductCursor;
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.dto.ProductListing;
+import com.dfw.furniture.dto.ProductSummary;
+import com.dfw.furniture.dto.ProductVersion;
+import com.dfw.furniture.event.ProductChangedEvent;
 import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductFields;
 import com.dfw.furniture.repository.ProductRepository;
+import com.dfw.furniture.repository.ProductRepositoryCustomImpl;
+import com.dfw.furniture.repository.ProductSpecifications;
+import com.dfw.furniture.search.ProductFacetIndex;
+import com.dfw.furniture.search.ProductFacetService;
+import com.dfw.furniture.search.ProductSearchService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "products.service", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CategoryTreeService categoryTreeService;
+    private final ProductViewCounter productViewCounter;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Cacheable(value = "products", key = "#pageable.pageNumber")
+    /**
+     * Applies every filter in {@code filter} together and returns facet counts, using the
+     * facet index. Until the index is available it falls back to database queries without
+     * facets: the narrower single-filter paths when only one filter is set, otherwise one
+     * query with all of them.
+     */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
+    public ProductListing<Product> findProducts(ProductFilter filter, Pageable pageable) {
+        Optional<ProductFacetIndex.FacetResult> faceted = productFacetService.query(filter, pageable);
+        if (faceted.isPresent()) {
+            ProductFacetIndex.FacetResult result = faceted.get();
+            return new ProductListing<>(loadPage(result.pageIds(), pageable, result.total()), result.facets());
+        }
+        return findProductsWithoutIndex(filter, pageable);
+    }
+
+    /**
+     * Same listing as {@link #findProducts} as {@link ProductSummary} rows. Products not in the
+     * snapshot are loaded with one narrow SELECT instead of full entities.
+     */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
+    public ProductListing<ProductSummary> findProductSummaries(ProductFilter filter, Pageable pageable) {
+        Optional<ProductFacetIndex.FacetResult> faceted = productFacetService.query(filter, pageable);
+        if (faceted.isPresent()) {
+            ProductFacetIndex.FacetResult result = faceted.get();
+            List<ProductSummary> content = loadInOrder(
+                    result.pageIds(),
+                    ProductSummary::from,
+                    productRepository::findSummariesByIdIn,
+                    ProductSummary::getId
+            );
+            return new ProductListing<>(new PageImpl<>(content, pageable, result.total()), result.facets());
+        }
+        ProductListing<Product> listing = findProductsWithoutIndex(filter, pageable);
+        return new ProductListing<>(listing.getProducts().map(ProductSummary::from), listing.getFacets());
+    }
+
+    /**
+     * Same listing as {@link #findProducts} with only the requested {@code fields} of each
+     * product, selected column by column for products not in the snapshot.
+     */
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
+    public ProductListing<Map<String, Object>> findProductFields(ProductFilter filter, Pageable pageable, List<String> fields) {
+        List<String> selected = ProductFields.resolve(fields);
+        Optional<ProductFacetIndex.FacetResult> faceted = productFacetService.query(filter, pageable);
+        if (faceted.isPresent()) {
+            ProductFacetIndex.FacetResult result = faceted.get();
+            List<Map<String, Object>> content = loadInOrder(
+                    result.pageIds(),
+                    product -> ProductFields.extract(product, selected),
+                    missing -> productRepository.findFieldsByIdIn(missing, selected),
+                    values -> (UUID) values.get(ProductFields.ID)
+            );
+            return new ProductListing<>(new PageImpl<>(content, pageable, result.total()), result.facets());
+        }
+        ProductListing<Product> listing = findProductsWithoutIndex(filter, pageable);
+        return new ProductListing<>(
+                listing.getProducts().map(product -> ProductFields.extract(product, selected)),
+                listing.getFacets()
+        );
+    }
+
+    private ProductListing<Product> findProductsWithoutIndex(ProductFilter filter, Pageable pageable) {
+        Page<Product> products;
+        if (filter.isCombined()) {
+            Set<UUID> categoryIds = filter.getCategory() != null
+                    ? categoryTreeService.getDescendantIds(filter.getCategory())
+                    : null;
+            products = productRepository.findAll(ProductSpecifications.matching(filter, categoryIds),
+                    pageable.getSort().isSorted()
+                            ? pageable
+                            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending()));
+        } else if (filter.hasSearch()) {
+            products = searchProducts(filter.getSearch(), pageable);
+        } else if (filter.getCategory() != null) {
+            products = getProductsByCategory(filter.getCategory(), pageable);
+        } else if (filter.hasPriceRange()) {
+            products = filterByPriceRange(filter.getMinPrice(), filter.getMaxPrice(), pageable);
+        } else {
+            products = getAllProducts(pageable);
+        }
+        return new ProductListing<>(products, Map.of());
+    }
+
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
     public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findByIsActiveTrue(pageable);
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findAll(pageable))
+                .orElseGet(() -> productRepository.findByIsActiveTrue(pageable));
+    }
+
+    /**
+     * Keyset page of active products: seeks past {@code cursor} instead of using an offset and
+     * runs no COUNT query, so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductsAfter(String cursor, String sortBy, boolean ascending, UUID categoryId, int size) {
+        if (!ProductRepositoryCustomImpl.supportsSort(sortBy)) {
+            throw new RuntimeException("Unsupported sort for cursor pagination: " + sortBy);
+        }
+        ProductCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            after = ProductCursor.decode(cursor);
+            if (!after.getSortBy().equals(sortBy) || after.isAscending() != ascending) {
+                throw new RuntimeException("Cursor does not match the requested sort");
+            }
+        }
+
+        // One extra row tells us whether another page exists
+        List<Product> rows = productRepository.findPageAfter(
+                sortBy,
+                ascending,
+                after != null ? after.getLastValue() : null,
+                after != null ? after.getLastId() : null,
+                categoryId != null ? categoryTreeService.getDescendantIds(categoryId) : null,
+                size + 1
+        );
+        boolean hasNext = rows.size() > size;
+        List<Product> items = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = items.get(items.size() - 1);
+            nextCursor = new ProductCursor(sortBy, ascending, sortValue(last, sortBy), last.getId()).encode();
+        }
+        return CursorPage.<Product>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Cacheable(cacheNames = CacheNames.PRODUCT_COUNTS, key = "#categoryId == null ? 'all' : #categoryId.toString()", sync = true)
+    public long countActiveProducts(UUID categoryId) {
+        return categoryId == null
+                ? productRepository.countByIsActiveTrue()
+                : productRepository.countByCategoryIdInAndIsActiveTrue(categoryTreeService.getDescendantIds(categoryId));
     }
 
+    @Cacheable(cacheNames = CacheNames.PRODUCT, key = "#id.toString()", sync = true)
     public Product getProductById(UUID id) {
-        return productRepository.findById(id)
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findById(id))
+                .or(() -> productRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    @Cacheable(cacheNames = CacheNames.PRODUCT_BY_SLUG, key = "#slug", sync = true)
     public Product getProductBySlug(String slug) {
-        Product product = productRepository.findBySlug(slug)
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findBySlug(slug))
+                .or(() -> productRepository.findBySlug(slug))
                 .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        // Increment views
-        product.setViews(product.getViews() + 1);
-        productRepository.save(product);
-        
-        return product;
     }
 
+    /**
+     * The given products in the given order, from the snapshot where possible and otherwise
+     * with one batched query. Unknown ids are skipped.
+     */
+    public List<Product> getProductsByIds(List<UUID> ids) {
+        return loadInOrder(ids, Function.identity(), productRepository::findByIdIn, Product::getId);
+    }
+
+    /**
+     * Validators for a product page without loading the product: from the snapshot when it
+     * is enabled, otherwise with a single narrow query.
+     */
+    public Optional<ProductVersion> getProductVersion(UUID id) {
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findById(id))
+                .map(ProductVersion::of)
+                .or(() -> productRepository.findVersionById(id));
+    }
+
+    public Optional<ProductVersion> getProductVersionBySlug(String slug) {
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findBySlug(slug))
+                .map(ProductVersion::of)
+                .or(() -> productRepository.findVersionBySlug(slug));
+    }
+
+    public void recordView(UUID productId) {
+        productViewCounter.recordView(productId);
+    }
+
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
     public Page<Product> getProductsByCategory(UUID categoryId, Pageable pageable) {
-        return productRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable);
+        // A category listing includes every subcategory below it
+        Set<UUID> categoryIds = categoryTreeService.getDescendantIds(categoryId);
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findByCategories(categoryIds, pageable))
+                .orElseGet(() -> productRepository.findByCategoryIdInAndIsActiveTrue(categoryIds, pageable));
     }
 
+    @Cacheable(cacheNames = CacheNames.FEATURED_PRODUCTS, keyGenerator = "productQueryKeyGenerator", sync = true)
     public List<Product> getFeaturedProducts() {
-        return productRepository.findByIsFeaturedTrueAndIsActiveTrue();
+        return catalogSnapshotService.current()
+                .map(CatalogSnapshot::getFeaturedProducts)
+                .orElseGet(productRepository::findByIsFeaturedTrueAndIsActiveTrue);
     }
 
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
     public Page<Product> searchProducts(String search, Pageable pageable) {
-        return productRepository.searchProducts(search, pageable);
+        return productSearchService.search(search, pageable)
+                .map(rankedIds -> loadPage(pageOf(rankedIds, pageable), pageable, rankedIds.size()))
+                .orElseGet(() -> productRepository.searchProducts(search, pageable.getSort().isSorted()
+                        ? pageable
+                        : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending())));
     }
 
+    @Cacheable(cacheNames = CacheNames.PRODUCT_PAGES, keyGenerator = "productQueryKeyGenerator", sync = true)
     public Page<Product> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.findByPriceRange(minPrice, maxPrice, pageable);
+        return catalogSnapshotService.current()
+                .flatMap(snapshot -> snapshot.findByPriceRange(minPrice, maxPrice, pageable))
+                .orElseGet(() -> productRepository.findByPriceRange(minPrice, maxPrice, pageable));
     }
 
     @Transactional
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), savedProduct.getSlug()));
+        return savedProduct;
     }
 
     @Transactional
     public Product updateProduct(UUID id, Product updatedProduct) {
-        Product product = getProductById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
         
         // Update fields
         product.setName(updatedProduct.getName());
@@ -73,13 +289,68 @@ public class ProductService {
         product.setStockQuantity(updatedProduct.getStockQuantity());
         // Add more fields as needed
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), savedProduct.getSlug()));
+        return savedProduct;
     }
 
     @Transactional
     public void deleteProduct(UUID id) {
-        Product product = getProductById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, product.getSlug()));
+    }
+
+    private static Object sortValue(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "createdAt" -> product.getCreatedAt();
+            case "price" -> product.getPrice();
+            case "averageRating" -> product.getAverageRating();
+            case "totalSales" -> product.getTotalSales();
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sortBy);
+        };
+    }
+
+    private static List<UUID> pageOf(List<UUID> orderedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), orderedIds.size());
+        return orderedIds.subList(from, to);
+    }
+
+    /**
+     * Loads the products for one page of ids, preserving the order of {@code pageIds}.
+     */
+    private Page<Product> loadPage(List<UUID> pageIds, Pageable pageable, long total) {
+        List<Product> content = loadInOrder(pageIds, Function.identity(), productRepository::findByIdIn, Product::getId);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Builds one row per id in {@code pageIds} order: from the snapshot when it has the
+     * product, otherwise with a single {@code loader} query for all the missing ids.
+     */
+    private <T> List<T> loadInOrder(
+            List<UUID> pageIds,
+            Function<Product, T> fromProduct,
+            Function<List<UUID>, List<T>> loader,
+            Function<T, UUID> idOf
+    ) {
+        Map<UUID, T> rows = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.current();
+        for (UUID id : pageIds) {
+            snapshot.flatMap(current -> current.findById(id))
+                    .ifPresentOrElse(product -> rows.put(id, fromProduct.apply(product)), () -> missing.add(id));
+        }
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach(row -> rows.put(idOf.apply(row), row));
+        }
+
+        return pageIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
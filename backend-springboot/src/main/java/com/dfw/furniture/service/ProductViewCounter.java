@@ -0,0 +1,133 @@
+package com.dfw.furniture.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates product page views in memory and writes them as periodic batched
+ * {@code views = views + ?} updates, so a page view never touches the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE products SET views = COALESCE(views, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.views.flush-interval-ms:10000}")
+    private long flushIntervalMs;
+
+    @Value("${product.views.batch-size:500}")
+    private int batchSize;
+
+    // One striped LongAdder per product. Entries are never removed: removing a drained adder
+    // could race with a concurrent increment, and the map is bounded by the catalog size anyway.
+    private final Map<UUID, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Counter flushedViews;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("product.views.pending", this, ProductViewCounter::pendingCount)
+                .description("Product views recorded but not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("product.views.flush.interval", this, counter -> counter.flushIntervalMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("product.views.flush.batch-size", this, counter -> counter.batchSize)
+                .register(meterRegistry);
+        flushedViews = Counter.builder("product.views.flushed").register(meterRegistry);
+        flushTimer = Timer.builder("product.views.flush").register(meterRegistry);
+    }
+
+    public void recordView(UUID productId) {
+        LongAdder views = pendingViews.get(productId);
+        if (views == null) {
+            views = pendingViews.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    public long pendingCount() {
+        long total = 0;
+        for (LongAdder views : pendingViews.values()) {
+            total += views.sum();
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${product.views.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(this::drain);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (pendingCount() > 0) {
+            log.warn("{} product views could not be written on shutdown", pendingCount());
+        }
+    }
+
+    private void drain() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<UUID, LongAdder> entry : pendingViews.entrySet()) {
+            // Subtract what we read instead of resetting, so increments racing with the
+            // flush stay in the adder for the next round
+            long views = entry.getValue().sum();
+            if (views == 0) {
+                continue;
+            }
+            entry.getValue().add(-views);
+            batch.add(new Object[]{views, entry.getKey()});
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            flushedViews.increment(batch.stream().mapToLong(row -> (Long) row[0]).sum());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to flush {} product view counters, will retry: {}", batch.size(), ex.getMessage());
+            for (Object[] row : batch) {
+                pendingViews.get((UUID) row[1]).add((Long) row[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.dfw.furniture.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the controller call, including writing its response body, as a {@code handler}
+ * span named after the controller method.
+ */
+public class HandlerTracingInterceptor implements HandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = HandlerTracingInterceptor.class.getName() + ".span";
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        String detail = handler instanceof HandlerMethod method
+                ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                : null;
+        request.setAttribute(SPAN_ATTRIBUTE, RequestTracer.start("handler", detail));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler,
+            Exception ex
+    ) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            span.end(ex != null ? ex.getClass().getSimpleName() : null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.dfw.furniture.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The spans of one request, in the order they ended. Written only by the request's thread;
+ * published to {@link TraceBuffer} once the request is complete.
+ */
+public class RequestTrace {
+
+    private final long id;
+    private final String method;
+    private final String path;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private String route;
+    private int status;
+    private long durationNanos;
+
+    RequestTrace(long id, String method, String path, int maxSpans) {
+        this.id = id;
+        this.method = method;
+        this.path = path;
+        this.maxSpans = maxSpans;
+    }
+
+    void add(Span span) {
+        if (spans.size() < maxSpans) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    void finish(String route, int status) {
+        this.route = route;
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationMicros() {
+        return durationNanos / 1_000;
+    }
+
+    /**
+     * Total time per span name, e.g. how long all SQL statements took together.
+     */
+    public Map<String, Long> getTotalsMicros() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (Span span : spans) {
+            totals.merge(span.getName(), span.getDurationMicros(), Long::sum);
+        }
+        return totals;
+    }
+
+    public List<Span> getSpans() {
+        return spans;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    @JsonIgnore
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    @JsonIgnore
+    long getDurationNanos() {
+        return durationNanos;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dfw.furniture.tracing;
+
+/**
+ * Entry point for recording spans into the trace of the request running on the current
+ * thread. Without tracing enabled, or outside a traced request, {@link #start} returns a
+ * shared no-op span, so instrumented code costs one volatile read.
+ */
+public final class RequestTracer {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static volatile boolean enabled;
+
+    private RequestTracer() {
+    }
+
+    public static Span start(String name) {
+        return start(name, null);
+    }
+
+    public static Span start(String name, String detail) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? Span.NOOP : new Span(trace, name, detail, System.nanoTime());
+    }
+
+    static void enable() {
+        enabled = true;
+    }
+
+    static void begin(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+}
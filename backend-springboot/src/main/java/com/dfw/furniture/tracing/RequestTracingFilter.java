@@ -0,0 +1,55 @@
+package com.dfw.furniture.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traces every API request from before the security filters until the response is written,
+ * and hands the finished trace to the {@link TraceBuffer}.
+ */
+public class RequestTracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACES_PATH = "/api/admin/traces";
+
+    private final TraceBuffer traceBuffer;
+    private final int maxSpans;
+    private final AtomicLong ids = new AtomicLong();
+
+    public RequestTracingFilter(TraceBuffer traceBuffer, int maxSpans) {
+        this.traceBuffer = traceBuffer;
+        this.maxSpans = maxSpans;
+        RequestTracer.enable();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith(TRACES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestTrace trace = new RequestTrace(ids.incrementAndGet(), request.getMethod(), request.getRequestURI(), maxSpans);
+        RequestTracer.begin(trace);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTracer.end();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            trace.finish(route != null ? route.toString() : null, response.getStatus());
+            traceBuffer.record(trace);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dfw.furniture.tracing;
+
+/**
+ * A timed step of a traced request: a filter, a SQL statement, a cache lookup, serialization.
+ * Started by {@link RequestTracer#start} and added to the request's trace when it ends.
+ */
+public class Span {
+
+    static final Span NOOP = new Span(null, null, null, 0);
+
+    private final RequestTrace trace;
+    private final String name;
+    private final String detail;
+    private final long startNanos;
+    private long durationNanos = -1;
+    private String outcome;
+
+    Span(RequestTrace trace, String name, String detail, long startNanos) {
+        this.trace = trace;
+        this.name = name;
+        this.detail = detail;
+        this.startNanos = startNanos;
+    }
+
+    public void end() {
+        end(null);
+    }
+
+    public void end(String outcome) {
+        if (trace == null || durationNanos >= 0) {
+            return;
+        }
+        this.durationNanos = System.nanoTime() - startNanos;
+        this.outcome = outcome;
+        trace.add(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Microseconds from the start of the request.
+     */
+    public long getStartMicros() {
+        return (startNanos - trace.getStartNanos()) / 1_000;
+    }
+
+    public long getDurationMicros() {
+        return durationNanos / 1_000;
+    }
+}
@@ -0,0 +1,101 @@
+package com.dfw.furniture.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent and the slowest completed request traces. Both are fixed-size arrays
+ * updated without locks: recent traces overwrite the oldest slot, and a slow trace replaces
+ * the fastest of the slowest with a compare-and-set, retrying if another request won.
+ */
+@Component
+public class TraceBuffer {
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    private final AtomicReferenceArray<RequestTrace> recent;
+    private final AtomicReferenceArray<RequestTrace> slowest;
+    private final AtomicLong next = new AtomicLong();
+
+    public TraceBuffer(
+            @Value("${tracing.recent-size:256}") int recentSize,
+            @Value("${tracing.slowest-size:32}") int slowestSize
+    ) {
+        this.recent = new AtomicReferenceArray<>(recentSize);
+        this.slowest = new AtomicReferenceArray<>(slowestSize);
+    }
+
+    public void record(RequestTrace trace) {
+        recent.set((int) (next.getAndIncrement() % recent.length()), trace);
+        offerSlowest(trace);
+    }
+
+    private void offerSlowest(RequestTrace trace) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int fastestSlot = -1;
+            RequestTrace fastest = null;
+            for (int i = 0; i < slowest.length(); i++) {
+                RequestTrace current = slowest.get(i);
+                if (current == null) {
+                    fastestSlot = i;
+                    fastest = null;
+                    break;
+                }
+                if (fastest == null || current.getDurationNanos() < fastest.getDurationNanos()) {
+                    fastestSlot = i;
+                    fastest = current;
+                }
+            }
+            if (fastestSlot < 0 || fastest != null && fastest.getDurationNanos() >= trace.getDurationNanos()) {
+                return;
+            }
+            if (slowest.compareAndSet(fastestSlot, fastest, trace)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Recent traces, newest first.
+     */
+    public List<RequestTrace> recent() {
+        List<RequestTrace> traces = snapshot(recent);
+        traces.sort(Comparator.comparingLong(RequestTrace::getId).reversed());
+        return traces;
+    }
+
+    /**
+     * Slowest traces since startup (or the last {@link #clear()}), slowest first.
+     */
+    public List<RequestTrace> slowest() {
+        List<RequestTrace> traces = snapshot(slowest);
+        traces.sort(Comparator.comparingLong(RequestTrace::getDurationNanos).reversed());
+        return traces;
+    }
+
+    public void clear() {
+        for (int i = 0; i < recent.length(); i++) {
+            recent.set(i, null);
+        }
+        for (int i = 0; i < slowest.length(); i++) {
+            slowest.set(i, null);
+        }
+    }
+
+    private static List<RequestTrace> snapshot(AtomicReferenceArray<RequestTrace> slots) {
+        List<RequestTrace> traces = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTrace trace = slots.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
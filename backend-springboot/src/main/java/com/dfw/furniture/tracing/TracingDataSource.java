@@ -0,0 +1,89 @@
+package com.dfw.furniture.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records every statement execution as an {@code sql} span with the statement text. Only
+ * execution is timed; reading the rows afterwards is part of the enclosing span. Parameter
+ * values are never recorded.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final int maxSqlLength;
+
+    public TracingDataSource(DataSource target, int maxSqlLength) {
+        super(target);
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracing(super.getConnection(username, password));
+    }
+
+    private Connection tracing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> tracing((Statement) result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> tracing((Statement) result, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> tracing((Statement) result, Statement.class, null);
+                        default -> result;
+                    };
+                }
+        );
+    }
+
+    private Object tracing(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    // Plain statements pass their SQL to execute*; prepared ones already have it
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    Span span = RequestTracer.start("sql", abbreviate(sql));
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        span.end(method.getName().equals("executeBatch") ? "batch" : null);
+                    }
+                }
+        );
+    }
+
+    private String abbreviate(String sql) {
+        if (sql == null || sql.length() <= maxSqlLength) {
+            return sql;
+        }
+        return sql.substring(0, maxSqlLength) + "...";
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dfw.furniture.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Records JSON response serialization as a {@code serialize} span. Lazy loads triggered
+ * while serializing show up as {@code sql} spans inside it.
+ */
+public class TracingJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TracingJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Span span = RequestTracer.start("serialize", object.getClass().getSimpleName());
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.dfw.furniture.cache;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.service.ProductService;
+import com.dfw.furniture.support.InMemoryRedisConnectionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes' cache managers wired as in {@code CacheConfig}, sharing one in-memory Redis.
+ */
+class TwoLevelCacheTest {
+
+    private static final String CHANNEL = "test:cache-invalidation";
+
+    private final InMemoryRedisConnectionFactory redis = new InMemoryRedisConnectionFactory();
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @Test
+    void anEvictionDuringALoadKeepsTheLoadedValueOutOfBothTiers() {
+        Cache cache = nodeA.getCache(CacheNames.PRODUCT);
+
+        String loaded = cache.get("sofa", () -> {
+            // The product changes after the loader read it
+            cache.evict("sofa");
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.get("sofa")).isNull();
+        assertThat(nodeB.getCache(CacheNames.PRODUCT).get("sofa")).isNull();
+        assertThat(cache.get("sofa", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void anEvictionOnAnotherNodeDuringALoadKeepsTheLoadedValueOut() throws Exception {
+        Cache cache = nodeA.getCache(CacheNames.PRODUCT);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("sofa", () -> {
+            loading.countDown();
+            evicted.await(5, TimeUnit.SECONDS);
+            return "stale";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        nodeB.getCache(CacheNames.PRODUCT).evict("sofa");
+        evicted.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(cache.get("sofa")).isNull();
+        assertThat(nodeB.getCache(CacheNames.PRODUCT).get("sofa")).isNull();
+    }
+
+    @Test
+    void remoteInvalidationsClearTheLocalTier() {
+        Cache onA = nodeA.getCache(CacheNames.PRODUCT);
+        Cache onB = nodeB.getCache(CacheNames.PRODUCT);
+        onA.put("sofa", "v1");
+        onA.put("chair", "v1");
+        assertThat(onB.get("sofa").get()).isEqualTo("v1");
+        assertThat(onB.get("chair").get()).isEqualTo("v1");
+        List<String> notified = new ArrayList<>();
+        nodeB.addInvalidationListener(notified::add);
+
+        onA.evict("sofa");
+
+        assertThat(onB.get("sofa")).isNull();
+        assertThat(onB.get("chair").get()).isEqualTo("v1");
+
+        // Bypass both tiers so only an L1 copy could still answer
+        new StringRedisTemplate(redis).delete(Set.of("product::chair"));
+        assertThat(onB.get("chair").get()).isEqualTo("v1");
+        onA.clear();
+
+        assertThat(onB.get("chair")).isNull();
+        assertThat(notified).containsExactly(CacheNames.PRODUCT, CacheNames.PRODUCT);
+    }
+
+    @Test
+    void pagesSizesAndSortsAreCachedSeparately() throws Exception {
+        ProductQueryKeyGenerator keys = new ProductQueryKeyGenerator();
+        Method findProducts = ProductService.class.getMethod("findProducts", ProductFilter.class, Pageable.class);
+        ProductFilter filter = ProductFilter.builder().brands(List.of("Ikea")).build();
+        List<Pageable> pages = List.of(
+                PageRequest.of(0, 20, Sort.by("price")),
+                PageRequest.of(1, 20, Sort.by("price")),
+                PageRequest.of(0, 10, Sort.by("price")),
+                PageRequest.of(0, 20, Sort.by("price").descending()),
+                PageRequest.of(0, 20, Sort.by("createdAt")),
+                PageRequest.of(0, 20, Sort.by("price", "createdAt")),
+                PageRequest.of(0, 20));
+        Cache onA = nodeA.getCache(CacheNames.PRODUCT_PAGES);
+        Cache onB = nodeB.getCache(CacheNames.PRODUCT_PAGES);
+
+        Set<Object> distinct = new HashSet<>();
+        for (int i = 0; i < pages.size(); i++) {
+            Object key = keys.generate(null, findProducts, filter, pages.get(i));
+            distinct.add(key);
+            onA.put(key, "page " + i);
+        }
+
+        assertThat(distinct).hasSize(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            Object key = keys.generate(null, findProducts, filter, pages.get(i));
+            // Node B has nothing in L1, so this also reads each entry back from Redis
+            assertThat(onB.get(key).get()).isEqualTo("page " + i);
+        }
+    }
+
+    private TwoLevelCacheManager node() {
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(redis, BatchStrategies.scan(1000));
+        RedisCacheManager remote = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig(getClass().getClassLoader())
+                        .entryTtl(Duration.ofMinutes(10))
+                        .disableCachingNullValues())
+                .build();
+        remote.initializeCaches();
+        StringRedisTemplate template = new StringRedisTemplate(redis);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(
+                remote, template, CHANNEL, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        redis.subscribe(CHANNEL, manager);
+        return manager;
+    }
+}
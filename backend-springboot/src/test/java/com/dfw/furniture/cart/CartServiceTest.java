@@ -0,0 +1,120 @@
+package com.dfw.furniture.cart;
+
+import com.dfw.furniture.dto.CartItemView;
+import com.dfw.furniture.dto.CartView;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carts of signed-in users whose Redis copy expired: the stored cart must come back before
+ * any change is made, or the next flush would replace it.
+ */
+class CartServiceTest extends ApiTestSupport {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartWriteBehind cartWriteBehind;
+
+    private final String owner = CartService.userOwner(UUID.randomUUID());
+
+    @Test
+    void addingToAnExpiredCartKeepsTheStoredItems() {
+        Product chair = product("120.00", 10);
+        Product table = product("450.00", 10);
+        cartService.addItem(owner, chair.getId(), 2);
+        cartWriteBehind.flush();
+        expireCart();
+
+        CartView cart = cartService.addItem(owner, table.getId(), 1);
+
+        assertThat(quantities(cart)).containsExactlyInAnyOrderEntriesOf(Map.of(chair.getId(), 2, table.getId(), 1));
+        cartWriteBehind.flush();
+        assertThat(storedQuantities()).containsExactlyInAnyOrderEntriesOf(Map.of(chair.getId(), 2, table.getId(), 1));
+    }
+
+    @Test
+    void changingAnExpiredCartKeepsTheOtherItems() {
+        Product chair = product("120.00", 10);
+        Product table = product("450.00", 10);
+        Product lamp = product("40.00", 10);
+        cartService.addItem(owner, chair.getId(), 2);
+        cartService.addItem(owner, table.getId(), 1);
+        cartService.addItem(owner, lamp.getId(), 3);
+        cartWriteBehind.flush();
+
+        expireCart();
+        cartService.setQuantity(owner, chair.getId(), 5);
+        cartWriteBehind.flush();
+        expireCart();
+        cartService.removeItem(owner, table.getId());
+        cartWriteBehind.flush();
+
+        assertThat(storedQuantities()).containsExactlyInAnyOrderEntriesOf(Map.of(chair.getId(), 5, lamp.getId(), 3));
+    }
+
+    @Test
+    void addingAgainToAnExpiredCartIncrementsTheStoredQuantity() {
+        Product chair = product("120.00", 10);
+        cartService.addItem(owner, chair.getId(), 2);
+        cartWriteBehind.flush();
+        expireCart();
+
+        CartView cart = cartService.addItem(owner, chair.getId(), 1);
+
+        assertThat(quantities(cart)).containsExactlyEntriesOf(Map.of(chair.getId(), 3));
+    }
+
+    @Test
+    void clearedCartIsNotRestored() {
+        Product chair = product("120.00", 10);
+        Product table = product("450.00", 10);
+        cartService.addItem(owner, chair.getId(), 2);
+        cartWriteBehind.flush();
+
+        // Cleared, and the clear not yet written to the database
+        cartService.clear(owner);
+        CartView cart = cartService.addItem(owner, table.getId(), 1);
+
+        assertThat(quantities(cart)).containsExactlyEntriesOf(Map.of(table.getId(), 1));
+    }
+
+    @Test
+    void restoredCartExpiresAgain() {
+        Product chair = product("120.00", 10);
+        cartService.addItem(owner, chair.getId(), 2);
+        cartWriteBehind.flush();
+        expireCart();
+
+        assertThat(quantities(cartService.getCart(owner))).containsExactlyEntriesOf(Map.of(chair.getId(), 2));
+        assertThat(redis.exists(CartService.CART_KEY_PREFIX + owner)).isTrue();
+        redis.advance(Duration.ofDays(31));
+        assertThat(redis.exists(CartService.CART_KEY_PREFIX + owner)).isFalse();
+    }
+
+    private void expireCart() {
+        redis.advance(Duration.ofDays(31));
+        assertThat(redis.exists(CartService.CART_KEY_PREFIX + owner)).isFalse();
+    }
+
+    private static Map<UUID, Integer> quantities(CartView cart) {
+        return cart.getItems().stream().collect(Collectors.toMap(CartItemView::getProductId, CartItemView::getQuantity));
+    }
+
+    private Map<UUID, Integer> storedQuantities() {
+        return jdbcTemplate.queryForList("SELECT product_id, quantity FROM cart_items WHERE user_id = ?",
+                        UUID.fromString(owner.substring(CartWriteBehind.USER_PREFIX.length())))
+                .stream()
+                .collect(Collectors.toMap(row -> (UUID) row.get("product_id"), row -> (Integer) row.get("quantity")));
+    }
+}
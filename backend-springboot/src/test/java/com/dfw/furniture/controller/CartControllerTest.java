@@ -0,0 +1,88 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CartControllerTest extends ApiTestSupport {
+
+    private static final String SESSION = "X-Cart-Session";
+
+    @Test
+    void guestCartAddsUpdatesAndRemovesItems() throws Exception {
+        Product chair = product("120.00", 10);
+        Product table = product("450.50", 3);
+        String session = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/cart/items").header(SESSION, session)
+                        .param("productId", chair.getId().toString()).param("quantity", "2"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/items").header(SESSION, session)
+                        .param("productId", table.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.itemCount").value(3))
+                .andExpect(jsonPath("$.data.subtotal").value(690.50));
+
+        mockMvc.perform(put("/api/cart/items/{id}", chair.getId()).header(SESSION, session).param("quantity", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.itemCount").value(6));
+
+        mockMvc.perform(delete("/api/cart/items/{id}", table.getId()).header(SESSION, session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].productId").value(chair.getId().toString()))
+                .andExpect(jsonPath("$.data.subtotal").value(600.00));
+
+        mockMvc.perform(delete("/api/cart").header(SESSION, session))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cart").header(SESSION, session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(0))
+                .andExpect(jsonPath("$.data.itemCount").value(0));
+    }
+
+    @Test
+    void signedInCartCapsQuantity() throws Exception {
+        Product chair = product("80.00", 500);
+        String token = signUp();
+
+        mockMvc.perform(post("/api/cart/items").header(HttpHeaders.AUTHORIZATION, token)
+                        .param("productId", chair.getId().toString()).param("quantity", "60"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/items").header(HttpHeaders.AUTHORIZATION, token)
+                        .param("productId", chair.getId().toString()).param("quantity", "60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].quantity").value(99));
+
+        mockMvc.perform(get("/api/cart").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(jsonPath("$.data.itemCount").value(99));
+    }
+
+    @Test
+    void guestsNeedAValidSession() throws Exception {
+        Product chair = product("80.00", 5);
+
+        mockMvc.perform(post("/api/cart/items").param("productId", chair.getId().toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/cart").header(SESSION, "short"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsUnknownProducts() throws Exception {
+        mockMvc.perform(post("/api/cart/items").header(SESSION, UUID.randomUUID().toString())
+                        .param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,57 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InventoryControllerTest extends ApiTestSupport {
+
+    @Test
+    void capsUnitsPerReservation() throws Exception {
+        Product product = product("100.00", 100);
+        String token = signUp();
+
+        reserve(token, product.getId(), 11)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Quantity must be between 1 and 10"));
+        reserve(token, product.getId(), 10).andExpect(status().isOk());
+    }
+
+    @Test
+    void capsUnitsHeldPerUser() throws Exception {
+        Product chair = product("100.00", 100);
+        Product table = product("300.00", 100);
+        String token = signUp();
+
+        reserve(token, chair.getId(), 10).andExpect(status().isOk());
+        reserve(token, table.getId(), 10).andExpect(status().isOk());
+        reserve(token, table.getId(), 1)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 20 units can be reserved at once"));
+
+        // Another user is not affected
+        reserve(signUp(), table.getId(), 1).andExpect(status().isOk());
+    }
+
+    @Test
+    void answersConflictWhenSoldOut() throws Exception {
+        Product product = product("100.00", 2);
+
+        reserve(signUp(), product.getId(), 3).andExpect(status().isConflict());
+    }
+
+    private ResultActions reserve(String token, UUID productId, int quantity) throws Exception {
+        return mockMvc.perform(post("/api/inventory/reservations")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .param("productId", productId.toString())
+                .param("quantity", String.valueOf(quantity)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.dfw.furniture.controller;
+
+import com.dfw.furniture.dto.OrderRequest;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest extends ApiTestSupport {
+
+    @Test
+    void placesOrderWithItemsAndTotals() throws Exception {
+        Product chair = product("120.00", 10);
+        Product table = product("450.50", 3);
+        String token = signUp();
+
+        JsonNode order = json(placeOrder(token, null, order(chair.getId(), 2, table.getId(), 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("pending"))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.subtotal").value(690.50))
+                .andExpect(jsonPath("$.data.totalAmount").value(690.50))
+                .andReturn()).path("data");
+
+        UUID orderId = UUID.fromString(order.path("orderId").asText());
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT order_number, total_amount, shipping_method FROM orders WHERE id = ?", orderId);
+        assertThat(row.get("order_number")).isEqualTo(order.path("orderNumber").asText());
+        assertThat(row.get("total_amount")).asString().isEqualTo("690.50");
+        assertThat(row.get("shipping_method")).isEqualTo("standard");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM order_items WHERE order_id = ? ORDER BY quantity DESC", Integer.class, orderId))
+                .containsExactly(2, 1);
+    }
+
+    @Test
+    void retryWithSameKeyReturnsTheOriginalOrder() throws Exception {
+        Product chair = product("99.99", 10);
+        String token = signUp();
+        String key = UUID.randomUUID().toString();
+        OrderRequest request = order(chair.getId(), 1);
+
+        String first = json(placeOrder(token, key, request).andExpect(status().isOk()).andReturn())
+                .path("data").path("orderId").asText();
+        String second = json(placeOrder(token, key, request).andExpect(status().isOk()).andReturn())
+                .path("data").path("orderId").asText();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(ordersFor(chair.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void keyCannotBeReusedForADifferentOrder() throws Exception {
+        Product chair = product("99.99", 10);
+        String token = signUp();
+        String key = UUID.randomUUID().toString();
+
+        placeOrder(token, key, order(chair.getId(), 1)).andExpect(status().isOk());
+        placeOrder(token, key, order(chair.getId(), 2))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+        assertThat(ordersFor(chair.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void refusesOrdersBeyondStock() throws Exception {
+        Product table = product("450.00", 2);
+        String token = signUp();
+
+        placeOrder(token, null, order(table.getId(), 3)).andExpect(status().isConflict());
+        assertThat(ordersFor(table.getId())).isZero();
+    }
+
+    @Test
+    void reservedStockCanBeOrderedByItsHolderOnly() throws Exception {
+        Product table = product("450.00", 2);
+        String holder = signUp();
+        String reservationId = json(mockMvc.perform(post("/api/inventory/reservations")
+                        .header(HttpHeaders.AUTHORIZATION, holder)
+                        .param("productId", table.getId().toString())
+                        .param("quantity", "2"))
+                .andExpect(status().isOk())
+                .andReturn()).path("data").path("id").asText();
+
+        // Every unit is held, so nobody else can buy one
+        placeOrder(signUp(), null, order(table.getId(), 1)).andExpect(status().isConflict());
+
+        OrderRequest request = order(table.getId(), 2);
+        request.getItems().get(0).setReservationId(UUID.fromString(reservationId));
+        placeOrder(holder, null, request).andExpect(status().isOk());
+        assertThat(ordersFor(table.getId())).isEqualTo(1);
+
+        // Used up by the order
+        mockMvc.perform(post("/api/inventory/reservations/{id}/confirm", reservationId)
+                        .header(HttpHeaders.AUTHORIZATION, holder))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Reservation not found"));
+    }
+
+    @Test
+    void requiresSignIn() throws Exception {
+        Product chair = product("99.99", 10);
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order(chair.getId(), 1))))
+                .andExpect(status().isForbidden());
+        assertThat(ordersFor(chair.getId())).isZero();
+    }
+
+    @Test
+    void rejectsEmptyOrders() throws Exception {
+        placeOrder(signUp(), null, OrderRequest.builder().items(List.of()).build())
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions placeOrder(String token, String idempotencyKey, OrderRequest request) throws Exception {
+        var builder = post("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+        return mockMvc.perform(builder);
+    }
+
+    private int ordersFor(UUID productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT order_id) FROM order_items WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private static OrderRequest order(Object... productsAndQuantities) {
+        List<OrderRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.add(new OrderRequest.Item((UUID) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]));
+        }
+        return OrderRequest.builder()
+                .items(items)
+                .shippingAddress(Map.of("line1", "12 Elm Street", "city", "Dallas"))
+                .shippingMethod("standard")
+                .build();
+    }
+}
@@ -0,0 +1,253 @@
+package com.dfw.furniture.inventory;
+
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.exception.InsufficientStockException;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryServiceTest extends ApiTestSupport {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // A second application instance on the same Redis and database
+    private InventoryService otherNode;
+
+    @BeforeEach
+    void startOtherNode() {
+        otherNode = new InventoryService(redisTemplate, jdbcTemplate, transactionManager, eventPublisher,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(otherNode, "reservationTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(otherNode, "maxHeldPerUser", 20);
+        ReflectionTestUtils.setField(otherNode, "batchSize", 100);
+        otherNode.registerMetrics();
+    }
+
+    @Test
+    void concurrentReservationsOnTwoNodesNeverOversell() throws Exception {
+        int stock = 40;
+        Product product = product("100.00", stock);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Reservation> reservations = new ConcurrentLinkedQueue<>();
+        List<Future<?>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                InventoryService node = i % 2 == 0 ? inventoryService : otherNode;
+                int quantity = 1 + i % 3;
+                String owner = "buyer-" + i;
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservations.add(node.reserve(product.getId(), quantity, owner));
+                    } catch (InsufficientStockException ex) {
+                        // Sold out
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int held = reservations.stream().mapToInt(Reservation::quantity).sum();
+        assertThat(held).isLessThanOrEqualTo(stock);
+        StockStatus status = otherNode.getStock(product.getId());
+        assertThat(status.reserved()).isEqualTo(held);
+        assertThat(status.available()).isEqualTo(stock - held);
+
+        // Confirm every other reservation on one node and release the rest on the other
+        int sold = 0;
+        boolean confirm = true;
+        for (Reservation reservation : reservations) {
+            if (confirm) {
+                inventoryService.confirm(reservation.id(), reservation.owner());
+                sold += reservation.quantity();
+            } else {
+                otherNode.release(reservation.id(), reservation.owner());
+            }
+            confirm = !confirm;
+        }
+        otherNode.flush();
+        assertThat(stockOf(product.getId())).isEqualTo(stock - sold);
+        assertThat(totalSalesOf(product.getId())).isEqualTo(sold);
+        assertThat(inventoryService.getStock(product.getId()))
+                .isEqualTo(new StockStatus(product.getId(), stock - sold, 0, stock - sold, false));
+    }
+
+    @Test
+    void capsUnitsHeldPerOwnerAcrossConcurrentReservations() throws Exception {
+        Product product = product("100.00", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Reservation> reservations = new ConcurrentLinkedQueue<>();
+        List<Future<?>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 30; i++) {
+                InventoryService node = i % 2 == 0 ? inventoryService : otherNode;
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservations.add(node.reserve(product.getId(), 1, "hoarder"));
+                    } catch (RuntimeException ex) {
+                        assertThat(ex).hasMessage("At most 20 units can be reserved at once");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(reservations).hasSize(20);
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(80);
+
+        // Settled units no longer count against the cap
+        Reservation first = reservations.peek();
+        inventoryService.release(first.id(), "hoarder");
+        assertThat(otherNode.reserve(product.getId(), 1, "hoarder").quantity()).isEqualTo(1);
+    }
+
+    @Test
+    void settlesAReservationOnlyOnce() {
+        Product product = product("100.00", 5);
+        Reservation reservation = inventoryService.reserve(product.getId(), 2, "buyer");
+
+        otherNode.confirm(reservation.id(), "buyer");
+
+        assertThatThrownBy(() -> inventoryService.confirm(reservation.id(), "buyer"))
+                .hasMessage("Reservation not found");
+        assertThatThrownBy(() -> inventoryService.release(reservation.id(), "buyer"))
+                .hasMessage("Reservation not found");
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(3);
+        inventoryService.flush();
+        assertThat(stockOf(product.getId())).isEqualTo(3);
+    }
+
+    @Test
+    void writesSoldUnitsBackOnFlush() {
+        Product chair = product("100.00", 5);
+        Product table = product("300.00", 8);
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE id IN (?, ?)",
+                Timestamp.valueOf("2020-01-01 00:00:00"), chair.getId(), table.getId());
+        inventoryService.confirm(inventoryService.reserve(chair.getId(), 1, "buyer").id(), "buyer");
+        inventoryService.confirm(inventoryService.reserve(chair.getId(), 2, "buyer").id(), "buyer");
+        otherNode.confirm(otherNode.reserve(table.getId(), 3, "buyer").id(), "buyer");
+
+        // Sold, but not yet in the database
+        assertThat(stockOf(chair.getId())).isEqualTo(5);
+        assertThat(inventoryService.getStock(chair.getId()).available()).isEqualTo(2);
+
+        otherNode.flush();
+
+        assertThat(stockOf(chair.getId())).isEqualTo(2);
+        assertThat(stockOf(table.getId())).isEqualTo(5);
+        assertThat(totalSalesOf(chair.getId())).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM products WHERE id = ?", Timestamp.class, chair.getId()))
+                .isAfter(Timestamp.valueOf("2020-01-01 00:00:00"));
+        assertThat(inventoryService.getStock(chair.getId()).available()).isEqualTo(2);
+
+        // Nothing left to write
+        inventoryService.flush();
+        assertThat(stockOf(chair.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void productWritesResyncTheCountersAndKeepReservations() {
+        Product product = product("100.00", 5);
+        Reservation reservation = inventoryService.reserve(product.getId(), 3, "buyer");
+        inventoryService.confirm(inventoryService.reserve(product.getId(), 1, "buyer").id(), "buyer");
+
+        // Restocked from the admin while units are held and sold but not written back
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 12 WHERE id = ?", product.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getSlug()));
+
+        assertThat(otherNode.getStock(product.getId()))
+                .isEqualTo(new StockStatus(product.getId(), 8, 3, 11, false));
+        otherNode.confirm(reservation.id(), "buyer");
+        inventoryService.flush();
+        assertThat(stockOf(product.getId())).isEqualTo(8);
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(8);
+    }
+
+    @Test
+    void refusesToConfirmAnExpiredReservation() {
+        Product product = product("100.00", 5);
+        ReflectionTestUtils.setField(otherNode, "reservationTtl", Duration.ofMillis(-1));
+        Reservation reservation = otherNode.reserve(product.getId(), 4, "buyer");
+
+        assertThatThrownBy(() -> inventoryService.confirm(reservation.id(), "buyer"))
+                .hasMessage("Reservation expired");
+
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(5);
+        assertThatThrownBy(() -> inventoryService.release(reservation.id(), "buyer"))
+                .hasMessage("Reservation not found");
+        inventoryService.flush();
+        assertThat(stockOf(product.getId())).isEqualTo(5);
+    }
+
+    @Test
+    void expiredReservationsGoBackToStock() {
+        Product product = product("100.00", 5);
+        ReflectionTestUtils.setField(otherNode, "reservationTtl", Duration.ofMillis(-1));
+        Reservation reservation = otherNode.reserve(product.getId(), 4, "buyer");
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(1);
+
+        inventoryService.releaseExpired();
+
+        assertThat(inventoryService.getStock(product.getId()).available()).isEqualTo(5);
+        assertThatThrownBy(() -> otherNode.confirm(reservation.id(), "buyer"))
+                .hasMessage("Reservation not found");
+    }
+
+    @Test
+    void refusesUnknownProducts() {
+        assertThatThrownBy(() -> inventoryService.reserve(UUID.randomUUID(), 1, "buyer"))
+                .hasMessage("Product not found");
+    }
+
+    private int totalSalesOf(UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT total_sales FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
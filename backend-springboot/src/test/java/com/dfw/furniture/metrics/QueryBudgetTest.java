@@ -0,0 +1,120 @@
+package com.dfw.furniture.metrics;
+
+import com.dfw.furniture.dto.LoginRequest;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs with {@code queries.budget.fail=true}, as all tests do, so a request over its budget
+ * fails. The import runs in batches of five rows, so a small file already takes more
+ * statements than the default budget.
+ */
+@Import(QueryBudgetTest.BudgetedController.class)
+@TestPropertySource(properties = "product.import.batch-size=5")
+class QueryBudgetTest extends ApiTestSupport {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void productEndpointsStayWithinTheirBudgets() throws Exception {
+        Product product = product("250.00", 10);
+
+        mockMvc.perform(get("/api/products").param("sortBy", "views")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/cursor")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/{id}", product.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/slug/{slug}", product.getSlug())).andExpect(status().isOk());
+
+        assertThat(mostQueries("/api/products")).isLessThanOrEqualTo(3);
+        assertThat(mostQueries("/api/products/cursor")).isLessThanOrEqualTo(2);
+        assertThat(mostQueries("/api/products/{id}")).isLessThanOrEqualTo(2);
+        assertThat(mostQueries("/api/products/slug/{slug}")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void countsJdbcTemplateStatements() throws Exception {
+        String token = signUp();
+
+        mockMvc.perform(get("/api/test/budgeted").param("statements", "2").header("Authorization", token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/test/budgeted").param("statements", "3").header("Authorization", token))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Query budget of 2 exceeded by: SELECT 1"));
+    }
+
+    @Test
+    void importIsNotLimited() throws Exception {
+        String token = admin();
+        StringBuilder csv = new StringBuilder("name,sku,price,stockQuantity\n");
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < 60; i++) {
+            csv.append("Budget Stool ").append(run).append(' ').append(i)
+                    .append(",BS-").append(run).append('-').append(i).append(",99.00,4\n");
+        }
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .header("Authorization", token)
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.inserted").value(60));
+
+        assertThat(mostQueries("/api/admin/products/import")).isGreaterThan(20);
+    }
+
+    private double mostQueries(String uri) {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.queries").tag("uri", uri).summary();
+        assertThat(summary).as("queries recorded for %s", uri).isNotNull();
+        return summary.max();
+    }
+
+    private String admin() throws Exception {
+        String email = "admin-" + UUID.randomUUID() + "@example.com";
+        signUp(email);
+        jdbcTemplate.update("UPDATE users SET role = 'ADMIN' WHERE email = ?", email);
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                LoginRequest.builder().email(email).password("correct-horse-battery").build())))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + json(login).path("data").path("token").asText();
+    }
+
+    @RestController
+    @RequiredArgsConstructor
+    static class BudgetedController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @QueryBudget(2)
+        @GetMapping("/api/test/budgeted")
+        public String run(@RequestParam int statements) {
+            for (int i = 0; i < statements; i++) {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            }
+            return "ok";
+        }
+    }
+}
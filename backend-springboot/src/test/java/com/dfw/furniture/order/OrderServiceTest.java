@@ -0,0 +1,282 @@
+package com.dfw.furniture.order;
+
+import com.dfw.furniture.dto.OrderConfirmation;
+import com.dfw.furniture.dto.OrderRequest;
+import com.dfw.furniture.exception.InsufficientStockException;
+import com.dfw.furniture.inventory.InventoryService;
+import com.dfw.furniture.inventory.Reservation;
+import com.dfw.furniture.inventory.StockStatus;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.model.User;
+import com.dfw.furniture.repository.UserRepository;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OrderServiceTest extends ApiTestSupport {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @SpyBean
+    private IdempotencyStore idempotencyStore;
+
+    private User customer;
+
+    @BeforeEach
+    void signUpCustomer() throws Exception {
+        String email = "buyer-" + UUID.randomUUID() + "@example.com";
+        signUp(email);
+        customer = userRepository.findByEmail(email).orElseThrow();
+    }
+
+    @Test
+    void takesStockWithTheOrderAndWritesItBack() {
+        Product chair = product("120.00", 10);
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf("2020-01-01 00:00:00"), chair.getId());
+
+        orderService.placeOrder(customer, order(chair.getId(), 3), null);
+
+        // Already sold when placeOrder returns, not left to an after-commit task
+        assertThat(availableOf(chair.getId())).isEqualTo(7);
+        inventoryService.flush();
+        assertThat(stockOf(chair.getId())).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT total_sales FROM products WHERE id = ?", Integer.class, chair.getId())).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM products WHERE id = ?", Timestamp.class, chair.getId()))
+                .isAfter(Timestamp.valueOf("2020-01-01 00:00:00"));
+    }
+
+    @Test
+    void storesNothingWhenOneLineIsShort() {
+        Product chair = product("120.00", 10);
+        Product table = product("450.00", 1);
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, order(chair.getId(), 2, table.getId(), 2), null))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(availableOf(chair.getId())).isEqualTo(10);
+        assertThat(availableOf(table.getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items WHERE product_id IN (?, ?)", Integer.class,
+                chair.getId(), table.getId())).isZero();
+    }
+
+    @Test
+    void givesTheUnitsBackWhenTheOrderCannotBeStored() {
+        Product chair = product("120.00", 10);
+        OrderRequest request = order(chair.getId(), 4);
+        // Longer than orders.shipping_method allows, so the insert fails
+        request.setShippingMethod("x".repeat(51));
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, request, null))
+                .isInstanceOf(DataAccessException.class);
+
+        assertThat(availableOf(chair.getId())).isEqualTo(10);
+        inventoryService.flush();
+        assertThat(stockOf(chair.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void leavesReservedUnitsAlone() {
+        Product chair = product("120.00", 3);
+        inventoryService.reserve(chair.getId(), 2, "someone-else");
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, order(chair.getId(), 2), null))
+                .isInstanceOf(InsufficientStockException.class);
+        orderService.placeOrder(customer, order(chair.getId(), 1), null);
+
+        // The two reserved units are still on hand for their reservation
+        StockStatus stock = inventoryService.getStock(chair.getId());
+        assertThat(stock.available()).isZero();
+        assertThat(stock.reserved()).isEqualTo(2);
+    }
+
+    @Test
+    void ordersReservedUnitsWithTheirReservation() {
+        Product chair = product("120.00", 3);
+        Reservation reservation = inventoryService.reserve(chair.getId(), 2, customer.getEmail());
+        inventoryService.reserve(chair.getId(), 1, "someone-else");
+
+        orderService.placeOrder(customer, reservedOrder(chair.getId(), 2, reservation.id()), null);
+
+        assertThat(inventoryService.getStock(chair.getId()))
+                .isEqualTo(new StockStatus(chair.getId(), 0, 1, 1, true));
+        assertThatThrownBy(() -> inventoryService.release(reservation.id(), customer.getEmail()))
+                .hasMessage("Reservation not found");
+        inventoryService.flush();
+        assertThat(stockOf(chair.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void refusesReservationsThatDoNotFitTheOrder() {
+        Product chair = product("120.00", 10);
+        Product table = product("450.00", 10);
+        Reservation theirs = inventoryService.reserve(chair.getId(), 2, "someone-else");
+        Reservation mine = inventoryService.reserve(chair.getId(), 2, customer.getEmail());
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, reservedOrder(chair.getId(), 2, theirs.id()), null))
+                .hasMessage("Reservation not found");
+        assertThatThrownBy(() -> orderService.placeOrder(customer, reservedOrder(chair.getId(), 3, mine.id()), null))
+                .hasMessage("Reservation does not match its order line");
+        assertThatThrownBy(() -> orderService.placeOrder(customer, reservedOrder(table.getId(), 2, mine.id()), null))
+                .hasMessage("Reservation does not match its order line");
+
+        // Nothing was taken and both reservations still hold their units
+        assertThat(availableOf(chair.getId())).isEqualTo(6);
+        assertThat(availableOf(table.getId())).isEqualTo(10);
+        inventoryService.release(theirs.id(), "someone-else");
+        inventoryService.release(mine.id(), customer.getEmail());
+    }
+
+    @Test
+    void refusesAnExpiredReservation() {
+        Product chair = product("120.00", 5);
+        Reservation reservation = inventoryService.reserve(chair.getId(), 2, customer.getEmail());
+        redisTemplate.opsForHash().put("dfw:reservation:" + reservation.id(), "expiresAt", "0");
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, reservedOrder(chair.getId(), 2, reservation.id()), null))
+                .hasMessage("Reservation expired");
+
+        assertThat(availableOf(chair.getId())).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTheReservationWhenTheOrderCannotBeStored() {
+        Product chair = product("120.00", 5);
+        Product table = product("450.00", 5);
+        Reservation reservation = inventoryService.reserve(chair.getId(), 2, customer.getEmail());
+        OrderRequest request = reservedOrder(chair.getId(), 2, reservation.id());
+        request.getItems().add(new OrderRequest.Item(table.getId(), 1));
+        request.setShippingMethod("x".repeat(51));
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, request, null))
+                .isInstanceOf(DataAccessException.class);
+
+        assertThat(inventoryService.getStock(chair.getId()))
+                .isEqualTo(new StockStatus(chair.getId(), 3, 2, 5, true));
+        assertThat(availableOf(table.getId())).isEqualTo(5);
+        // A retry can still use it
+        request.setShippingMethod("standard");
+        orderService.placeOrder(customer, request, null);
+        assertThat(inventoryService.getStock(chair.getId()).reserved()).isZero();
+    }
+
+    @Test
+    void concurrentOrdersNeverOversell() throws Exception {
+        Product table = product("450.00", 5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger placed = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.placeOrder(customer, order(table.getId(), 1), null);
+                        placed.incrementAndGet();
+                    } catch (InsufficientStockException ex) {
+                        // Sold out
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(placed.get()).isEqualTo(5);
+        inventoryService.flush();
+        assertThat(stockOf(table.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items WHERE product_id = ?", Integer.class, table.getId())).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTheKeyClaimedWhenTheResultCannotBeStored() {
+        Product chair = product("120.00", 10);
+        String key = UUID.randomUUID().toString();
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(idempotencyStore).complete(any(), anyString(), anyString(), any());
+
+        OrderConfirmation confirmation = orderService.placeOrder(customer, order(chair.getId(), 1), key);
+
+        assertThat(confirmation.getOrderId()).isNotNull();
+        verify(idempotencyStore, never()).release(any(), anyString());
+        // A retry is refused rather than placed a second time
+        assertThatThrownBy(() -> orderService.placeOrder(customer, order(chair.getId(), 1), key))
+                .hasMessage("An order with this idempotency key is still being processed");
+        assertThat(availableOf(chair.getId())).isEqualTo(9);
+    }
+
+    @Test
+    void releasesTheKeyWhenTheOrderFails() {
+        Product chair = product("120.00", 1);
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, order(chair.getId(), 2), key))
+                .isInstanceOf(InsufficientStockException.class);
+        verify(idempotencyStore).release(customer.getId(), key);
+
+        orderService.placeOrder(customer, order(chair.getId(), 1), key);
+        assertThat(availableOf(chair.getId())).isZero();
+    }
+
+    private static OrderRequest reservedOrder(UUID productId, int quantity, UUID reservationId) {
+        List<OrderRequest.Item> items = new ArrayList<>();
+        items.add(new OrderRequest.Item(productId, quantity, reservationId));
+        return OrderRequest.builder().items(items).shippingMethod("standard").build();
+    }
+
+    private int availableOf(UUID productId) {
+        return inventoryService.getStock(productId).available();
+    }
+
+    private static OrderRequest order(Object... productsAndQuantities) {
+        List<OrderRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.add(new OrderRequest.Item((UUID) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]));
+        }
+        return OrderRequest.builder().items(items).shippingMethod("standard").build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfw.furniture.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    // Long periods, so the test's own run time is noise next to the expected waits
+    private static final RateLimit LIMIT = new RateLimit("test", 3, Duration.ofHours(3));
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+    private static final long SLACK = TimeUnit.SECONDS.toNanos(10);
+
+    private final LocalRateLimiter limiter = new LocalRateLimiter(1024, 4);
+
+    @Test
+    void allowsABurstOfCapacityThenOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(LIMIT, "client")).isZero();
+        }
+
+        long wait = limiter.tryAcquire(LIMIT, "client");
+
+        // The bucket is full again three intervals on; one token comes back after the first
+        assertThat(wait).isBetween(HOUR - SLACK, HOUR);
+    }
+
+    @Test
+    void refusedRequestsTakeNothing() {
+        RateLimit limit = new RateLimit("test", 1, Duration.ofHours(1));
+        assertThat(limiter.tryAcquire(limit, "client")).isZero();
+
+        long first = limiter.tryAcquire(limit, "client");
+        long second = limiter.tryAcquire(limit, "client");
+
+        assertThat(first).isPositive();
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerSubjectAndLimit() {
+        RateLimit other = new RateLimit("other", 3, Duration.ofHours(3));
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(LIMIT, "client");
+        }
+
+        assertThat(limiter.tryAcquire(LIMIT, "client")).isPositive();
+        assertThat(limiter.tryAcquire(LIMIT, "someone-else")).isZero();
+        assertThat(limiter.tryAcquire(other, "client")).isZero();
+    }
+
+    @Test
+    void evictsTheBucketClosestToFullWhenTheTableIsBusy() {
+        // One stripe of eight slots, all inside a single probe window
+        LocalRateLimiter small = new LocalRateLimiter(8, 1);
+        RateLimit limit = new RateLimit("test", 1, Duration.ofHours(1));
+        for (int i = 0; i < 8; i++) {
+            assertThat(small.tryAcquire(limit, "client-" + i)).isZero();
+        }
+
+        // A new client is never turned away for lack of room; client-0 refilled soonest
+        assertThat(small.tryAcquire(limit, "client-8")).isZero();
+
+        assertThat(small.tryAcquire(limit, "client-0")).isZero();
+        assertThat(small.tryAcquire(limit, "client-7")).isPositive();
+        assertThat(small.tryAcquire(limit, "client-8")).isPositive();
+    }
+}
@@ -0,0 +1,64 @@
+package com.dfw.furniture.ratelimit;
+
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "ratelimit.enabled=true",
+        "ratelimit.search.capacity=3",
+        "ratelimit.search.user-capacity=2",
+        "ratelimit.search.period=1h"
+})
+class RateLimitFilterTest extends ApiTestSupport {
+
+    @Test
+    void signedInSearchesDrawOnBothTheUserAndTheAddressBucket() throws Exception {
+        String first = signUp();
+        String second = signUp();
+
+        search(first, "10.0.0.1").andExpect(status().isOk());
+        search(first, "10.0.0.1").andExpect(status().isOk());
+        // The user's bucket is empty; the refusal leaves the address's last token alone
+        String retryAfter = search(first, "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertThat(Long.parseLong(retryAfter)).isBetween(1L, 1800L);
+
+        search(null, "10.0.0.1").andExpect(status().isOk());
+        // A fresh user on the same address gets nothing once the address is spent
+        search(second, "10.0.0.1").andExpect(status().isTooManyRequests());
+        search(null, "10.0.0.1").andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        search(second, "10.0.0.2").andExpect(status().isOk());
+    }
+
+    @Test
+    void leavesOtherRoutesAlone() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/products").with(request -> {
+                request.setRemoteAddr("10.0.1.1");
+                return request;
+            })).andExpect(status().isOk());
+        }
+    }
+
+    private ResultActions search(String authorization, String address) throws Exception {
+        return mockMvc.perform(get("/api/products").param("search", "sofa").with(request -> {
+            request.setRemoteAddr(address);
+            if (authorization != null) {
+                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            return request;
+        }));
+    }
+}
@@ -0,0 +1,155 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    private final ProductFacetIndex index = new ProductFacetIndex(
+            List.of(new BigDecimal("500"), new BigDecimal("100"), new BigDecimal("1000")));
+
+    @Test
+    void intersectsFacetsAndUnionsValuesWithinAFacet() {
+        Product oakIkea = index(product("Ikea", "Oak", "Brown", "150.00"));
+        Product pineIkea = index(product("Ikea", "Pine", "White", "80.00"));
+        Product oakHay = index(product("Hay", "Oak", "Black", "700.00"));
+        index(product("Muuto", "Oak", "Brown", "300.00"));
+
+        assertThat(ids(query(Map.of(
+                ProductFacetIndex.BRAND, Set.of("ikea", "HAY"),
+                ProductFacetIndex.MATERIAL, Set.of("oak")))))
+                .containsExactlyInAnyOrder(oakIkea.getId(), oakHay.getId());
+        assertThat(ids(query(Map.of(ProductFacetIndex.COLOR, Set.of("white")))))
+                .containsExactly(pineIkea.getId());
+        assertThat(query(Map.of(ProductFacetIndex.BRAND, Set.of("nobody"))).total()).isZero();
+    }
+
+    @Test
+    void bucketsPricesAndFiltersByRange() {
+        index(product("Ikea", "Oak", "Brown", "99.99"));
+        Product atBound = index(product("Ikea", "Oak", "Brown", "100.00"));
+        Product mid = index(product("Ikea", "Oak", "Brown", "450.00"));
+        index(product("Ikea", "Oak", "Brown", "2500.00"));
+
+        ProductFacetIndex.FacetResult all = query(Map.of());
+        // Bounds are sorted, and a price on a bound falls in the bucket above it
+        assertThat(all.facets().get(ProductFacetIndex.PRICE)).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "0-100", 1L, "100-500", 2L, "1000+", 1L));
+
+        ProductFacetIndex.FacetResult ranged = index.query(Map.of(), new BigDecimal("100"), new BigDecimal("450"),
+                null, Sort.by("price"), 0, 10);
+        assertThat(ranged.pageIds()).containsExactly(atBound.getId(), mid.getId());
+    }
+
+    @Test
+    void countsEachFacetAgainstTheOtherFacetsSelections() {
+        index(product("Ikea", "Oak", "Brown", "150.00"));
+        index(product("Ikea", "Pine", "Brown", "150.00"));
+        index(product("Hay", "Oak", "Brown", "150.00"));
+        index(product("Hay", "Steel", "Grey", "150.00"));
+
+        ProductFacetIndex.FacetResult result = query(Map.of(
+                ProductFacetIndex.BRAND, Set.of("ikea"),
+                ProductFacetIndex.MATERIAL, Set.of("oak")));
+
+        assertThat(result.total()).isEqualTo(1);
+        // Brands count oak products only, materials count Ikea products only
+        assertThat(result.facets().get(ProductFacetIndex.BRAND))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Ikea", 1L, "Hay", 1L));
+        assertThat(result.facets().get(ProductFacetIndex.MATERIAL))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Oak", 1L, "Pine", 1L));
+        assertThat(result.facets().get(ProductFacetIndex.COLOR))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Brown", 1L));
+    }
+
+    @Test
+    void matchesAnyOfTheSelectedCategories() {
+        Category parent = category();
+        Category child = category();
+        Product inParent = product("Ikea", "Oak", "Brown", "150.00");
+        inParent.setCategory(parent);
+        Product inChild = product("Ikea", "Oak", "Brown", "150.00");
+        inChild.setCategory(child);
+        index(inParent);
+        index(inChild);
+        index(product("Ikea", "Oak", "Brown", "150.00"));
+
+        // ProductFacetService selects a category together with its descendants
+        ProductFacetIndex.FacetResult result = query(Map.of(ProductFacetIndex.CATEGORY,
+                Set.of(parent.getId().toString(), child.getId().toString())));
+
+        assertThat(ids(result)).containsExactlyInAnyOrder(inParent.getId(), inChild.getId());
+        assertThat(ids(query(Map.of(ProductFacetIndex.CATEGORY, Set.of(child.getId().toString())))))
+                .containsExactly(inChild.getId());
+    }
+
+    @Test
+    void reindexingMovesAProductBetweenValues() {
+        Product sofa = index(product("Ikea", "Oak", "Brown", "150.00"));
+        Product other = index(product("Hay", "Oak", "Brown", "150.00"));
+
+        sofa.setBrand("Hay");
+        index.index(sofa);
+
+        assertThat(query(Map.of(ProductFacetIndex.BRAND, Set.of("ikea"))).total()).isZero();
+        assertThat(ids(query(Map.of(ProductFacetIndex.BRAND, Set.of("hay")))))
+                .containsExactlyInAnyOrder(sofa.getId(), other.getId());
+        assertThat(query(Map.of()).facets().get(ProductFacetIndex.BRAND))
+                .containsExactlyEntriesOf(Map.of("Hay", 2L));
+
+        sofa.setIsActive(false);
+        index.index(sofa);
+        index.remove(other.getId());
+
+        assertThat(index.size()).isZero();
+        assertThat(query(Map.of()).facets().get(ProductFacetIndex.BRAND)).isEmpty();
+
+        // A freed doc id is reused without leaking the old product's values
+        Product chair = index(product("Muuto", "Steel", "Grey", "150.00"));
+        assertThat(ids(query(Map.of(ProductFacetIndex.MATERIAL, Set.of("steel"))))).containsExactly(chair.getId());
+        assertThat(query(Map.of(ProductFacetIndex.MATERIAL, Set.of("oak"))).total()).isZero();
+    }
+
+    private ProductFacetIndex.FacetResult query(Map<String, Set<String>> selections) {
+        return index.query(selections, null, null, null, Sort.unsorted(), 0, 20);
+    }
+
+    private Product index(Product product) {
+        index.index(product);
+        return product;
+    }
+
+    private static List<UUID> ids(ProductFacetIndex.FacetResult result) {
+        return result.pageIds();
+    }
+
+    static Product product(String brand, String material, String color, String price) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(brand + " " + material);
+        product.setBrand(brand);
+        product.setMaterial(material);
+        product.setColor(color);
+        product.setPrice(new BigDecimal(price));
+        product.setCreatedAt(LocalDateTime.now());
+        product.setIsActive(true);
+        return product;
+    }
+
+    static Category category() {
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        return category;
+    }
+}
@@ -0,0 +1,77 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductRepository;
+import com.dfw.furniture.service.CategoryTreeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ProductFacetServiceTest {
+
+    private final ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+    private final CategoryTreeService categoryTreeService = Mockito.mock(CategoryTreeService.class);
+    private final ProductFacetService service = new ProductFacetService(productRepository,
+            Mockito.mock(ProductSearchService.class), categoryTreeService, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "priceBuckets", List.of(new BigDecimal("500")));
+        service.registerMetrics();
+    }
+
+    @Test
+    void keepsChangesCommittedDuringARebuild() {
+        Product sofa = ProductFacetIndexTest.product("Ikea", "Oak", "Brown", "150.00");
+        Product rebranded = ProductFacetIndexTest.product("Hay", "Oak", "Brown", "150.00");
+        rebranded.setId(sofa.getId());
+        when(productRepository.findWithCategoryById(sofa.getId())).thenReturn(Optional.of(rebranded));
+        // The update commits after the load read the old row
+        when(productRepository.findAllActiveWithCategory()).thenAnswer(invocation -> {
+            service.onProductChanged(new ProductChangedEvent(sofa.getId(), null));
+            return List.of(sofa);
+        });
+
+        service.rebuild();
+
+        assertThat(query(ProductFilter.builder().brands(List.of("hay")).build()).pageIds())
+                .containsExactly(sofa.getId());
+        assertThat(query(ProductFilter.builder().brands(List.of("ikea")).build()).total()).isZero();
+    }
+
+    @Test
+    void filtersACategoryWithItsDescendants() {
+        Category parent = ProductFacetIndexTest.category();
+        Category child = ProductFacetIndexTest.category();
+        Product inChild = ProductFacetIndexTest.product("Ikea", "Oak", "Brown", "150.00");
+        inChild.setCategory(child);
+        Product elsewhere = ProductFacetIndexTest.product("Ikea", "Oak", "Brown", "150.00");
+        elsewhere.setCategory(ProductFacetIndexTest.category());
+        when(productRepository.findAllActiveWithCategory()).thenReturn(List.of(inChild, elsewhere));
+        when(categoryTreeService.getDescendantIds(parent.getId())).thenReturn(Set.of(parent.getId(), child.getId()));
+
+        service.rebuild();
+
+        assertThat(query(ProductFilter.builder().category(parent.getId()).build()).pageIds())
+                .containsExactly(inChild.getId());
+    }
+
+    private ProductFacetIndex.FacetResult query(ProductFilter filter) {
+        return service.query(filter, PageRequest.of(0, 20)).orElseThrow();
+    }
+}
@@ -0,0 +1,90 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void findsTermsWithTypos() {
+        Product bookshelf = product("Scandinavian Teak Bookshelf");
+        Product sofa = product("Modern Fabric Sofa");
+        index.index(bookshelf);
+        index.index(sofa);
+
+        assertThat(index.search("scandinavan", Sort.unsorted())).containsExactly(bookshelf.getId());
+        assertThat(index.search("sfoa", Sort.unsorted())).containsExactly(sofa.getId());
+        assertThat(index.search("bokshelf teek", Sort.unsorted())).containsExactly(bookshelf.getId());
+    }
+
+    @Test
+    void expandsTheWordBeingTyped() {
+        Product bookshelf = product("Scandinavian Teak Bookshelf");
+        index.index(bookshelf);
+
+        assertThat(index.search("teak book", Sort.unsorted())).containsExactly(bookshelf.getId());
+    }
+
+    @Test
+    void doesNotExpandATrailingStopWord() {
+        Product sofa = product("Modern Fabric Sofa");
+        Product chair = product("Forest Green Chair");
+        index.index(sofa);
+        index.index(chair);
+
+        // "for" is a finished word, not the start of "forest"
+        assertThat(index.search("sofa for", Sort.unsorted())).containsExactly(sofa.getId());
+        assertThat(index.search("green fore", Sort.unsorted())).containsExactly(chair.getId());
+    }
+
+    @Test
+    void compactsReplacedDocuments() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Product product = product("Walnut Desk " + i);
+            products.add(product);
+            index.index(product);
+        }
+        for (int round = 0; round < 20; round++) {
+            for (Product product : products) {
+                product.setName("Walnut Desk round" + round);
+                index.index(product);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(500);
+        assertThat(index.slots()).isLessThanOrEqualTo(500 + 1001);
+        assertThat(index.search("round19", Sort.unsorted())).hasSize(500);
+        assertThat(index.search("round3", Sort.unsorted())).isEmpty();
+    }
+
+    @Test
+    void removedProductsAreNotFound() {
+        Product sofa = product("Modern Fabric Sofa");
+        index.index(sofa);
+        sofa.setIsActive(false);
+        index.index(sofa);
+
+        assertThat(index.search("sofa", Sort.unsorted())).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    static Product product(String name) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setIsActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,42 @@
+package com.dfw.furniture.search;
+
+import com.dfw.furniture.event.ProductChangedEvent;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ProductSearchServiceTest {
+
+    private final ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+    private final ProductSearchService service = new ProductSearchService(productRepository, new SimpleMeterRegistry());
+
+    @Test
+    void keepsChangesCommittedDuringARebuild() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        service.registerMetrics();
+        Product sofa = ProductSearchIndexTest.product("Modern Fabric Sofa");
+        Product renamed = ProductSearchIndexTest.product("Modern Leather Sofa");
+        renamed.setId(sofa.getId());
+        when(productRepository.findWithCategoryById(sofa.getId())).thenReturn(Optional.of(renamed));
+        // The rename commits after the load read the old row
+        when(productRepository.findAllActiveWithCategory()).thenAnswer(invocation -> {
+            service.onProductChanged(new ProductChangedEvent(sofa.getId(), null));
+            return List.of(sofa);
+        });
+
+        service.rebuild();
+
+        assertThat(service.search("leather", Pageable.unpaged())).contains(List.of(sofa.getId()));
+        assertThat(service.search("fabric", Pageable.unpaged())).contains(List.of());
+    }
+}
@@ -0,0 +1,54 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.dto.RegisterRequest;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+class AuthServiceTest extends ApiTestSupport {
+
+    @Autowired
+    private AuthService authService;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void hashesThePasswordOutsideTheTransaction() {
+        List<Boolean> inTransaction = new ArrayList<>();
+        doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(anyString());
+        String email = "customer-" + UUID.randomUUID() + "@example.com";
+
+        authService.register(request(email));
+
+        assertThat(inTransaction).containsExactly(false);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Long.class, email))
+                .isEqualTo(1);
+        assertThatThrownBy(() -> authService.register(request(email)))
+                .hasMessage("Email already registered");
+    }
+
+    private static RegisterRequest request(String email) {
+        return RegisterRequest.builder()
+                .email(email)
+                .password("correct-horse-battery")
+                .firstName("Test")
+                .lastName("Customer")
+                .build();
+    }
+}
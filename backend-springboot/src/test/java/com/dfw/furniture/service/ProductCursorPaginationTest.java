@@ -0,0 +1,97 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.dto.CursorPage;
+import com.dfw.furniture.model.Category;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCursorPaginationTest extends ApiTestSupport {
+
+    @Autowired
+    private ProductService productService;
+
+    private UUID categoryId;
+    private final Set<UUID> expected = new HashSet<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, name, slug, is_active) VALUES (?, ?, ?, TRUE)",
+                categoryId, "Cursor " + categoryId, "cursor-" + categoryId);
+
+        // The builder, a JSON body with explicit nulls, and a bare SQL insert all leave the
+        // rating and sales unset
+        for (int i = 0; i < 3; i++) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            expected.add(productRepository.save(Product.builder()
+                    .name("Cursor " + suffix)
+                    .slug("cursor-" + suffix)
+                    .category(Category.builder().id(categoryId).build())
+                    .price(new BigDecimal("100.00"))
+                    .isActive(true)
+                    .build()).getId());
+        }
+        for (int i = 0; i < 3; i++) {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            Product fromJson = objectMapper.readValue("""
+                    {"name": "Cursor %s", "slug": "cursor-%s", "price": 250.00, "isActive": true,
+                     "category": {"id": "%s"}, "averageRating": null, "totalSales": null}
+                    """.formatted(suffix, suffix, categoryId), Product.class);
+            expected.add(productService.createProduct(fromJson).getId());
+        }
+        for (int i = 0; i < 2; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO products (id, name, slug, price, category_id, is_active) "
+                    + "VALUES (?, ?, ?, 75.00, ?, TRUE)", id, "Cursor " + id, "cursor-" + id, categoryId);
+            expected.add(id);
+        }
+        Product rated = product("400.00", 1);
+        rated.setCategory(Category.builder().id(categoryId).build());
+        rated.setAverageRating(new BigDecimal("4.50"));
+        productRepository.save(rated);
+        jdbcTemplate.update("UPDATE products SET total_sales = 12 WHERE id = ?", rated.getId());
+        expected.add(rated.getId());
+    }
+
+    @Test
+    void everySortWalksEveryProductExactlyOnce() {
+        for (String sortBy : List.of("createdAt", "price", "averageRating", "totalSales")) {
+            for (boolean ascending : List.of(true, false)) {
+                assertThat(walk(sortBy, ascending)).as("%s %s", sortBy, ascending ? "asc" : "desc")
+                        .doesNotHaveDuplicates()
+                        .containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void ratingAndSalesDefaultToZero() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE category_id = ? AND average_rating = 0 AND total_sales = 0",
+                Long.class, categoryId)).isEqualTo(8);
+    }
+
+    private List<UUID> walk(String sortBy, boolean ascending) {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            // Pages of two split the runs of equal sort keys, so the id tie-break is exercised
+            CursorPage<Product> page = productService.getProductsAfter(cursor, sortBy, ascending, categoryId, 2);
+            page.getItems().forEach(product -> seen.add(product.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && seen.size() <= expected.size());
+        return seen;
+    }
+}
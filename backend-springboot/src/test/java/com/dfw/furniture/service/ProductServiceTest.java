@@ -0,0 +1,77 @@
+package com.dfw.furniture.service;
+
+import com.dfw.furniture.dto.ProductFilter;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.support.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listings served without the facet index, where every filter must still apply.
+ */
+@TestPropertySource(properties = "search.facets.enabled=false")
+class ProductServiceTest extends ApiTestSupport {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void appliesAttributeFiltersTogether() {
+        String brand = "Brand " + UUID.randomUUID();
+        Product oakSofa = product(brand, "Oak", "Brown", true, "900.00");
+        product(brand, "Oak", "Grey", false, "950.00");
+        product(brand, "Pine", "Brown", true, "400.00");
+        product("Other " + UUID.randomUUID(), "Oak", "Brown", true, "900.00");
+
+        ProductFilter filter = ProductFilter.builder()
+                .brands(List.of(" " + brand.toUpperCase() + " "))
+                .materials(List.of("oak"))
+                .colors(List.of("brown", "black"))
+                .featured(true)
+                .build();
+
+        assertThat(ids(filter)).containsExactly(oakSofa.getId());
+    }
+
+    @Test
+    void combinesSearchPriceAndAttributes() {
+        String brand = "Brand " + UUID.randomUUID();
+        Product cheap = product(brand, "Teak", "White", false, "300.00");
+        product(brand, "Teak", "White", false, "1300.00");
+        Product customizable = product(brand, "Teak", "White", false, "350.00");
+        customizable.setIsCustomizable(true);
+        productRepository.save(customizable);
+
+        ProductFilter filter = ProductFilter.builder()
+                .search("chair")
+                .brands(List.of(brand))
+                .maxPrice(new BigDecimal("1000"))
+                .customizable(false)
+                .build();
+
+        assertThat(ids(filter)).containsExactly(cheap.getId());
+    }
+
+    private List<UUID> ids(ProductFilter filter) {
+        return productService.findProducts(filter, PageRequest.of(0, 20)).getProducts()
+                .map(Product::getId)
+                .getContent();
+    }
+
+    private Product product(String brand, String material, String color, boolean featured, String price) {
+        Product product = product(price, 10);
+        product.setBrand(brand);
+        product.setMaterial(material);
+        product.setColor(color);
+        product.setIsFeatured(featured);
+        return productRepository.save(product);
+    }
+}
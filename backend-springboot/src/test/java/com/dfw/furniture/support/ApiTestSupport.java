@@ -0,0 +1,96 @@
+package com.dfw.furniture.support;
+
+import com.dfw.furniture.dto.RegisterRequest;
+import com.dfw.furniture.model.Product;
+import com.dfw.furniture.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole application on H2 with the Redis stand-in and drives it through MockMvc.
+ * Every helper creates uniquely named rows, so test classes share one context and database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestRedisConfiguration.class)
+public abstract class ApiTestSupport {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected InMemoryRedisConnectionFactory redis;
+
+    /**
+     * Registers a new customer and returns an {@code Authorization} header value for them.
+     */
+    protected String signUp() throws Exception {
+        return signUp("customer-" + UUID.randomUUID() + "@example.com");
+    }
+
+    protected String signUp(String email) throws Exception {
+        RegisterRequest request = RegisterRequest.builder()
+                .email(email)
+                .password("correct-horse-battery")
+                .firstName("Test")
+                .lastName("Customer")
+                .build();
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + json(result).path("data").path("token").asText();
+    }
+
+    protected Product product(String price, int stock) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return productRepository.save(Product.builder()
+                .name("Test Chair " + suffix)
+                .slug("test-chair-" + suffix)
+                .sku("TC-" + suffix)
+                .price(new BigDecimal(price))
+                .stockQuantity(stock)
+                .lowStockThreshold(5)
+                .isActive(true)
+                .isFeatured(false)
+                .isCustomizable(false)
+                .averageRating(BigDecimal.ZERO)
+                .totalSales(0)
+                .views(0)
+                .build());
+    }
+
+    protected int stockOf(UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    protected JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
@@ -0,0 +1,452 @@
+package com.dfw.furniture.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.ScanCursor;
+import org.springframework.data.redis.core.ScanIteration;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Redis stand-in for tests: strings, counters, hashes, sets and sorted sets with expiry, SCAN,
+ * and pipelining, kept in one map behind a lock. It covers the commands the application issues
+ * (carts, idempotency keys, dirty sets, the L2 cache, stock counters) and fails loudly on
+ * anything else. Published messages go
+ * synchronously to listeners added with {@link #subscribe}; Lua scripts are not supported.
+ */
+public class InMemoryRedisConnectionFactory implements RedisConnectionFactory {
+
+    private final Map<String, Object> data = new HashMap<>();
+    private final Map<String, Long> expiries = new HashMap<>();
+    private final Map<String, List<MessageListener>> subscribers = new HashMap<>();
+    private long clockOffsetMillis;
+
+    @Override
+    public RedisConnection getConnection() {
+        Connection connection = new Connection();
+        return (RedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RedisConnection.class},
+                (proxy, method, args) -> connection.invoke(proxy, method.getName(), args == null ? new Object[0] : args));
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        throw new UnsupportedOperationException("No cluster support");
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return true;
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        throw new UnsupportedOperationException("No sentinel support");
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return null;
+    }
+
+    /**
+     * Drops every key, as after a Redis restart.
+     */
+    public synchronized void flushAll() {
+        data.clear();
+        expiries.clear();
+    }
+
+    /**
+     * Moves the clock forward, expiring keys whose TTL runs out in the meantime.
+     */
+    public synchronized void advance(Duration duration) {
+        clockOffsetMillis += duration.toMillis();
+    }
+
+    public synchronized boolean exists(String key) {
+        return live(key) != null;
+    }
+
+    /**
+     * Delivers every later PUBLISH on {@code channel} to {@code listener}, on the publishing
+     * thread, standing in for a listener container.
+     */
+    public synchronized void subscribe(String channel, MessageListener listener) {
+        subscribers.computeIfAbsent(channel, key -> new ArrayList<>()).add(listener);
+    }
+
+    private long now() {
+        return System.currentTimeMillis() + clockOffsetMillis;
+    }
+
+    private Object live(String key) {
+        Long expiresAt = expiries.get(key);
+        if (expiresAt != null && expiresAt <= now()) {
+            data.remove(key);
+            expiries.remove(key);
+        }
+        return data.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> hash(String key, boolean create) {
+        Object value = live(key);
+        if (value == null && create) {
+            value = new LinkedHashMap<String, String>();
+            data.put(key, value);
+        }
+        return (Map<String, String>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> set(String key, boolean create) {
+        Object value = live(key);
+        if (value == null && create) {
+            value = new LinkedHashSet<String>();
+            data.put(key, value);
+        }
+        return (Set<String>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> sortedSet(String key, boolean create) {
+        Object value = live(key);
+        if (value == null && create) {
+            value = new HashMap<String, Double>();
+            data.put(key, value);
+        }
+        return (Map<String, Double>) value;
+    }
+
+    private long incrementBy(String key, long delta) {
+        Object value = live(key);
+        long result = (value == null ? 0 : Long.parseLong((String) value)) + delta;
+        data.put(key, String.valueOf(result));
+        return result;
+    }
+
+    private void removeIfEmpty(String key) {
+        Object value = data.get(key);
+        if (value instanceof Map<?, ?> map && map.isEmpty() || value instanceof Set<?> set && set.isEmpty()) {
+            data.remove(key);
+            expiries.remove(key);
+        }
+    }
+
+    private void put(String key, String value, long ttlMillis) {
+        data.put(key, value);
+        if (ttlMillis > 0) {
+            expiries.put(key, now() + ttlMillis);
+        } else {
+            expiries.remove(key);
+        }
+    }
+
+    // Latin-1 maps every byte to one char and back, so serialized values survive unchanged
+    private static String string(Object bytes) {
+        return new String((byte[]) bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private final class Connection {
+
+        private List<Object> pipeline;
+        private boolean closed;
+
+        Object invoke(Object proxy, String command, Object[] args) {
+            switch (command) {
+                case "stringCommands":
+                case "keyCommands":
+                case "hashCommands":
+                case "setCommands":
+                case "zSetCommands":
+                    return proxy;
+                case "openPipeline":
+                    pipeline = new ArrayList<>();
+                    return null;
+                case "closePipeline":
+                    List<Object> results = pipeline == null ? List.of() : pipeline;
+                    pipeline = null;
+                    return results;
+                case "isPipelined":
+                    return pipeline != null;
+                case "isQueueing":
+                    return false;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getNativeConnection":
+                    return this;
+                case "hashCode":
+                    return System.identityHashCode(this);
+                case "equals":
+                    return args[0] == this;
+                case "toString":
+                    return "InMemoryRedisConnection";
+                default:
+                    Object result;
+                    synchronized (InMemoryRedisConnectionFactory.this) {
+                        result = execute(command, args);
+                    }
+                    if (pipeline != null) {
+                        pipeline.add(result);
+                        return null;
+                    }
+                    return result;
+            }
+        }
+
+        private Object execute(String command, Object[] args) {
+            switch (command) {
+                case "get": {
+                    Object value = live(string(args[0]));
+                    return value instanceof String text ? bytes(text) : null;
+                }
+                case "set": {
+                    String key = string(args[0]);
+                    if (args.length == 2) {
+                        put(key, string(args[1]), 0);
+                        return true;
+                    }
+                    Expiration expiration = (Expiration) args[2];
+                    RedisStringCommands.SetOption option = (RedisStringCommands.SetOption) args[3];
+                    boolean present = live(key) != null;
+                    if (option == RedisStringCommands.SetOption.SET_IF_ABSENT && present
+                            || option == RedisStringCommands.SetOption.SET_IF_PRESENT && !present) {
+                        return false;
+                    }
+                    put(key, string(args[1]),
+                            expiration == null || expiration.isPersistent() ? 0 : expiration.getExpirationTimeInMilliseconds());
+                    return true;
+                }
+                case "setEx":
+                    put(string(args[0]), string(args[2]), (Long) args[1] * 1000);
+                    return true;
+                case "pSetEx":
+                    put(string(args[0]), string(args[2]), (Long) args[1]);
+                    return true;
+                case "incrBy":
+                    return incrementBy(string(args[0]), (Long) args[1]);
+                case "decrBy":
+                    return incrementBy(string(args[0]), -(Long) args[1]);
+                case "del": {
+                    long removed = 0;
+                    for (Object key : (Object[]) args[0]) {
+                        if (live(string(key)) != null) {
+                            data.remove(string(key));
+                            expiries.remove(string(key));
+                            removed++;
+                        }
+                    }
+                    return removed;
+                }
+                case "exists": {
+                    if (args[0] instanceof byte[] key) {
+                        return live(string(key)) != null;
+                    }
+                    long count = 0;
+                    for (byte[] key : (byte[][]) args[0]) {
+                        count += live(string(key)) != null ? 1 : 0;
+                    }
+                    return count;
+                }
+                case "expire":
+                    return expire(string(args[0]), (Long) args[1] * 1000);
+                case "pExpire":
+                    return expire(string(args[0]), (Long) args[1]);
+                case "hGetAll": {
+                    Map<String, String> hash = hash(string(args[0]), false);
+                    Map<byte[], byte[]> entries = new LinkedHashMap<>();
+                    if (hash != null) {
+                        hash.forEach((field, value) -> entries.put(bytes(field), bytes(value)));
+                    }
+                    return entries;
+                }
+                case "hGet": {
+                    Map<String, String> hash = hash(string(args[0]), false);
+                    return hash == null ? null : bytes(hash.get(string(args[1])));
+                }
+                case "hExists": {
+                    Map<String, String> hash = hash(string(args[0]), false);
+                    return hash != null && hash.containsKey(string(args[1]));
+                }
+                case "hMGet": {
+                    Map<String, String> hash = hash(string(args[0]), false);
+                    List<byte[]> values = new ArrayList<>();
+                    for (Object field : (Object[]) args[1]) {
+                        values.add(hash == null ? null : bytes(hash.get(string(field))));
+                    }
+                    return values;
+                }
+                case "hSet":
+                    return hash(string(args[0]), true).put(string(args[1]), string(args[2])) == null;
+                case "hSetNX":
+                    return hash(string(args[0]), true).putIfAbsent(string(args[1]), string(args[2])) == null;
+                case "hMSet": {
+                    Map<String, String> hash = hash(string(args[0]), true);
+                    ((Map<?, ?>) args[1]).forEach((field, value) -> hash.put(string(field), string(value)));
+                    return null;
+                }
+                case "hIncrBy": {
+                    Map<String, String> hash = hash(string(args[0]), true);
+                    long value = Long.parseLong(hash.getOrDefault(string(args[1]), "0")) + (Long) args[2];
+                    hash.put(string(args[1]), String.valueOf(value));
+                    return value;
+                }
+                case "hDel": {
+                    String key = string(args[0]);
+                    Map<String, String> hash = hash(key, false);
+                    long removed = 0;
+                    if (hash != null) {
+                        for (Object field : (Object[]) args[1]) {
+                            removed += hash.remove(string(field)) != null ? 1 : 0;
+                        }
+                        removeIfEmpty(key);
+                    }
+                    return removed;
+                }
+                case "hLen": {
+                    Map<String, String> hash = hash(string(args[0]), false);
+                    return hash == null ? 0L : (long) hash.size();
+                }
+                case "sAdd": {
+                    Set<String> set = set(string(args[0]), true);
+                    long added = 0;
+                    for (Object member : (Object[]) args[1]) {
+                        added += set.add(string(member)) ? 1 : 0;
+                    }
+                    return added;
+                }
+                case "sIsMember": {
+                    Set<String> set = set(string(args[0]), false);
+                    return set != null && set.contains(string(args[1]));
+                }
+                case "sCard": {
+                    Set<String> set = set(string(args[0]), false);
+                    return set == null ? 0L : (long) set.size();
+                }
+                case "sMembers": {
+                    Set<String> set = set(string(args[0]), false);
+                    Set<byte[]> members = new LinkedHashSet<>();
+                    if (set != null) {
+                        set.forEach(member -> members.add(bytes(member)));
+                    }
+                    return members;
+                }
+                case "sPop": {
+                    String key = string(args[0]);
+                    Set<String> set = set(key, false);
+                    long count = args.length > 1 ? (Long) args[1] : 1;
+                    List<byte[]> popped = new ArrayList<>();
+                    if (set != null) {
+                        Iterator<String> members = set.iterator();
+                        while (members.hasNext() && popped.size() < count) {
+                            popped.add(bytes(members.next()));
+                            members.remove();
+                        }
+                        removeIfEmpty(key);
+                    }
+                    return args.length > 1 ? popped : popped.isEmpty() ? null : popped.get(0);
+                }
+                case "zAdd":
+                    return sortedSet(string(args[0]), true).put(string(args[2]), (Double) args[1]) == null;
+                case "zRangeByScore": {
+                    Map<String, Double> sortedSet = sortedSet(string(args[0]), false);
+                    double min = (Double) args[1];
+                    double max = (Double) args[2];
+                    long offset = args.length > 3 ? (Long) args[3] : 0;
+                    long count = args.length > 3 ? (Long) args[4] : Long.MAX_VALUE;
+                    Set<byte[]> members = new LinkedHashSet<>();
+                    if (sortedSet != null) {
+                        sortedSet.entrySet().stream()
+                                .filter(entry -> entry.getValue() >= min && entry.getValue() <= max)
+                                .sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                                .skip(offset)
+                                .limit(count)
+                                .forEach(entry -> members.add(bytes(entry.getKey())));
+                    }
+                    return members;
+                }
+                case "zRem": {
+                    String key = string(args[0]);
+                    Map<String, Double> sortedSet = sortedSet(key, false);
+                    long removed = 0;
+                    if (sortedSet != null) {
+                        for (Object member : (Object[]) args[1]) {
+                            removed += sortedSet.remove(string(member)) != null ? 1 : 0;
+                        }
+                        removeIfEmpty(key);
+                    }
+                    return removed;
+                }
+                case "publish": {
+                    List<MessageListener> listeners = subscribers.getOrDefault(string(args[0]), List.of());
+                    Message message = new DefaultMessage((byte[]) args[0], (byte[]) args[1]);
+                    listeners.forEach(listener -> listener.onMessage(message, null));
+                    return (long) listeners.size();
+                }
+                case "scan": {
+                    ScanOptions options = (ScanOptions) args[0];
+                    Pattern pattern = glob(options.getPattern() == null ? "*" : options.getPattern());
+                    List<byte[]> keys = new ArrayList<>();
+                    for (String key : new ArrayList<>(data.keySet())) {
+                        if (live(key) != null && pattern.matcher(key).matches()) {
+                            keys.add(bytes(key));
+                        }
+                    }
+                    // One pass returns every match, as a scan that ends on its first call
+                    return new ScanCursor<byte[]>(options) {
+                        @Override
+                        protected ScanIteration<byte[]> doScan(long cursorId, ScanOptions ignored) {
+                            return new ScanIteration<>(0, keys);
+                        }
+                    }.open();
+                }
+                default:
+                    throw new UnsupportedOperationException("Redis command not supported by the test stand-in: " + command);
+            }
+        }
+
+        private static Pattern glob(String pattern) {
+            StringBuilder regex = new StringBuilder();
+            for (char c : pattern.toCharArray()) {
+                regex.append(c == '*' ? ".*" : c == '?' ? "." : Pattern.quote(String.valueOf(c)));
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+
+        private boolean expire(String key, long ttlMillis) {
+            if (live(key) == null) {
+                return false;
+            }
+            expiries.put(key, now() + ttlMillis);
+            return true;
+        }
+    }
+}
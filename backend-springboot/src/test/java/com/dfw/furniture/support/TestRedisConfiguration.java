@@ -0,0 +1,17 @@
+package com.dfw.furniture.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Replaces the Lettuce connection factory with {@link InMemoryRedisConnectionFactory}, so the
+ * templates, carts and idempotency keys work without a Redis server.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestRedisConfiguration {
+
+    @Bean
+    public InMemoryRedisConnectionFactory redisConnectionFactory() {
+        return new InMemoryRedisConnectionFactory();
+    }
+}
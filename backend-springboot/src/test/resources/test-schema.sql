@@ -0,0 +1,44 @@
+-- Tables written with JdbcTemplate only, so Hibernate does not create them
+CREATE DOMAIN IF NOT EXISTS jsonb AS JSON;
+
+CREATE TABLE IF NOT EXISTS cart_items (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    user_id UUID,
+    product_id UUID,
+    quantity INTEGER NOT NULL DEFAULT 1,
+    price DECIMAL(10,2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    order_number VARCHAR(50) UNIQUE NOT NULL,
+    user_id UUID,
+    status VARCHAR(30) DEFAULT 'pending',
+    payment_status VARCHAR(30) DEFAULT 'pending',
+    subtotal DECIMAL(10,2) NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    customer_email VARCHAR(255),
+    customer_phone VARCHAR(20),
+    customer_name VARCHAR(200),
+    shipping_address jsonb,
+    billing_address jsonb,
+    shipping_method VARCHAR(50),
+    notes TEXT,
+    order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id UUID DEFAULT RANDOM_UUID() PRIMARY KEY,
+    order_id UUID REFERENCES orders(id) ON DELETE CASCADE,
+    product_id UUID,
+    product_name VARCHAR(255) NOT NULL,
+    product_sku VARCHAR(100),
+    quantity INTEGER NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    total_price DECIMAL(10,2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
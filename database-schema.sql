@@ -141,12 +141,12 @@ CREATE TABLE products (
     is_active BOOLEAN DEFAULT TRUE,
     is_customizable BOOLEAN DEFAULT FALSE,
     assembly_required BOOLEAN DEFAULT FALSE,
-    average_rating DECIMAL(3,2) DEFAULT 0,
+    average_rating DECIMAL(3,2) NOT NULL DEFAULT 0, -- NOT NULL: cursor pagination seeks on it
     total_reviews INTEGER DEFAULT 0,
-    total_sales INTEGER DEFAULT 0,
+    total_sales INTEGER NOT NULL DEFAULT 0,
     seo_title VARCHAR(200),
     seo_description TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -599,6 +599,15 @@ CREATE INDEX idx_products_is_active ON products(is_active);
 CREATE INDEX idx_products_price ON products(price);
 CREATE INDEX idx_products_rating ON products(average_rating);
 CREATE INDEX idx_products_featured ON products(is_featured);
+-- Keyset pagination: one (is_active, sort column, id) index per cursor sort
+CREATE INDEX idx_products_active_created_id ON products(is_active, created_at, id);
+CREATE INDEX idx_products_active_price_id ON products(is_active, price, id);
+CREATE INDEX idx_products_active_rating_id ON products(is_active, average_rating, id);
+CREATE INDEX idx_products_active_sales_id ON products(is_active, total_sales, id);
+CREATE INDEX idx_products_category_active_created_id ON products(category_id, is_active, created_at, id);
+
+-- Cart indexes (carts are rewritten per user by the write-behind flush)
+CREATE INDEX idx_cart_items_user_id ON cart_items(user_id);
 
 -- Order indexes
 CREATE INDEX idx_orders_user_id ON orders(user_id);
@@ -606,6 +615,7 @@ CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_order_number ON orders(order_number);
 CREATE INDEX idx_orders_order_date ON orders(order_date);
 CREATE INDEX idx_orders_payment_status ON orders(payment_status);
+CREATE INDEX idx_order_items_order_id ON order_items(order_id);
 
 -- Session indexes
 CREATE INDEX idx_sessions_user_id ON user_sessions(user_id);